@@ -2,9 +2,11 @@ package com.insurance.tracking;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 // GraphQL service — GraphiQL available at http://localhost:8090/graphiql
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class ClaimTrackingApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,94 @@
+package com.insurance.tracking.analytics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribution of durations in milliseconds, recorded lock-free into log-linear buckets:
+ * exact below 16 ms, then 16 buckets per power of two, so a percentile is reported within
+ * about 3% of the true value whatever the scale, from minutes to months. Fixed size, so
+ * recording allocates nothing and a percentile is one walk over the buckets.
+ */
+final class DwellHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMillis = new LongAdder();
+
+    /** Records a duration; negative ones, from clock skew between writers, count as zero. */
+    void record(long millis) {
+        long value = Math.max(millis, 0L);
+        buckets.incrementAndGet(bucket(value));
+        count.increment();
+        sumMillis.add(value);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    /** Returns NaN when nothing was recorded. */
+    double meanMillis() {
+        long n = count.sum();
+        return n == 0 ? Double.NaN : (double) sumMillis.sum() / n;
+    }
+
+    /**
+     * Returns the midpoint of the bucket holding the given quantile, or NaN when nothing
+     * was recorded.
+     *
+     * @param quantile between 0 and 1
+     */
+    double percentileMillis(double quantile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return Double.NaN;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return (lowerBound(i) + upperBound(i)) / 2.0;
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    // Bounds as doubles: the last buckets' bounds exceed the long range
+    private static double lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        int subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return Math.scalb((double) (SUB_BUCKETS + subBucket), shift);
+    }
+
+    private static double upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        return lowerBound(bucket) + Math.scalb(1.0, shift) - 1;
+    }
+}
@@ -0,0 +1,97 @@
+package com.insurance.tracking.analytics;
+
+import com.insurance.tracking.model.ClaimStatus;
+import com.insurance.tracking.model.StageStatistics;
+import com.insurance.tracking.model.Status;
+import com.insurance.tracking.model.StatusEntry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-status dwell time and throughput, kept up to date as entries are appended rather
+ * than computed from the histories on request.
+ *
+ * Each appended entry counts as an entry into its status and closes the dwell in the
+ * previous entry's status, measured between the two entries' epoch-millis timestamps.
+ * The repository feeds every write here, and the whole recovered history once at
+ * start-up, so the aggregates cover every entry the store holds.
+ */
+@Component
+public class PipelineStatistics {
+
+    private static final Status[] STATUSES = Status.values();
+
+    private static final class Stage {
+        final LongAdder entered = new LongAdder();
+        final DwellHistogram dwell = new DwellHistogram();
+        final TrailingHourCounter arrivals = new TrailingHourCounter();
+    }
+
+    // Fully populated at construction and never structurally modified afterwards
+    private final Map<Status, Stage> stages = new EnumMap<>(Status.class);
+
+    public PipelineStatistics() {
+        for (Status status : STATUSES) {
+            stages.put(status, new Stage());
+        }
+    }
+
+    /**
+     * Records the entries {@code after} added to the history of {@code before}.
+     *
+     * @param before the replaced snapshot, or null for a new claim
+     */
+    public void recordAppended(ClaimStatus before, ClaimStatus after) {
+        int from = before != null ? before.getStatusHistory().size() : 0;
+        recordEntries(after.getStatusHistory(), from, System.currentTimeMillis());
+    }
+
+    /** Records a claim's whole history, as restored at start-up. */
+    public void recordHistory(ClaimStatus claimStatus, long nowMillis) {
+        recordEntries(claimStatus.getStatusHistory(), 0, nowMillis);
+    }
+
+    private void recordEntries(List<StatusEntry> history, int from, long nowMillis) {
+        for (int i = from; i < history.size(); i++) {
+            StatusEntry entry = history.get(i);
+            Stage stage = stages.get(entry.getStatus());
+            stage.entered.increment();
+            stage.arrivals.record(entry.getTimestampMillis(), nowMillis);
+            if (i > 0) {
+                StatusEntry previous = history.get(i - 1);
+                stages.get(previous.getStatus()).dwell.record(entry.getTimestampMillis() - previous.getTimestampMillis());
+            }
+        }
+    }
+
+    public StageStatistics forStatus(Status status) {
+        Stage stage = stages.get(status);
+        DwellHistogram dwell = stage.dwell;
+        return new StageStatistics(
+                status,
+                stage.entered.sum(),
+                dwell.count(),
+                seconds(dwell.meanMillis()),
+                seconds(dwell.percentileMillis(0.50)),
+                seconds(dwell.percentileMillis(0.95)),
+                stage.arrivals.count(System.currentTimeMillis()));
+    }
+
+    /** One entry per status, in pipeline order. */
+    public List<StageStatistics> all() {
+        List<StageStatistics> result = new ArrayList<>(STATUSES.length);
+        for (Status status : STATUSES) {
+            result.add(forStatus(status));
+        }
+        return result;
+    }
+
+    private static Double seconds(double millis) {
+        return Double.isNaN(millis) ? null : millis / 1000.0;
+    }
+}
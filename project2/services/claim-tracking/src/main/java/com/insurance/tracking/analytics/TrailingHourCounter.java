@@ -0,0 +1,49 @@
+package com.insurance.tracking.analytics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Events of the trailing hour, counted in one slot per minute of a 60-slot ring. A slot
+ * is reused once its minute has left the window, so the counter never grows and events
+ * older than an hour cost nothing to forget.
+ */
+final class TrailingHourCounter {
+
+    private static final int SLOTS = 60;
+    private static final long SLOT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final long[] minutes = new long[SLOTS];
+    private final long[] counts = new long[SLOTS];
+
+    TrailingHourCounter() {
+        Arrays.fill(minutes, Long.MIN_VALUE);
+    }
+
+    /** Counts an event that happened at the given instant, if it is within the window. */
+    synchronized void record(long eventMillis, long nowMillis) {
+        long minute = Math.floorDiv(eventMillis, SLOT_MILLIS);
+        long currentMinute = Math.floorDiv(nowMillis, SLOT_MILLIS);
+        if (minute <= currentMinute - SLOTS || minute > currentMinute) {
+            return;
+        }
+        int slot = (int) Math.floorMod(minute, SLOTS);
+        if (minutes[slot] != minute) {
+            minutes[slot] = minute;
+            counts[slot] = 0;
+        }
+        counts[slot]++;
+    }
+
+    /** Events during the hour before the given instant. */
+    synchronized long count(long nowMillis) {
+        long currentMinute = Math.floorDiv(nowMillis, SLOT_MILLIS);
+        long total = 0;
+        for (int slot = 0; slot < SLOTS; slot++) {
+            if (minutes[slot] > currentMinute - SLOTS && minutes[slot] <= currentMinute) {
+                total += counts[slot];
+            }
+        }
+        return total;
+    }
+}
@@ -1,12 +1,23 @@
 package com.insurance.tracking.controller;
 
+import com.insurance.tracking.model.BulkStatusUpdatePayload;
+import com.insurance.tracking.model.ClaimFilter;
 import com.insurance.tracking.model.ClaimStatus;
+import com.insurance.tracking.model.ClaimStatusChange;
+import com.insurance.tracking.model.ClaimStatusConnection;
+import com.insurance.tracking.model.StageStatistics;
 import com.insurance.tracking.model.Status;
+import com.insurance.tracking.model.StatusEntry;
+import com.insurance.tracking.model.StatusUpdateInput;
+import com.insurance.tracking.model.TransitionCount;
 import com.insurance.tracking.service.ClaimStatusService;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.data.method.annotation.SubscriptionMapping;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 
@@ -26,6 +37,14 @@ public class ClaimTrackingController {
         return claimStatusService.trackClaim(claimId);
     }
 
+    @QueryMapping
+    public ClaimStatusConnection claims(
+            @Argument int first,
+            @Argument String after,
+            @Argument ClaimFilter filter) {
+        return claimStatusService.getClaims(first, after, filter);
+    }
+
     @QueryMapping
     public List<ClaimStatus> getClaimsByStatus(@Argument Status status) {
         return claimStatusService.getClaimsByStatus(status);
@@ -36,11 +55,33 @@ public class ClaimTrackingController {
         return claimStatusService.getAllClaims();
     }
 
+    @QueryMapping
+    public List<StageStatistics> pipelineStatistics() {
+        return claimStatusService.getPipelineStatistics();
+    }
+
+    @QueryMapping
+    public StageStatistics stageStatistics(@Argument Status status) {
+        return claimStatusService.getStageStatistics(status);
+    }
+
+    @QueryMapping
+    public List<TransitionCount> transitionCounts() {
+        return claimStatusService.getTransitionCounts();
+    }
+
+    // Fields
+
+    @SchemaMapping(typeName = "ClaimStatus")
+    public List<StatusEntry> statusHistory(ClaimStatus claimStatus, @Argument Integer last, @Argument String since) {
+        return claimStatusService.getStatusHistory(claimStatus, last, since);
+    }
+
     // Mutations
 
     @MutationMapping
-    public ClaimStatus initializeClaim(@Argument String claimId) {
-        return claimStatusService.initializeClaim(claimId);
+    public ClaimStatus initializeClaim(@Argument String claimId, @Argument String claimType) {
+        return claimStatusService.initializeClaim(claimId, claimType);
     }
 
     @MutationMapping
@@ -51,4 +92,21 @@ public class ClaimTrackingController {
             @Argument String updatedBy) {
         return claimStatusService.updateClaimStatus(claimId, status, description, updatedBy);
     }
+
+    @MutationMapping
+    public BulkStatusUpdatePayload bulkUpdateClaimStatus(@Argument List<StatusUpdateInput> updates) {
+        return claimStatusService.bulkUpdateClaimStatus(updates);
+    }
+
+    // Subscriptions
+
+    @SubscriptionMapping
+    public Flux<ClaimStatusChange> claimStatusChanged(@Argument String claimId) {
+        return claimStatusService.claimStatusChanged(claimId);
+    }
+
+    @SubscriptionMapping
+    public Flux<ClaimStatusChange> statusTransitions(@Argument Status status) {
+        return claimStatusService.statusTransitions(status);
+    }
 }
@@ -0,0 +1,250 @@
+package com.insurance.tracking.journal;
+
+import com.insurance.tracking.model.ClaimStatus;
+import com.insurance.tracking.model.StatusEntry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Durable history of claim status entries: a {@link SegmentedLog} of appended entries
+ * plus periodic {@link SnapshotFile snapshots} of every claim.
+ *
+ * Entries are queued inside the repository's per-claim write, so each claim's entries
+ * reach the log in the order they were applied, and the caller waits for the group
+ * commit only after leaving it. A snapshot rolls the log to a new segment once no write
+ * is in progress, then copies the claims while writes continue; everything in older
+ * segments is in the snapshot, and later entries it already contains are skipped on
+ * replay because each record names its position in the claim's history.
+ */
+@Component
+public class ClaimJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(ClaimJournal.class);
+
+    private final JournalProperties properties;
+    private final SegmentedLog segmentedLog;
+
+    // Shared by writes, exclusive while a snapshot cuts the log
+    private final StampedLock snapshotBarrier = new StampedLock();
+    private final LongAdder appendedSinceSnapshot = new LongAdder();
+
+    private ScheduledExecutorService snapshotScheduler;
+    private Consumer<Consumer<ClaimStatus>> claimSource;
+
+    public ClaimJournal(JournalProperties properties) {
+        this.properties = properties;
+        this.segmentedLog = properties.enabled()
+                ? new SegmentedLog(properties.directory(), properties.segmentSize().toBytes(), properties.fsync())
+                : null;
+    }
+
+    /**
+     * Loads the latest snapshot, replays the log written after it and opens the log for
+     * appending. Call once, before any write.
+     *
+     * @param actors  returns the shared instance of an author's name read back
+     * @param restore receives every claim of the snapshot
+     * @param replay  applies one logged entry; returns false if the entry was already applied
+     */
+    public void recover(UnaryOperator<String> actors, Consumer<ClaimStatus> restore,
+                        Predicate<JournalRecord> replay) {
+        if (segmentedLog == null) {
+            log.info("Claim journal disabled — claim status history is kept in memory only");
+            return;
+        }
+        long started = System.nanoTime();
+        Path directory = properties.directory();
+        try {
+            Files.createDirectories(directory);
+            long[] restored = new long[1];
+            long fromSegment = SnapshotFile.readLatest(directory, actors, claimStatus -> {
+                restore.accept(claimStatus);
+                restored[0]++;
+            }).orElse(1L);
+
+            long[] applied = new long[1];
+            long replayed = segmentedLog.replay(fromSegment, payload -> {
+                if (replay.test(JournalCodec.decodeRecord(payload, actors))) {
+                    applied[0]++;
+                }
+            });
+            segmentedLog.start();
+            // Replayed entries count towards the next snapshot, so a long log is compacted
+            // even if no status changes follow
+            appendedSinceSnapshot.add(replayed);
+
+            log.info("Recovered claim journal from {} in {} ms: {} claims from snapshot, "
+                            + "{} of {} logged entries applied",
+                    directory.toAbsolutePath(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                    restored[0], applied[0], replayed);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot recover claim journal from " + directory.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Starts periodic snapshots.
+     *
+     * @param claims receives a sink and passes it a consistent copy of every claim
+     */
+    public void startSnapshots(Consumer<Consumer<ClaimStatus>> claims) {
+        if (segmentedLog == null) {
+            return;
+        }
+        claimSource = claims;
+        long intervalMillis = properties.snapshotInterval().toMillis();
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "claim-journal-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (RuntimeException | IOException e) {
+                log.error("Claim journal snapshot failed; the log keeps growing until one succeeds", e);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs a store write that appends to the journal. Writes run concurrently with each
+     * other; a snapshot waits for the running ones before cutting the log.
+     */
+    public <T> T write(Supplier<T> storeWrite) {
+        if (segmentedLog == null) {
+            return storeWrite.get();
+        }
+        if (segmentedLog.isFailed()) {
+            throw new IllegalStateException("Claim journal is unavailable; status changes are not accepted");
+        }
+        long stamp = snapshotBarrier.readLock();
+        try {
+            return storeWrite.get();
+        } finally {
+            snapshotBarrier.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Queues the claim's history entries from {@code fromIndex} on. Must be called inside
+     * {@link #write}, while holding the claim's write lock.
+     *
+     * @return completed once the entries are durable, or null if nothing was queued
+     */
+    public CompletableFuture<?> append(ClaimStatus claimStatus, int fromIndex) {
+        return append(claimStatus, fromIndex, true);
+    }
+
+    /**
+     * Queues the claim's history entries like {@link #append}, without committing them:
+     * they become durable with the next commit, such as one returned by {@link #commit}.
+     */
+    public void appendUncommitted(ClaimStatus claimStatus, int fromIndex) {
+        append(claimStatus, fromIndex, false);
+    }
+
+    /** Returns a commit that completes once every entry queued so far is durable. */
+    public CompletableFuture<?> commit() {
+        return segmentedLog != null ? segmentedLog.sync() : null;
+    }
+
+    private CompletableFuture<?> append(ClaimStatus claimStatus, int fromIndex, boolean commit) {
+        if (segmentedLog == null) {
+            return null;
+        }
+        List<StatusEntry> history = claimStatus.getStatusHistory();
+        int size = history.size();
+        CompletableFuture<?> committed = null;
+        for (int i = fromIndex; i < size; i++) {
+            byte[] frame = JournalCodec.encodeFrame(new JournalRecord(
+                    claimStatus.getClaimId(), i, history.get(i), claimStatus.getEstimatedCompletionDate(),
+                    i == 0 ? claimStatus.getClaimType() : null));
+            committed = segmentedLog.append(frame, commit && i == size - 1);
+        }
+        appendedSinceSnapshot.add(size - fromIndex);
+        return committed;
+    }
+
+    /** Blocks until a commit returned by {@link #append} or {@link #commit} is durable. */
+    public void awaitDurable(CompletableFuture<?> commit) {
+        if (commit == null) {
+            return;
+        }
+        try {
+            commit.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Status change could not be persisted", e.getCause());
+        }
+    }
+
+    /** Writes a snapshot if anything was appended since the last one, then drops covered files. */
+    synchronized void snapshot() throws IOException {
+        if (claimSource == null || appendedSinceSnapshot.sum() == 0) {
+            return;
+        }
+        long started = System.nanoTime();
+
+        CompletableFuture<Long> rolled;
+        long stamp = snapshotBarrier.writeLock();
+        try {
+            rolled = segmentedLog.roll();
+            appendedSinceSnapshot.reset();
+        } finally {
+            snapshotBarrier.unlockWrite(stamp);
+        }
+        long fromSegment;
+        try {
+            fromSegment = rolled.join();
+        } catch (CompletionException e) {
+            throw new IOException("Cannot roll the claim journal", e.getCause());
+        }
+
+        Path directory = properties.directory();
+        long claims = SnapshotFile.write(directory, fromSegment, claimSource);
+        segmentedLog.deleteSegmentsBefore(fromSegment);
+        SnapshotFile.deleteBefore(directory, fromSegment);
+
+        log.info("Wrote claim journal snapshot of {} claims in {} ms",
+                claims, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /** Takes a final snapshot, so the next start-up replays little, and closes the log. */
+    @PreDestroy
+    public void close() throws IOException {
+        if (segmentedLog == null) {
+            return;
+        }
+        if (snapshotScheduler != null) {
+            // Not interrupted: that would close the channel of a snapshot being written
+            snapshotScheduler.shutdown();
+        }
+        try {
+            if (!segmentedLog.isFailed()) {
+                snapshot();
+            }
+        } finally {
+            segmentedLog.close();
+        }
+    }
+}
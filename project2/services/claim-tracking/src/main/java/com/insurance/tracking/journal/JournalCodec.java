@@ -0,0 +1,180 @@
+package com.insurance.tracking.journal;
+
+import com.insurance.tracking.model.ClaimStatus;
+import com.insurance.tracking.model.Status;
+import com.insurance.tracking.model.StatusEntry;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary encoding of journal records and snapshot entries.
+ *
+ * A log frame is {@code [int payloadLength][int crc32c(payload)][payload]}, so replay
+ * can detect a torn write at the tail of the log. Strings are a length (-1 for null)
+ * followed by UTF-8 bytes; statuses are their ordinal and timestamps epoch millis. The
+ * claim type ends the payload of a record.
+ */
+final class JournalCodec {
+
+    static final int FRAME_HEADER_BYTES = 8;
+
+    private static final Status[] STATUSES = Status.values();
+
+    private JournalCodec() {
+    }
+
+    static byte[] encodeFrame(JournalRecord record) {
+        StatusEntry entry = record.entry();
+        byte[] claimId = utf8(record.claimId());
+        byte[] description = utf8(entry.getDescription());
+        byte[] updatedBy = utf8(entry.getUpdatedBy());
+        byte[] estimatedCompletion = utf8(record.estimatedCompletionDate());
+        byte[] claimType = utf8(record.claimType());
+
+        int payloadLength = sizeOf(claimId) + Integer.BYTES + 1 + Long.BYTES
+                + sizeOf(description) + sizeOf(updatedBy) + sizeOf(estimatedCompletion) + sizeOf(claimType);
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_BYTES + payloadLength);
+        frame.putInt(payloadLength);
+        frame.putInt(0);
+        putString(frame, claimId);
+        frame.putInt(record.index());
+        frame.put((byte) entry.getStatus().ordinal());
+        frame.putLong(entry.getTimestampMillis());
+        putString(frame, description);
+        putString(frame, updatedBy);
+        putString(frame, estimatedCompletion);
+        putString(frame, claimType);
+
+        CRC32C crc = new CRC32C();
+        crc.update(frame.array(), FRAME_HEADER_BYTES, payloadLength);
+        frame.putInt(Integer.BYTES, (int) crc.getValue());
+        return frame.array();
+    }
+
+    /**
+     * Returns the payload of the frame at the buffer's position and advances past it, or
+     * null if no complete, intact frame starts there.
+     */
+    static ByteBuffer nextPayload(ByteBuffer segment) {
+        if (segment.remaining() < FRAME_HEADER_BYTES) {
+            return null;
+        }
+        int start = segment.position();
+        int payloadLength = segment.getInt(start);
+        int checksum = segment.getInt(start + Integer.BYTES);
+        if (payloadLength <= 0 || payloadLength > segment.remaining() - FRAME_HEADER_BYTES) {
+            return null;
+        }
+
+        ByteBuffer payload = segment.slice(start + FRAME_HEADER_BYTES, payloadLength);
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        segment.position(start + FRAME_HEADER_BYTES + payloadLength);
+        return payload;
+    }
+
+    /** @param actors returns the shared instance of an author's name */
+    static JournalRecord decodeRecord(ByteBuffer payload, UnaryOperator<String> actors) {
+        String claimId = getString(payload);
+        int index = payload.getInt();
+        Status status = STATUSES[payload.get()];
+        long timestampMillis = payload.getLong();
+        String description = getString(payload);
+        String updatedBy = actors.apply(getString(payload));
+        String estimatedCompletion = getString(payload);
+        String claimType = getString(payload);
+        return new JournalRecord(claimId, index,
+                new StatusEntry(status, timestampMillis, description, updatedBy), estimatedCompletion, claimType);
+    }
+
+    static void writeClaim(DataOutput out, ClaimStatus claimStatus) throws IOException {
+        writeString(out, claimStatus.getClaimId());
+        writeString(out, claimStatus.getClaimType());
+        out.writeByte(claimStatus.getCurrentStatus().ordinal());
+        out.writeLong(claimStatus.getLastUpdatedMillis());
+        writeString(out, claimStatus.getEstimatedCompletionDate());
+        List<StatusEntry> history = claimStatus.getStatusHistory();
+        out.writeInt(history.size());
+        for (StatusEntry entry : history) {
+            out.writeByte(entry.getStatus().ordinal());
+            out.writeLong(entry.getTimestampMillis());
+            writeString(out, entry.getDescription());
+            writeString(out, entry.getUpdatedBy());
+        }
+    }
+
+    /** @param actors returns the shared instance of an author's name */
+    static ClaimStatus readClaim(DataInput in, UnaryOperator<String> actors) throws IOException {
+        String claimId = readString(in);
+        String claimType = readString(in);
+        Status currentStatus = STATUSES[in.readByte()];
+        long lastUpdatedMillis = in.readLong();
+        String estimatedCompletion = readString(in);
+        int historySize = in.readInt();
+        StatusEntry[] history = new StatusEntry[historySize];
+        for (int i = 0; i < historySize; i++) {
+            Status status = STATUSES[in.readByte()];
+            long timestampMillis = in.readLong();
+            history[i] = new StatusEntry(status, timestampMillis, readString(in), actors.apply(readString(in)));
+        }
+        return new ClaimStatus(claimId, claimType, currentStatus, Arrays.asList(history), lastUpdatedMillis, estimatedCompletion);
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int sizeOf(byte[] string) {
+        return Integer.BYTES + (string != null ? string.length : 0);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] string) {
+        if (string == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(string.length);
+            buffer.put(string);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
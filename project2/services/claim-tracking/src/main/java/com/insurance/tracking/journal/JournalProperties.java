@@ -0,0 +1,25 @@
+package com.insurance.tracking.journal;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings of the claim status journal ({@code claim-tracking.journal.*}).
+ *
+ * @param enabled          false keeps claims in memory only
+ * @param directory        directory holding log segments and snapshots
+ * @param segmentSize      size after which the log rolls to a new segment
+ * @param fsync            force every group commit to disk before acknowledging it
+ * @param snapshotInterval time between snapshots; each snapshot lets older segments be deleted
+ */
+@ConfigurationProperties("claim-tracking.journal")
+public record JournalProperties(@DefaultValue("true") boolean enabled,
+                                @DefaultValue("data/journal") Path directory,
+                                @DefaultValue("64MB") DataSize segmentSize,
+                                @DefaultValue("true") boolean fsync,
+                                @DefaultValue("5m") Duration snapshotInterval) {
+}
@@ -0,0 +1,19 @@
+package com.insurance.tracking.journal;
+
+import com.insurance.tracking.model.StatusEntry;
+
+/**
+ * One status entry appended to a claim's history.
+ *
+ * @param index                   position of the entry in the claim's history; replay
+ *                                applies a record only at the next free position, which
+ *                                makes it idempotent
+ * @param estimatedCompletionDate the claim's estimated completion date after the entry
+ * @param claimType               the claim's type, or null; only read for the first entry
+ */
+public record JournalRecord(String claimId,
+                            int index,
+                            StatusEntry entry,
+                            String estimatedCompletionDate,
+                            String claimType) {
+}
@@ -0,0 +1,350 @@
+package com.insurance.tracking.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log split into numbered segment files, written by a single flusher thread.
+ *
+ * Appenders only encode their frame and put it on a lock-free queue. The flusher drains
+ * everything queued since its last write into one buffer, writes it with one
+ * {@link FileChannel#write} and forces it with one fsync, then completes the futures of
+ * the whole batch: while one batch is being forced the next one accumulates, so the
+ * number of fsyncs falls as load rises (group commit). Frames are written in queue
+ * order, so frames queued by one thread, or under one per-key lock, keep their order.
+ */
+final class SegmentedLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentedLog.class);
+
+    private static final int SEGMENT_MAGIC = 0x434C4A52; // "CLJR"
+    private static final int FORMAT_VERSION = 1;
+    private static final int SEGMENT_HEADER_BYTES = 8;
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final int BATCH_BUFFER_BYTES = 1 << 20;
+    private static final int MAX_BATCH_COMMITS = 4096;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final byte[] EMPTY_FRAME = new byte[0];
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean fsync;
+
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private volatile Thread flusher;
+    private volatile boolean running;
+    private volatile IOException failure;
+
+    // Owned by the flusher thread once started
+    private final ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_BUFFER_BYTES);
+    private FileChannel channel;
+    private long segment;
+    private long position;
+
+    private record Pending(byte[] frame, CompletableFuture<Long> done) {
+
+        boolean isRoll() {
+            return frame == null;
+        }
+    }
+
+    SegmentedLog(Path directory, long segmentBytes, boolean fsync) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Passes the payload of every intact frame in segments numbered {@code fromSegment}
+     * or higher to the consumer, in log order. Segments below it are already covered by
+     * a snapshot and are deleted. A torn frame at the end of the last segment, left by a
+     * crash mid-write, is truncated away.
+     *
+     * @return number of frames replayed
+     */
+    long replay(long fromSegment, Consumer<ByteBuffer> payloads) throws IOException {
+        Files.createDirectories(directory);
+        deleteSegmentsBefore(fromSegment);
+
+        List<Long> segments = listSegments();
+        long frames = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            long number = segments.get(i);
+            boolean last = i == segments.size() - 1;
+            frames += replaySegment(number, last, payloads);
+        }
+        segment = segments.isEmpty() ? Math.max(fromSegment, 1L) : segments.get(segments.size() - 1);
+        return frames;
+    }
+
+    private long replaySegment(long number, boolean last, Consumer<ByteBuffer> payloads) throws IOException {
+        Path file = segmentFile(number);
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Segment " + file + " exceeds 2 GB");
+            }
+            MappedByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (last && size < SEGMENT_HEADER_BYTES) {
+                // Crashed while creating the segment; it is rewritten when opened
+                in.truncate(0);
+                return 0;
+            }
+            if (size < SEGMENT_HEADER_BYTES
+                    || mapped.getInt(0) != SEGMENT_MAGIC
+                    || mapped.getInt(Integer.BYTES) != FORMAT_VERSION) {
+                throw new IOException("Not a claim journal segment: " + file);
+            }
+
+            mapped.position(SEGMENT_HEADER_BYTES);
+            long frames = 0;
+            ByteBuffer payload;
+            while ((payload = JournalCodec.nextPayload(mapped)) != null) {
+                payloads.accept(payload);
+                frames++;
+            }
+
+            if (mapped.hasRemaining()) {
+                if (!last) {
+                    throw new IOException("Corrupt frame at offset " + mapped.position() + " of " + file);
+                }
+                log.warn("Truncating {} bytes of incomplete writes at the end of {}",
+                        mapped.remaining(), file);
+                in.truncate(mapped.position());
+                in.force(true);
+            }
+            return frames;
+        }
+    }
+
+    /** Opens the last segment for appending and starts the flusher thread. */
+    void start() throws IOException {
+        openSegment(segment);
+        running = true;
+        Thread thread = new Thread(this::flushLoop, "claim-journal-flusher");
+        thread.setDaemon(true);
+        flusher = thread;
+        thread.start();
+    }
+
+    /**
+     * Queues a frame for the next group commit. Untracked frames do not wake the flusher,
+     * so a caller queueing many of them before a tracked one or a {@link #sync} gets them
+     * all written and forced together.
+     *
+     * @param track whether the caller needs to know when the frame is durable
+     * @return completed once the frame and every frame queued before it is on disk, or
+     *         null when not tracked
+     */
+    CompletableFuture<Long> append(byte[] frame, boolean track) {
+        IOException failed = failure;
+        if (failed != null) {
+            throw new UncheckedIOException("Claim journal stopped after a write failure", failed);
+        }
+        Pending pending = new Pending(frame, track ? new CompletableFuture<>() : null);
+        queue.offer(pending);
+        if (track) {
+            LockSupport.unpark(flusher);
+        }
+        return pending.done();
+    }
+
+    /** Returns a future completed once every frame queued so far is on disk. */
+    CompletableFuture<Long> sync() {
+        return append(EMPTY_FRAME, true);
+    }
+
+    /**
+     * Closes the current segment after every frame queued so far and starts a new one.
+     *
+     * @return completed with the number of the new segment
+     */
+    CompletableFuture<Long> roll() {
+        Pending pending = new Pending(null, new CompletableFuture<>());
+        queue.offer(pending);
+        LockSupport.unpark(flusher);
+        return pending.done();
+    }
+
+    /** Deletes segments wholly covered by a snapshot; never the one being written. */
+    void deleteSegmentsBefore(long number) throws IOException {
+        for (long existing : listSegments()) {
+            if (existing < number) {
+                Files.deleteIfExists(segmentFile(existing));
+            }
+        }
+    }
+
+    boolean isFailed() {
+        return failure != null;
+    }
+
+    private void flushLoop() {
+        List<Pending> commits = new ArrayList<>();
+        while (true) {
+            Pending next = queue.poll();
+            if (next == null) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+
+            try {
+                do {
+                    if (next.isRoll()) {
+                        writeBatch();
+                        force();
+                        openSegment(segment + 1);
+                        next.done().complete(segment);
+                        continue;
+                    }
+                    byte[] frame = next.frame();
+                    long buffered = position + batch.position();
+                    if (buffered + frame.length > segmentBytes && buffered > SEGMENT_HEADER_BYTES) {
+                        writeBatch();
+                        force();
+                        openSegment(segment + 1);
+                    }
+                    if (frame.length > batch.remaining()) {
+                        writeBatch();
+                    }
+                    if (frame.length > batch.capacity()) {
+                        write(ByteBuffer.wrap(frame));
+                    } else {
+                        batch.put(frame);
+                    }
+                    if (next.done() != null) {
+                        commits.add(next);
+                    }
+                } while (commits.size() < MAX_BATCH_COMMITS && (next = queue.poll()) != null);
+
+                writeBatch();
+                force();
+                for (Pending commit : commits) {
+                    commit.done().complete(segment);
+                }
+                commits.clear();
+            } catch (IOException e) {
+                log.error("Claim journal write failed; no further status changes will be accepted", e);
+                failure = e;
+                commits.forEach(commit -> commit.done().completeExceptionally(e));
+                Pending pending;
+                while ((pending = queue.poll()) != null) {
+                    if (pending.done() != null) {
+                        pending.done().completeExceptionally(e);
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    private void writeBatch() throws IOException {
+        batch.flip();
+        write(batch);
+        batch.clear();
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+    }
+
+    private void force() throws IOException {
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    private void openSegment(long number) throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        Path file = segmentFile(number);
+        channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = number;
+        position = channel.size();
+        if (position == 0) {
+            ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES)
+                    .putInt(SEGMENT_MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .flip();
+            channel.position(0);
+            write(header);
+            channel.force(true);
+            syncDirectory(directory);
+        } else {
+            channel.position(position);
+        }
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentFile(long number) {
+        return directory.resolve(String.format("%016d%s", number, SEGMENT_SUFFIX));
+    }
+
+    /** Makes file creations and renames in the directory durable, where supported. */
+    static void syncDirectory(Path directory) {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform; the file contents are forced regardless
+        }
+    }
+
+    /** Writes and forces everything queued so far, then stops the flusher. */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        Thread thread = flusher;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (channel != null) {
+            if (failure == null) {
+                channel.force(true);
+            }
+            channel.close();
+        }
+    }
+}
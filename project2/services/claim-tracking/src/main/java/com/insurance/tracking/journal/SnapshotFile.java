@@ -0,0 +1,171 @@
+package com.insurance.tracking.journal;
+
+import com.insurance.tracking.model.ClaimStatus;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Full copy of every claim, named after the first log segment it does not cover:
+ * recovery loads the newest intact snapshot and replays only that segment and later
+ * ones. A snapshot is written to a temporary file, forced and then renamed into place,
+ * so a crash mid-snapshot leaves the previous one in effect.
+ */
+final class SnapshotFile {
+
+    private static final int SNAPSHOT_MAGIC = 0x434C534E; // "CLSN"
+    private static final int FORMAT_VERSION = 1;
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final int IO_BUFFER_BYTES = 1 << 16;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * @param claims receives a sink and passes it every claim to include
+     * @return number of claims written
+     */
+    static long write(Path directory, long replayFromSegment, Consumer<Consumer<ClaimStatus>> claims)
+            throws IOException {
+        Path target = file(directory, replayFromSegment);
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+
+        long count;
+        try (OutputStream file = Files.newOutputStream(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CheckedOutputStream checked = new CheckedOutputStream(file, new CRC32C());
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, IO_BUFFER_BYTES));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(replayFromSegment);
+
+            long[] written = new long[1];
+            claims.accept(claimStatus -> {
+                try {
+                    out.writeBoolean(true);
+                    JournalCodec.writeClaim(out, claimStatus);
+                    written[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.writeBoolean(false);
+            out.flush();
+            count = written[0];
+
+            new DataOutputStream(file).writeInt((int) checked.getChecksum().getValue());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        SegmentedLog.syncDirectory(directory);
+        return count;
+    }
+
+    /**
+     * Loads the newest intact snapshot into the consumer.
+     *
+     * @param actors returns the shared instance of an author's name
+     * @return the segment to replay from, or empty if there is no intact snapshot
+     */
+    static Optional<Long> readLatest(Path directory, UnaryOperator<String> actors, Consumer<ClaimStatus> claims)
+            throws IOException {
+        for (long segment : list(directory).reversed()) {
+            Path snapshot = file(directory, segment);
+            if (isIntact(snapshot)) {
+                try (InputStream file = Files.newInputStream(snapshot)) {
+                    DataInputStream in = new DataInputStream(new BufferedInputStream(file, IO_BUFFER_BYTES));
+                    // Magic and format version, already checked
+                    in.skipBytes(2 * Integer.BYTES);
+                    long replayFromSegment = in.readLong();
+                    while (in.readBoolean()) {
+                        claims.accept(JournalCodec.readClaim(in, actors));
+                    }
+                    return Optional.of(replayFromSegment);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Deletes snapshots older than the given one, and leftovers of interrupted snapshots. */
+    static void deleteBefore(Path directory, long replayFromSegment) throws IOException {
+        for (long segment : list(directory)) {
+            if (segment < replayFromSegment) {
+                Files.deleteIfExists(file(directory, segment));
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path leftover : files.filter(f -> f.getFileName().toString().endsWith(SNAPSHOT_SUFFIX + ".tmp")).toList()) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+    }
+
+    private static boolean isIntact(Path snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long body = channel.size() - Integer.BYTES;
+            ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES);
+            if (body < header.capacity() + Long.BYTES + 1
+                    || channel.read(header, 0) != header.capacity()
+                    || header.getInt(0) != SNAPSHOT_MAGIC
+                    || header.getInt(Integer.BYTES) != FORMAT_VERSION) {
+                return false;
+            }
+
+            CRC32C crc = new CRC32C();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES);
+            long offset = 0;
+            while (offset < body) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), body - offset));
+                int read = channel.read(buffer, offset);
+                if (read < 0) {
+                    return false;
+                }
+                crc.update(buffer.flip());
+                offset += read;
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES);
+            return channel.read(trailer, body) == Integer.BYTES
+                    && trailer.getInt(0) == (int) crc.getValue();
+        }
+    }
+
+    private static List<Long> list(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.endsWith(SNAPSHOT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SNAPSHOT_SUFFIX.length())))
+                    .sorted(Comparator.naturalOrder())
+                    .toList();
+        }
+    }
+
+    private static Path file(Path directory, long replayFromSegment) {
+        return directory.resolve(String.format("%016d%s", replayFromSegment, SNAPSHOT_SUFFIX));
+    }
+}
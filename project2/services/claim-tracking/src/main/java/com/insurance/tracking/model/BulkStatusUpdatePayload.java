@@ -0,0 +1,9 @@
+package com.insurance.tracking.model;
+
+import java.util.List;
+
+/**
+ * @param results one per requested update, in request order
+ */
+public record BulkStatusUpdatePayload(List<StatusUpdateResult> results, int succeeded, int failed) {
+}
@@ -0,0 +1,17 @@
+package com.insurance.tracking.model;
+
+/**
+ * Filter of the claims query; null fields match every claim. The lastUpdated bounds are
+ * exclusive ISO-8601 instants.
+ */
+public record ClaimFilter(Status status,
+                          String updatedAfter,
+                          String updatedBefore,
+                          String updatedBy) {
+
+    public static final ClaimFilter NONE = new ClaimFilter(null, null, null, null);
+
+    public boolean hasUpdatedRange() {
+        return updatedAfter != null || updatedBefore != null;
+    }
+}
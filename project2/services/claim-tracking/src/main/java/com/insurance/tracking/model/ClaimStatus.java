@@ -1,76 +1,100 @@
 package com.insurance.tracking.model;
 
-import java.util.ArrayList;
+import java.time.Instant;
 import java.util.List;
 
-public class ClaimStatus {
-
-    private String claimId;
-    private Status currentStatus;
-    private List<StatusEntry> statusHistory;
-    private String lastUpdated;
-    private String estimatedCompletionDate;
-
-    public ClaimStatus() {
-        this.statusHistory = new ArrayList<>();
+/**
+ * Immutable snapshot of a claim's tracking state. A status change produces a new
+ * snapshot through {@link #withStatusEntry}, which the repository swaps in atomically,
+ * so readers always see a complete history that matches the current status. Snapshots
+ * of one claim share their history's storage, see {@link StatusHistory}.
+ */
+public final class ClaimStatus {
+
+    private final String claimId;
+    private final String claimType;
+    private final Status currentStatus;
+    private final StatusHistory statusHistory;
+    private final long lastUpdatedMillis;
+    private final String estimatedCompletionDate;
+
+    /**
+     * @param claimType   selects the allowed status transitions; null for the default pipeline
+     * @param lastUpdated ISO-8601 instant
+     */
+    public ClaimStatus(String claimId,
+                       String claimType,
+                       Status currentStatus,
+                       List<StatusEntry> statusHistory,
+                       String lastUpdated,
+                       String estimatedCompletionDate) {
+        this(claimId, claimType, currentStatus, statusHistory,
+                Instant.parse(lastUpdated).toEpochMilli(), estimatedCompletionDate);
     }
 
+    /** @param statusHistory copied, unless it is already a {@link StatusHistory} */
     public ClaimStatus(String claimId,
+                       String claimType,
                        Status currentStatus,
                        List<StatusEntry> statusHistory,
-                       String lastUpdated,
+                       long lastUpdatedMillis,
                        String estimatedCompletionDate) {
         this.claimId = claimId;
+        this.claimType = claimType;
         this.currentStatus = currentStatus;
-        this.statusHistory = statusHistory != null ? statusHistory : new ArrayList<>();
-        this.lastUpdated = lastUpdated;
+        this.statusHistory = StatusHistory.of(statusHistory);
+        this.lastUpdatedMillis = lastUpdatedMillis;
         this.estimatedCompletionDate = estimatedCompletionDate;
     }
 
+    /** A new claim whose history holds only the given entry. */
+    public static ClaimStatus initial(String claimId,
+                                      String claimType,
+                                      StatusEntry entry,
+                                      String estimatedCompletionDate) {
+        return new ClaimStatus(claimId, claimType, entry.getStatus(), List.of(entry),
+                entry.getTimestampMillis(), estimatedCompletionDate);
+    }
+
+    /**
+     * Returns a snapshot with the entry appended to the history; the entry's status and
+     * timestamp become the current status and last update.
+     */
+    public ClaimStatus withStatusEntry(StatusEntry entry, String estimatedCompletionDate) {
+        return new ClaimStatus(claimId, claimType, entry.getStatus(), statusHistory.append(entry),
+                entry.getTimestampMillis(), estimatedCompletionDate);
+    }
+
     public String getClaimId() {
         return claimId;
     }
 
-    public void setClaimId(String claimId) {
-        this.claimId = claimId;
+    public String getClaimType() {
+        return claimType;
     }
 
     public Status getCurrentStatus() {
         return currentStatus;
     }
 
-    public void setCurrentStatus(Status currentStatus) {
-        this.currentStatus = currentStatus;
-    }
-
-    public List<StatusEntry> getStatusHistory() {
+    /** Unmodifiable, oldest entry first. */
+    public StatusHistory getStatusHistory() {
         return statusHistory;
     }
 
-    public void setStatusHistory(List<StatusEntry> statusHistory) {
-        this.statusHistory = statusHistory;
-    }
-
+    /** ISO-8601 instant of the latest entry, formatted on each call. */
     public String getLastUpdated() {
-        return lastUpdated;
+        return Instant.ofEpochMilli(lastUpdatedMillis).toString();
     }
 
-    public void setLastUpdated(String lastUpdated) {
-        this.lastUpdated = lastUpdated;
+    public long getLastUpdatedMillis() {
+        return lastUpdatedMillis;
     }
 
     public String getEstimatedCompletionDate() {
         return estimatedCompletionDate;
     }
 
-    public void setEstimatedCompletionDate(String estimatedCompletionDate) {
-        this.estimatedCompletionDate = estimatedCompletionDate;
-    }
-
-    public void addStatusEntry(StatusEntry entry) {
-        this.statusHistory.add(entry);
-    }
-
     @Override
     public String toString() {
         return "ClaimStatus{" +
@@ -0,0 +1,13 @@
+package com.insurance.tracking.model;
+
+/**
+ * A status entry just added to a claim, as delivered to subscriptions.
+ *
+ * @param previousStatus status before the change; null when the claim was just initialized
+ * @param claim          the claim after the change
+ */
+public record ClaimStatusChange(String claimId,
+                                Status previousStatus,
+                                StatusEntry entry,
+                                ClaimStatus claim) {
+}
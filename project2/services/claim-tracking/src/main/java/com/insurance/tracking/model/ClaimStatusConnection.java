@@ -0,0 +1,6 @@
+package com.insurance.tracking.model;
+
+import java.util.List;
+
+public record ClaimStatusConnection(List<ClaimStatusEdge> edges, PageInfo pageInfo) {
+}
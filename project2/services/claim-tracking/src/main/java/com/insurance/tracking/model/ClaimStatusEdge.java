@@ -0,0 +1,4 @@
+package com.insurance.tracking.model;
+
+public record ClaimStatusEdge(String cursor, ClaimStatus node) {
+}
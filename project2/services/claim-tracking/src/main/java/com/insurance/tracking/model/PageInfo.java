@@ -0,0 +1,7 @@
+package com.insurance.tracking.model;
+
+public record PageInfo(boolean hasNextPage,
+                       boolean hasPreviousPage,
+                       String startCursor,
+                       String endCursor) {
+}
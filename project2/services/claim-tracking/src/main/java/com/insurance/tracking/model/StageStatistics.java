@@ -0,0 +1,20 @@
+package com.insurance.tracking.model;
+
+/**
+ * Aggregates of one pipeline stage, i.e. one status. Dwell time is the time from the
+ * entry into the status to the claim's next entry, so it only covers claims that have
+ * moved on.
+ *
+ * @param entered           entries into the status
+ * @param left              claims that moved on from the status
+ * @param meanDwellSeconds  null if no claim has moved on yet, as for the percentiles
+ * @param throughputPerHour entries into the status during the last hour
+ */
+public record StageStatistics(Status status,
+                              long entered,
+                              long left,
+                              Double meanDwellSeconds,
+                              Double p50DwellSeconds,
+                              Double p95DwellSeconds,
+                              long throughputPerHour) {
+}
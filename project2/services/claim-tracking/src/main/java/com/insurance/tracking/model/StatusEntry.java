@@ -1,59 +1,65 @@
 package com.insurance.tracking.model;
 
-public class StatusEntry {
+import java.time.Instant;
 
-    private Status status;
-    private String timestamp;
-    private String description;
-    private String updatedBy;
+/**
+ * One step of a claim's status history, stored compactly as there are several per
+ * claim: the status as its ordinal and the timestamp as epoch millis. The ISO-8601
+ * timestamp is only produced when read, typically when GraphQL serializes the entry.
+ * Entries stored by the repository hold the shared instance of their author's name,
+ * see {@code ActorDictionary}.
+ */
+public final class StatusEntry {
 
-    public StatusEntry() {
-    }
+    private static final Status[] STATUSES = Status.values();
 
-    public StatusEntry(Status status, String timestamp, String description, String updatedBy) {
-        this.status = status;
-        this.timestamp = timestamp;
+    private final long timestampMillis;
+    private final String description;
+    private final String updatedBy;
+    private final byte status;
+
+    public StatusEntry(Status status, long timestampMillis, String description, String updatedBy) {
+        this.status = (byte) status.ordinal();
+        this.timestampMillis = timestampMillis;
         this.description = description;
         this.updatedBy = updatedBy;
     }
 
-    public Status getStatus() {
-        return status;
+    public StatusEntry(Status status, Instant timestamp, String description, String updatedBy) {
+        this(status, timestamp.toEpochMilli(), description, updatedBy);
+    }
+
+    /** @param timestamp ISO-8601 instant */
+    public StatusEntry(Status status, String timestamp, String description, String updatedBy) {
+        this(status, Instant.parse(timestamp).toEpochMilli(), description, updatedBy);
     }
 
-    public void setStatus(Status status) {
-        this.status = status;
+    public Status getStatus() {
+        return STATUSES[status];
     }
 
+    /** ISO-8601 instant, with millisecond precision. */
     public String getTimestamp() {
-        return timestamp;
+        return Instant.ofEpochMilli(timestampMillis).toString();
     }
 
-    public void setTimestamp(String timestamp) {
-        this.timestamp = timestamp;
+    public long getTimestampMillis() {
+        return timestampMillis;
     }
 
     public String getDescription() {
         return description;
     }
 
-    public void setDescription(String description) {
-        this.description = description;
-    }
-
     public String getUpdatedBy() {
         return updatedBy;
     }
 
-    public void setUpdatedBy(String updatedBy) {
-        this.updatedBy = updatedBy;
-    }
-
     @Override
     public String toString() {
         return "StatusEntry{" +
-               "status=" + status +
-               ", timestamp='" + timestamp + '\'' +
+               "status=" + getStatus() +
+               ", timestamp='" + getTimestamp() + '\'' +
                ", updatedBy='" + updatedBy + '\'' +
                '}';
     }
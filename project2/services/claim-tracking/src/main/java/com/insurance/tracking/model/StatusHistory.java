@@ -0,0 +1,107 @@
+package com.insurance.tracking.model;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Unmodifiable, oldest-first status history of one claim snapshot.
+ *
+ * Successive snapshots of a claim share one backing array: {@link #append} writes the
+ * entry into the first free slot and returns a history one entry longer, so a status
+ * change costs the same however long the history is. Each history only reads the slots
+ * below its own size, which no later append touches. If the slot after them is already
+ * taken, because an append on the same history was discarded, or the array is full, the
+ * entries are copied into a larger array. The latest entries are read through
+ * {@link #subList} or {@link #since}, which return views, not copies.
+ */
+public final class StatusHistory extends AbstractList<StatusEntry> implements RandomAccess {
+
+    private static final StatusHistory EMPTY = new StatusHistory(new Buffer(new StatusEntry[0], 0), 0);
+
+    private final Buffer buffer;
+    private final int size;
+
+    private static final class Buffer {
+
+        private static final AtomicIntegerFieldUpdater<Buffer> USED =
+                AtomicIntegerFieldUpdater.newUpdater(Buffer.class, "used");
+
+        final StatusEntry[] entries;
+        // Slots handed out to some history; only grows
+        volatile int used;
+
+        Buffer(StatusEntry[] entries, int used) {
+            this.entries = entries;
+            this.used = used;
+        }
+
+        boolean claim(int slot) {
+            return slot < entries.length && USED.compareAndSet(this, slot, slot + 1);
+        }
+    }
+
+    private StatusHistory(Buffer buffer, int size) {
+        this.buffer = buffer;
+        this.size = size;
+    }
+
+    /** Returns the entries as a history, sharing nothing with the list unless it is one. */
+    public static StatusHistory of(List<StatusEntry> entries) {
+        if (entries instanceof StatusHistory history) {
+            return history;
+        }
+        if (entries == null || entries.isEmpty()) {
+            return EMPTY;
+        }
+        StatusEntry[] copy = entries.toArray(new StatusEntry[0]);
+        for (StatusEntry entry : copy) {
+            Objects.requireNonNull(entry, "status entry");
+        }
+        return new StatusHistory(new Buffer(copy, copy.length), copy.length);
+    }
+
+    /** Returns this history followed by the entry; this history is unchanged. */
+    public StatusHistory append(StatusEntry entry) {
+        Objects.requireNonNull(entry, "status entry");
+        if (buffer.claim(size)) {
+            buffer.entries[size] = entry;
+            return new StatusHistory(buffer, size + 1);
+        }
+        // Grows by half, like ArrayList: histories are short, and most stop growing
+        StatusEntry[] grown = new StatusEntry[size + (size >> 1) + 1];
+        System.arraycopy(buffer.entries, 0, grown, 0, size);
+        grown[size] = entry;
+        return new StatusHistory(new Buffer(grown, size + 1), size + 1);
+    }
+
+    @Override
+    public StatusEntry get(int index) {
+        Objects.checkIndex(index, size);
+        return buffer.entries[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** The most recent entry, or null if the history is empty. */
+    public StatusEntry latest() {
+        return size > 0 ? buffer.entries[size - 1] : null;
+    }
+
+    /**
+     * View of the entries timestamped after the given instant, oldest first. Entries are
+     * appended in time order, so only the returned entries and the one before them are read.
+     */
+    public List<StatusEntry> since(long afterMillis) {
+        int from = size;
+        while (from > 0 && buffer.entries[from - 1].getTimestampMillis() > afterMillis) {
+            from--;
+        }
+        return from == 0 ? this : subList(from, size);
+    }
+}
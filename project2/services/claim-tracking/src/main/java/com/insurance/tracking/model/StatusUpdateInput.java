@@ -0,0 +1,7 @@
+package com.insurance.tracking.model;
+
+public record StatusUpdateInput(String claimId,
+                                Status status,
+                                String description,
+                                String updatedBy) {
+}
@@ -0,0 +1,22 @@
+package com.insurance.tracking.model;
+
+/**
+ * Outcome of one update of a bulk status update.
+ *
+ * @param claim the claim right after this update, or null if it failed
+ * @param error why the update failed, or null if it succeeded
+ */
+public record StatusUpdateResult(String claimId, ClaimStatus claim, String error) {
+
+    public static StatusUpdateResult applied(ClaimStatus claim) {
+        return new StatusUpdateResult(claim.getClaimId(), claim, null);
+    }
+
+    public static StatusUpdateResult failed(String claimId, String error) {
+        return new StatusUpdateResult(claimId, null, error);
+    }
+
+    public boolean succeeded() {
+        return error == null;
+    }
+}
@@ -0,0 +1,5 @@
+package com.insurance.tracking.model;
+
+/** Number of status changes from one status to another since start-up. */
+public record TransitionCount(Status from, Status to, long count) {
+}
@@ -0,0 +1,53 @@
+package com.insurance.tracking.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared instances of status entry authors. Authors are a few services and adjusters
+ * repeated across every history, so entries built through {@link #canonical} hold one
+ * String per author however many entries it wrote, and compare authors by reference
+ * before falling back to {@link String#equals}.
+ *
+ * Authors come from client input, so the dictionary is bounded: once it holds
+ * {@code maxSize} names, further new names are returned as given and entries keep their
+ * own copy. That only costs memory, as nothing is identified by its position in the
+ * dictionary, and the journal stores names, so nothing depends on it across restarts.
+ */
+@Component
+public class ActorDictionary {
+
+    private final int maxSize;
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+
+    public ActorDictionary(@Value("${claim-tracking.actors.max-size:10000}") int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("claim-tracking.actors.max-size must not be negative: " + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
+
+    /** Returns the shared instance of the name, registering it if there is room. */
+    public String canonical(String name) {
+        if (name == null) {
+            return null;
+        }
+        String shared = names.get(name);
+        if (shared != null) {
+            return shared;
+        }
+        // Checked without a lock, so concurrent registrations may overshoot by a few names
+        if (names.size() >= maxSize) {
+            return name;
+        }
+        shared = names.putIfAbsent(name, name);
+        return shared != null ? shared : name;
+    }
+
+    public int size() {
+        return names.size();
+    }
+}
@@ -1,5 +1,8 @@
 package com.insurance.tracking.repository;
 
+import com.insurance.tracking.analytics.PipelineStatistics;
+import com.insurance.tracking.journal.ClaimJournal;
+import com.insurance.tracking.journal.JournalRecord;
 import com.insurance.tracking.model.ClaimStatus;
 import com.insurance.tracking.model.Status;
 import com.insurance.tracking.model.StatusEntry;
@@ -7,19 +10,80 @@ import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
+/**
+ * In-memory claim store with ordered secondary indexes: all claim ids, claim ids by
+ * current status, claims by lastUpdated, and both orders again per author of the latest
+ * status entry. The indexes are sorted concurrent sets, so pages of any size can be read
+ * from any position without copying or sorting the store, and a page filtered by author
+ * only walks that author's claims.
+ *
+ * Every write goes through {@link ConcurrentHashMap#compute}, which serialises writes to
+ * the same claim and updates the indexes inside the same atomic step, so they cannot
+ * drift from the store under concurrent mutations. A claim is added under its new index
+ * key before its old key is removed; readers re-check each hit against the claim, so they
+ * may briefly see a claim at both positions but never miss it.
+ *
+ * Claims are immutable snapshots, replaced as a whole inside that step: readers never
+ * lock and never see a half-applied change, and writes to different claims proceed in
+ * parallel.
+ *
+ * Every status entry added through {@link #insert} or {@link #update} is appended to the
+ * {@link ClaimJournal} inside that same step, before the indexes are touched: an append
+ * that throws aborts the step and leaves the store and the indexes as they were. The call
+ * returns once the entry is durable. On start-up the sample claims are seeded and the journal is replayed on top,
+ * into the store alone; the indexes are built once afterwards rather than moved for every
+ * replayed entry.
+ *
+ * {@link PipelineStatistics} is fed the same way: every write passes it the entries it
+ * adds, and the recovered histories are passed once at start-up.
+ *
+ * Authors of recovered entries are shared through the {@link ActorDictionary}, which
+ * entries created by the service go through as well.
+ */
 @Repository
 public class ClaimStatusRepository {
 
     private final Map<String, ClaimStatus> store = new ConcurrentHashMap<>();
 
-    public ClaimStatusRepository() {
+    private final NavigableSet<String> claimIds = new ConcurrentSkipListSet<>();
+
+    // Fully populated at construction and never structurally modified afterwards
+    private final Map<Status, NavigableSet<String>> claimIdsByStatus = new EnumMap<>(Status.class);
+
+    private final NavigableSet<PageKey> byLastUpdated = new ConcurrentSkipListSet<>();
+
+    // Keyed by the author of the latest entry; an author is dropped with its last claim
+    private final Map<String, ActorClaims> claimsByActor = new ConcurrentHashMap<>();
+
+    private final ClaimJournal journal;
+    private final PipelineStatistics pipelineStatistics;
+
+    public ClaimStatusRepository(ClaimJournal journal, PipelineStatistics pipelineStatistics,
+                                 ActorDictionary actors) {
+        this.journal = journal;
+        this.pipelineStatistics = pipelineStatistics;
+        for (Status status : Status.values()) {
+            claimIdsByStatus.put(status, new ConcurrentSkipListSet<>());
+        }
         seedSampleData();
+        journal.recover(actors::canonical, this::restore, this::replay);
+        buildIndexes();
+        journal.startSnapshots(this::forEachClaim);
     }
 
     private void seedSampleData() {
@@ -66,6 +130,7 @@ public class ClaimStatusRepository {
 
         ClaimStatus claim1 = new ClaimStatus(
             "CLM-2024-001",
+            "AUTO",
             Status.DOCUMENTS_REVIEWED,
             history1,
             "2024-03-12T09:00:00Z",
@@ -96,14 +161,15 @@ public class ClaimStatusRepository {
 
         ClaimStatus claim2 = new ClaimStatus(
             "CLM-2024-002",
+            null,
             Status.POLICY_VALIDATED,
             history2,
             "2024-03-15T08:30:00Z",
             "2024-03-25T00:00:00Z"
         );
 
-        store.put(claim1.getClaimId(), claim1);
-        store.put(claim2.getClaimId(), claim2);
+        restore(claim1);
+        restore(claim2);
     }
 
     public Optional<ClaimStatus> findByClaimId(String claimId) {
@@ -111,21 +177,298 @@ public class ClaimStatusRepository {
     }
 
     public List<ClaimStatus> findByCurrentStatus(Status status) {
-        return store.values().stream()
-            .filter(cs -> status.equals(cs.getCurrentStatus()))
-            .collect(Collectors.toList());
+        List<ClaimStatus> result = new ArrayList<>();
+        for (String claimId : claimIdsByStatus.get(status)) {
+            ClaimStatus claimStatus = store.get(claimId);
+            // Skips a claim caught between its old and new status set
+            if (claimStatus != null && claimStatus.getCurrentStatus() == status) {
+                result.add(claimStatus);
+            }
+        }
+        return result;
     }
 
     public List<ClaimStatus> findAll() {
         return new ArrayList<>(store.values());
     }
 
-    public synchronized ClaimStatus save(ClaimStatus claimStatus) {
+    /**
+     * Returns up to {@code limit} claims in claim id order, starting after the given id.
+     * With an author, only that author's claims are walked and the status is checked on
+     * each; otherwise the status index is walked.
+     *
+     * @param status       current status to match, or null for any
+     * @param updatedBy    author of the latest status entry to match, or null for any
+     * @param afterClaimId exclusive start position, or null to start at the first claim
+     */
+    public List<IndexedClaim> findPageByClaimId(Status status, String updatedBy,
+                                                String afterClaimId, int limit) {
+        NavigableSet<String> index;
+        if (updatedBy != null) {
+            ActorClaims byActor = claimsByActor.get(updatedBy);
+            index = byActor != null ? byActor.claimIds() : Collections.emptyNavigableSet();
+        } else {
+            index = status != null ? claimIdsByStatus.get(status) : claimIds;
+        }
+        if (afterClaimId != null) {
+            index = index.tailSet(afterClaimId, false);
+        }
+
+        List<IndexedClaim> page = new ArrayList<>(limit);
+        for (String claimId : index) {
+            if (page.size() == limit) {
+                break;
+            }
+            ClaimStatus claimStatus = store.get(claimId);
+            if (claimStatus != null
+                    && (status == null || claimStatus.getCurrentStatus() == status)
+                    && matchesActor(claimStatus, updatedBy)) {
+                page.add(new IndexedClaim(new PageKey(0L, claimId), claimStatus));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Returns up to {@code limit} claims in lastUpdated order, then claim id, starting
+     * after the given key. A claim updated while a client pages through moves to the end,
+     * so resuming from the last key also yields every claim updated since. With an author,
+     * only that author's claims are walked.
+     *
+     * @param updatedAfterMillis  exclusive lower bound of lastUpdated
+     * @param updatedBeforeMillis exclusive upper bound of lastUpdated
+     * @param after               exclusive start position, or null to start at the lower bound
+     */
+    public List<IndexedClaim> findPageByLastUpdated(Status status, String updatedBy,
+                                                    long updatedAfterMillis, long updatedBeforeMillis,
+                                                    PageKey after, int limit) {
+        NavigableSet<PageKey> keys;
+        if (updatedBy != null) {
+            ActorClaims byActor = claimsByActor.get(updatedBy);
+            keys = byActor != null ? byActor.byLastUpdated() : Collections.emptyNavigableSet();
+        } else {
+            keys = byLastUpdated;
+        }
+
+        NavigableSet<PageKey> index;
+        if (after != null && after.lastUpdatedMillis() > updatedAfterMillis) {
+            index = keys.tailSet(after, false);
+        } else if (updatedAfterMillis == Long.MIN_VALUE) {
+            index = keys;
+        } else {
+            index = keys.tailSet(PageKey.first(updatedAfterMillis + 1), true);
+        }
+
+        List<IndexedClaim> page = new ArrayList<>(limit);
+        for (PageKey key : index) {
+            if (page.size() == limit || key.lastUpdatedMillis() >= updatedBeforeMillis) {
+                break;
+            }
+            ClaimStatus claimStatus = store.get(key.claimId());
+            // Skips the old position of a claim caught mid-update
+            if (claimStatus != null
+                    && key.equals(PageKey.of(claimStatus))
+                    && (status == null || claimStatus.getCurrentStatus() == status)
+                    && matchesActor(claimStatus, updatedBy)) {
+                page.add(new IndexedClaim(key, claimStatus));
+            }
+        }
+        return page;
+    }
+
+    // Shared author names make the comparison a reference check in the common case
+    private static boolean matchesActor(ClaimStatus claimStatus, String updatedBy) {
+        return updatedBy == null || updatedBy.equals(latestActor(claimStatus));
+    }
+
+    private static String latestActor(ClaimStatus claimStatus) {
+        StatusEntry latest = claimStatus.getStatusHistory().latest();
+        return latest != null ? latest.getUpdatedBy() : null;
+    }
+
+    /**
+     * Stores a new claim unless one with the same id exists, atomically with respect to
+     * other writes to that id.
+     *
+     * @return false if a claim with this id already exists; it is left untouched
+     */
+    public boolean insert(ClaimStatus claimStatus) {
+        List<CompletableFuture<?>> commit = new ArrayList<>(1);
+        journal.write(() -> store.computeIfAbsent(claimStatus.getClaimId(), id -> {
+            commit.add(journal.append(claimStatus, 0));
+            reindex(null, claimStatus);
+            pipelineStatistics.recordAppended(null, claimStatus);
+            return claimStatus;
+        }));
+        if (commit.isEmpty()) {
+            return false;
+        }
+        journal.awaitDurable(commit.get(0));
+        return true;
+    }
+
+    /**
+     * Replaces an existing claim with the snapshot the mutation derives from it. The
+     * mutation runs atomically with respect to other writes to the same claim, so
+     * concurrent updates never lose each other's entries; it must not modify its input.
+     * Entries the new snapshot adds to the history are journaled.
+     *
+     * @return the updated claim, or empty if no claim has this id
+     */
+    public Optional<ClaimStatus> update(String claimId, UnaryOperator<ClaimStatus> mutation) {
+        List<CompletableFuture<?>> commit = new ArrayList<>(1);
+        ClaimStatus result = journal.write(() -> store.computeIfPresent(claimId, (id, current) -> {
+            ClaimStatus updated = mutation.apply(current);
+            commit.add(journal.append(updated, current.getStatusHistory().size()));
+            reindex(current, updated);
+            pipelineStatistics.recordAppended(current, updated);
+            return updated;
+        }));
+        if (!commit.isEmpty()) {
+            journal.awaitDurable(commit.get(0));
+        }
+        return Optional.ofNullable(result);
+    }
+
+    /**
+     * Applies one mutation per claim in a single pass, each like {@link #update}, and
+     * journals every resulting entry as one commit, waited for once at the end.
+     *
+     * @param mutations by claim id, applied in iteration order
+     * @return the updated claims by id; ids without a claim are absent
+     */
+    public Map<String, ClaimStatus> updateAll(Map<String, UnaryOperator<ClaimStatus>> mutations) {
+        Map<String, ClaimStatus> updated = new HashMap<>();
+        CompletableFuture<?> commit = journal.write(() -> {
+            mutations.forEach((claimId, mutation) -> {
+                ClaimStatus result = store.computeIfPresent(claimId, (id, current) -> {
+                    ClaimStatus next = mutation.apply(current);
+                    journal.appendUncommitted(next, current.getStatusHistory().size());
+                    reindex(current, next);
+                    pipelineStatistics.recordAppended(current, next);
+                    return next;
+                });
+                if (result != null) {
+                    updated.put(claimId, result);
+                }
+            });
+            return journal.commit();
+        });
+        journal.awaitDurable(commit);
+        return updated;
+    }
+
+    // Puts a claim in place without journaling or indexing it: seed data and snapshots
+    private void restore(ClaimStatus claimStatus) {
         store.put(claimStatus.getClaimId(), claimStatus);
-        return claimStatus;
+    }
+
+    // Applies a journaled entry if it is the next one of its claim's history
+    private boolean replay(JournalRecord record) {
+        boolean[] applied = new boolean[1];
+        store.compute(record.claimId(), (id, current) -> {
+            int historySize = current != null ? current.getStatusHistory().size() : 0;
+            if (record.index() != historySize) {
+                return current;
+            }
+            applied[0] = true;
+            return current != null
+                    ? current.withStatusEntry(record.entry(), record.estimatedCompletionDate())
+                    : ClaimStatus.initial(id, record.claimType(), record.entry(), record.estimatedCompletionDate());
+        });
+        return applied[0];
+    }
+
+    // Inserting in ascending order keeps skip list inserts cache-friendly
+    private void buildIndexes() {
+        List<ClaimStatus> claims = new ArrayList<>(store.values());
+        claims.sort(Comparator.comparing(ClaimStatus::getClaimId));
+        List<PageKey> keys = new ArrayList<>(claims.size());
+        long now = System.currentTimeMillis();
+        for (ClaimStatus claimStatus : claims) {
+            claimIds.add(claimStatus.getClaimId());
+            claimIdsByStatus.get(claimStatus.getCurrentStatus()).add(claimStatus.getClaimId());
+            keys.add(PageKey.of(claimStatus));
+            String actor = latestActor(claimStatus);
+            if (actor != null) {
+                claimsByActor.computeIfAbsent(actor, name -> new ActorClaims()).add(PageKey.of(claimStatus));
+            }
+            pipelineStatistics.recordHistory(claimStatus, now);
+        }
+        Collections.sort(keys);
+        byLastUpdated.addAll(keys);
+    }
+
+    // Snapshots are immutable, so whatever each lookup returns is consistent
+    private void forEachClaim(Consumer<ClaimStatus> sink) {
+        store.values().forEach(sink);
+    }
+
+    private void reindex(ClaimStatus before, ClaimStatus after) {
+        String claimId = after.getClaimId();
+        Status statusBefore = before != null ? before.getCurrentStatus() : null;
+        Status statusAfter = after.getCurrentStatus();
+        PageKey keyBefore = before != null ? PageKey.of(before) : null;
+        PageKey keyAfter = PageKey.of(after);
+
+        if (before == null) {
+            claimIds.add(claimId);
+        }
+        if (statusBefore != statusAfter) {
+            claimIdsByStatus.get(statusAfter).add(claimId);
+            if (statusBefore != null) {
+                claimIdsByStatus.get(statusBefore).remove(claimId);
+            }
+        }
+        if (!keyAfter.equals(keyBefore)) {
+            byLastUpdated.add(keyAfter);
+            if (keyBefore != null) {
+                byLastUpdated.remove(keyBefore);
+            }
+        }
+
+        String actorBefore = before != null ? latestActor(before) : null;
+        String actorAfter = latestActor(after);
+        if (keyAfter.equals(keyBefore) && Objects.equals(actorBefore, actorAfter)) {
+            return;
+        }
+        if (actorAfter != null) {
+            claimsByActor.compute(actorAfter, (actor, claims) -> {
+                ActorClaims target = claims != null ? claims : new ActorClaims();
+                target.add(keyAfter);
+                return target;
+            });
+        }
+        if (actorBefore != null) {
+            boolean sameActor = actorBefore.equals(actorAfter);
+            claimsByActor.computeIfPresent(actorBefore, (actor, claims) -> {
+                claims.remove(keyBefore, !sameActor);
+                return claims.claimIds().isEmpty() ? null : claims;
+            });
+        }
     }
 
     public boolean exists(String claimId) {
         return store.containsKey(claimId);
     }
+
+    /** Claims whose latest entry has one author, in claim id and in lastUpdated order. */
+    private record ActorClaims(NavigableSet<String> claimIds, NavigableSet<PageKey> byLastUpdated) {
+
+        ActorClaims() {
+            this(new ConcurrentSkipListSet<>(), new ConcurrentSkipListSet<>());
+        }
+
+        void add(PageKey key) {
+            claimIds.add(key.claimId());
+            byLastUpdated.add(key);
+        }
+
+        void remove(PageKey key, boolean claim) {
+            byLastUpdated.remove(key);
+            if (claim) {
+                claimIds.remove(key.claimId());
+            }
+        }
+    }
 }
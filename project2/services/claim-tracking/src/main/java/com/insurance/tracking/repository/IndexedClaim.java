@@ -0,0 +1,7 @@
+package com.insurance.tracking.repository;
+
+import com.insurance.tracking.model.ClaimStatus;
+
+/** A claim together with the index position it was read at. */
+public record IndexedClaim(PageKey key, ClaimStatus claim) {
+}
@@ -0,0 +1,25 @@
+package com.insurance.tracking.repository;
+
+import com.insurance.tracking.model.ClaimStatus;
+
+/**
+ * Position of a claim in the repository's ordered indexes: by lastUpdated, then by claim
+ * id. Queries ordered by claim id only use {@link #claimId()}.
+ */
+public record PageKey(long lastUpdatedMillis, String claimId) implements Comparable<PageKey> {
+
+    public static PageKey of(ClaimStatus claimStatus) {
+        return new PageKey(claimStatus.getLastUpdatedMillis(), claimStatus.getClaimId());
+    }
+
+    /** Smallest key of all claims last updated at the given instant. */
+    static PageKey first(long lastUpdatedMillis) {
+        return new PageKey(lastUpdatedMillis, "");
+    }
+
+    @Override
+    public int compareTo(PageKey other) {
+        int byTime = Long.compare(lastUpdatedMillis, other.lastUpdatedMillis);
+        return byTime != 0 ? byTime : claimId.compareTo(other.claimId);
+    }
+}
@@ -0,0 +1,113 @@
+package com.insurance.tracking.service;
+
+import com.insurance.tracking.model.ClaimStatusChange;
+import com.insurance.tracking.model.Status;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans claim status changes out to GraphQL subscriptions.
+ *
+ * There is one topic per subscribed claim and one per status, so publishing a change
+ * only touches the subscribers that asked for it. A topic pushes to each subscriber
+ * without waiting for the others; every subscriber has its own bounded buffer in front
+ * of its WebSocket session, so one slow client cannot hold up publishers or other
+ * clients. When a claim subscriber's buffer is full the oldest change is dropped, since
+ * every change carries the claim's full current state. A status subscriber cannot skip
+ * transitions silently, so its subscription ends with an error instead and the client
+ * catches up through the claims query.
+ */
+@Component
+public class ClaimStatusPublisher {
+
+    private final int bufferSize;
+
+    // Created on first subscription, removed with the last one
+    private final Map<String, Topic> byClaimId = new ConcurrentHashMap<>();
+
+    // Fully populated at construction and never structurally modified afterwards
+    private final Map<Status, Topic> byStatus = new EnumMap<>(Status.class);
+
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private final Counter droppedChanges;
+    private final Counter overflowedSubscriptions;
+
+    private static final class Topic {
+
+        final Sinks.Many<ClaimStatusChange> sink = Sinks.many().multicast().directBestEffort();
+        int subscribers;
+
+        void publish(ClaimStatusChange change) {
+            // Concurrent publishers to the same topic retry instead of failing
+            while (sink.tryEmitNext(change) == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    public ClaimStatusPublisher(@Value("${claim-tracking.subscriptions.buffer-size:256}") int bufferSize,
+                                MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        for (Status status : Status.values()) {
+            byStatus.put(status, new Topic());
+        }
+        Gauge.builder("claim.tracking.subscriptions", subscriptions, AtomicInteger::get)
+                .description("Open claim status subscriptions")
+                .register(meterRegistry);
+        droppedChanges = Counter.builder("claim.tracking.subscriptions.dropped")
+                .description("Claim status changes dropped from full claim subscription buffers")
+                .register(meterRegistry);
+        overflowedSubscriptions = Counter.builder("claim.tracking.subscriptions.overflowed")
+                .description("Status subscriptions ended because their buffer was full")
+                .register(meterRegistry);
+    }
+
+    /** Delivers the change to subscribers of its claim and of its new status. */
+    public void publish(ClaimStatusChange change) {
+        Topic claimTopic = byClaimId.get(change.claimId());
+        if (claimTopic != null) {
+            claimTopic.publish(change);
+        }
+        byStatus.get(change.entry().getStatus()).publish(change);
+    }
+
+    public Flux<ClaimStatusChange> claimStatusChanged(String claimId) {
+        return Flux.defer(() -> {
+                    Topic topic = byClaimId.compute(claimId, (id, existing) -> {
+                        Topic joined = existing != null ? existing : new Topic();
+                        joined.subscribers++;
+                        return joined;
+                    });
+                    return topic.sink.asFlux();
+                })
+                .doFinally(signal -> byClaimId.computeIfPresent(claimId,
+                        (id, topic) -> --topic.subscribers == 0 ? null : topic))
+                .onBackpressureBuffer(bufferSize, dropped -> droppedChanges.increment(),
+                        BufferOverflowStrategy.DROP_OLDEST)
+                .transform(this::counted);
+    }
+
+    public Flux<ClaimStatusChange> statusTransitions(Status status) {
+        return byStatus.get(status).sink.asFlux()
+                .onBackpressureBuffer(bufferSize, dropped -> overflowedSubscriptions.increment(),
+                        BufferOverflowStrategy.ERROR)
+                .transform(this::counted);
+    }
+
+    private Flux<ClaimStatusChange> counted(Flux<ClaimStatusChange> changes) {
+        return changes
+                .doOnSubscribe(subscription -> subscriptions.incrementAndGet())
+                .doFinally(signal -> subscriptions.decrementAndGet());
+    }
+}
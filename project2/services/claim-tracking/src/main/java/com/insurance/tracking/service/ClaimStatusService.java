@@ -1,33 +1,97 @@
 package com.insurance.tracking.service;
 
+import com.insurance.tracking.analytics.PipelineStatistics;
+import com.insurance.tracking.model.BulkStatusUpdatePayload;
+import com.insurance.tracking.model.ClaimFilter;
 import com.insurance.tracking.model.ClaimStatus;
+import com.insurance.tracking.model.ClaimStatusChange;
+import com.insurance.tracking.model.ClaimStatusConnection;
+import com.insurance.tracking.model.ClaimStatusEdge;
+import com.insurance.tracking.model.PageInfo;
+import com.insurance.tracking.model.StageStatistics;
 import com.insurance.tracking.model.Status;
 import com.insurance.tracking.model.StatusEntry;
+import com.insurance.tracking.model.StatusHistory;
+import com.insurance.tracking.model.StatusUpdateInput;
+import com.insurance.tracking.model.StatusUpdateResult;
+import com.insurance.tracking.model.TransitionCount;
+import com.insurance.tracking.repository.ActorDictionary;
 import com.insurance.tracking.repository.ClaimStatusRepository;
+import com.insurance.tracking.repository.IndexedClaim;
+import com.insurance.tracking.repository.PageKey;
+import com.insurance.tracking.transition.StatusTransitions;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
 
 @Service
 public class ClaimStatusService {
 
     private static final DateTimeFormatter ISO_DATE = DateTimeFormatter.ISO_DATE;
 
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public static final int MAX_BULK_UPDATES = 10_000;
+
+    // Cursor prefixes, one per ordering, so a cursor cannot be replayed against the other
+    private static final String BY_CLAIM_ID = "id:";
+    private static final String BY_LAST_UPDATED = "lu:";
+
     private final ClaimStatusRepository claimStatusRepository;
+    private final ClaimStatusPublisher claimStatusPublisher;
+    private final StatusTransitions statusTransitions;
+    private final PipelineStatistics pipelineStatistics;
+    private final ActorDictionary actors;
 
-    public ClaimStatusService(ClaimStatusRepository claimStatusRepository) {
+    public ClaimStatusService(ClaimStatusRepository claimStatusRepository,
+                              ClaimStatusPublisher claimStatusPublisher,
+                              StatusTransitions statusTransitions,
+                              PipelineStatistics pipelineStatistics,
+                              ActorDictionary actors) {
         this.claimStatusRepository = claimStatusRepository;
+        this.claimStatusPublisher = claimStatusPublisher;
+        this.statusTransitions = statusTransitions;
+        this.pipelineStatistics = pipelineStatistics;
+        this.actors = actors;
     }
 
     public ClaimStatus trackClaim(String claimId) {
         return claimStatusRepository.findByClaimId(claimId).orElse(null);
     }
 
+    /**
+     * Returns a view of the claim's history, narrowed to the entries after {@code since}
+     * and then to the {@code last} most recent ones; both are optional.
+     *
+     * @param since exclusive ISO-8601 instant
+     */
+    public List<StatusEntry> getStatusHistory(ClaimStatus claimStatus, Integer last, String since) {
+        if (last != null && last < 0) {
+            throw new IllegalArgumentException("last must not be negative: " + last);
+        }
+        StatusHistory history = claimStatus.getStatusHistory();
+        List<StatusEntry> entries = since != null
+                ? history.since(parseInstant("since", since, Long.MIN_VALUE))
+                : history;
+        if (last != null && last < entries.size()) {
+            entries = entries.subList(entries.size() - last, entries.size());
+        }
+        return entries;
+    }
+
     public List<ClaimStatus> getClaimsByStatus(Status status) {
         return claimStatusRepository.findByCurrentStatus(status);
     }
@@ -36,14 +100,61 @@ public class ClaimStatusService {
         return claimStatusRepository.findAll();
     }
 
-    public ClaimStatus initializeClaim(String claimId) {
-        if (claimStatusRepository.exists(claimId)) {
-            throw new IllegalArgumentException(
-                "Claim already exists with id: " + claimId +
-                ". Use updateClaimStatus to advance its state.");
+    /**
+     * Returns one page of claims matching the filter. Claims are ordered by claim id, or
+     * by lastUpdated when the filter bounds it.
+     *
+     * @param first maximum number of claims, capped at {@link #MAX_PAGE_SIZE}
+     * @param after cursor of the last claim of the previous page, or null for the first page
+     */
+    public ClaimStatusConnection getClaims(int first, String after, ClaimFilter filter) {
+        if (first < 0) {
+            throw new IllegalArgumentException("first must not be negative: " + first);
+        }
+        if (filter == null) {
+            filter = ClaimFilter.NONE;
         }
+        int limit = Math.min(first, MAX_PAGE_SIZE);
 
-        String now = Instant.now().toString();
+        // One extra claim tells whether another page follows
+        List<IndexedClaim> claims;
+        boolean byLastUpdated = filter.hasUpdatedRange();
+        if (byLastUpdated) {
+            claims = claimStatusRepository.findPageByLastUpdated(
+                    filter.status(),
+                    filter.updatedBy(),
+                    parseInstant("updatedAfter", filter.updatedAfter(), Long.MIN_VALUE),
+                    parseInstant("updatedBefore", filter.updatedBefore(), Long.MAX_VALUE),
+                    after != null ? decodeLastUpdatedCursor(after) : null,
+                    limit + 1);
+        } else {
+            claims = claimStatusRepository.findPageByClaimId(
+                    filter.status(),
+                    filter.updatedBy(),
+                    after != null ? decodeClaimIdCursor(after) : null,
+                    limit + 1);
+        }
+
+        boolean hasNextPage = claims.size() > limit;
+        int size = Math.min(claims.size(), limit);
+        List<ClaimStatusEdge> edges = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            IndexedClaim claim = claims.get(i);
+            String cursor = byLastUpdated ? encodeLastUpdatedCursor(claim.key()) : encodeClaimIdCursor(claim.key());
+            edges.add(new ClaimStatusEdge(cursor, claim.claim()));
+        }
+
+        PageInfo pageInfo = new PageInfo(
+                hasNextPage,
+                after != null,
+                edges.isEmpty() ? null : edges.get(0).cursor(),
+                edges.isEmpty() ? null : edges.get(size - 1).cursor());
+        return new ClaimStatusConnection(edges, pageInfo);
+    }
+
+    /** @param claimType selects the allowed status transitions; null for the default pipeline */
+    public ClaimStatus initializeClaim(String claimId, String claimType) {
+        Instant now = Instant.now();
 
         StatusEntry submittedEntry = new StatusEntry(
             Status.SUBMITTED,
@@ -52,44 +163,191 @@ public class ClaimStatusService {
             "SYSTEM"
         );
 
-        List<StatusEntry> history = new ArrayList<>();
-        history.add(submittedEntry);
-
-        ClaimStatus claimStatus = new ClaimStatus(
+        ClaimStatus saved = ClaimStatus.initial(
             claimId,
-            Status.SUBMITTED,
-            history,
-            now,
-            calculateEstimatedCompletion(Status.SUBMITTED)
+            claimType,
+            submittedEntry,
+            calculateEstimatedCompletion(Status.SUBMITTED, today(now))
         );
 
-        return claimStatusRepository.save(claimStatus);
+        if (!claimStatusRepository.insert(saved)) {
+            throw new IllegalArgumentException(
+                "Claim already exists with id: " + claimId +
+                ". Use updateClaimStatus to advance its state.");
+        }
+        claimStatusPublisher.publish(new ClaimStatusChange(claimId, null, submittedEntry, saved));
+        return saved;
     }
 
     public ClaimStatus updateClaimStatus(String claimId,
                                          Status status,
                                          String description,
                                          String updatedBy) {
-        ClaimStatus claimStatus = claimStatusRepository.findByClaimId(claimId)
+        Instant now = Instant.now();
+        String estimatedCompletion = calculateEstimatedCompletion(status, today(now));
+
+        StatusEntry newEntry = new StatusEntry(status, now, description, actors.canonical(updatedBy));
+        Status[] previousStatus = new Status[1];
+
+        // Checked against the snapshot being replaced, so a rejected change writes nothing
+        ClaimStatus updated = claimStatusRepository.update(claimId, claimStatus -> {
+                statusTransitions.check(claimStatus, status);
+                previousStatus[0] = claimStatus.getCurrentStatus();
+                return claimStatus.withStatusEntry(newEntry, estimatedCompletion);
+            })
             .orElseThrow(() -> new IllegalArgumentException(
                 "Claim not found with id: " + claimId +
                 ". Use initializeClaim to create a new claim first."));
 
-        String now = Instant.now().toString();
+        statusTransitions.record(previousStatus[0], status);
+        claimStatusPublisher.publish(new ClaimStatusChange(claimId, previousStatus[0], newEntry, updated));
+        return updated;
+    }
 
-        StatusEntry newEntry = new StatusEntry(status, now, description, updatedBy);
-        claimStatus.addStatusEntry(newEntry);
-        claimStatus.setCurrentStatus(status);
-        claimStatus.setLastUpdated(now);
-        claimStatus.setEstimatedCompletionDate(calculateEstimatedCompletion(status));
+    /**
+     * Applies many status updates at once. All of them share one timestamp, updates of the
+     * same claim are applied together in request order, and every resulting entry is
+     * journaled as one commit. An update of an unknown claim, or one whose transition is
+     * not allowed, fails on its own; later updates of the same claim continue from the
+     * last update that succeeded.
+     */
+    public BulkStatusUpdatePayload bulkUpdateClaimStatus(List<StatusUpdateInput> updates) {
+        if (updates.size() > MAX_BULK_UPDATES) {
+            throw new IllegalArgumentException(
+                "At most " + MAX_BULK_UPDATES + " updates per request, got " + updates.size());
+        }
+        Instant now = Instant.now();
+        LocalDate today = today(now);
+
+        Map<String, List<Integer>> positionsByClaim = new LinkedHashMap<>();
+        for (int i = 0; i < updates.size(); i++) {
+            positionsByClaim.computeIfAbsent(updates.get(i).claimId(), id -> new ArrayList<>(1)).add(i);
+        }
 
-        return claimStatusRepository.save(claimStatus);
+        StatusUpdateResult[] results = new StatusUpdateResult[updates.size()];
+        ClaimStatusChange[] changes = new ClaimStatusChange[updates.size()];
+        Map<String, UnaryOperator<ClaimStatus>> mutations = new LinkedHashMap<>();
+        positionsByClaim.forEach((claimId, positions) -> mutations.put(claimId, current -> {
+            ClaimStatus claimStatus = current;
+            for (int position : positions) {
+                StatusUpdateInput update = updates.get(position);
+                try {
+                    statusTransitions.check(claimStatus, update.status());
+                } catch (IllegalArgumentException e) {
+                    results[position] = StatusUpdateResult.failed(claimId, e.getMessage());
+                    continue;
+                }
+                StatusEntry entry = new StatusEntry(update.status(), now, update.description(),
+                        actors.canonical(update.updatedBy()));
+                Status previousStatus = claimStatus.getCurrentStatus();
+                claimStatus = claimStatus.withStatusEntry(entry, calculateEstimatedCompletion(update.status(), today));
+                results[position] = StatusUpdateResult.applied(claimStatus);
+                changes[position] = new ClaimStatusChange(claimId, previousStatus, entry, claimStatus);
+            }
+            return claimStatus;
+        }));
+
+        claimStatusRepository.updateAll(mutations);
+
+        int succeeded = 0;
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = StatusUpdateResult.failed(updates.get(i).claimId(),
+                    "Claim not found with id: " + updates.get(i).claimId());
+            } else if (changes[i] != null) {
+                succeeded++;
+                statusTransitions.record(changes[i].previousStatus(), changes[i].entry().getStatus());
+                claimStatusPublisher.publish(changes[i]);
+            }
+        }
+        return new BulkStatusUpdatePayload(Arrays.asList(results), succeeded, results.length - succeeded);
     }
 
-    // Estimate completion date based on pipeline position
-    private String calculateEstimatedCompletion(Status status) {
-        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    public List<StageStatistics> getPipelineStatistics() {
+        return pipelineStatistics.all();
+    }
+
+    public StageStatistics getStageStatistics(Status status) {
+        return pipelineStatistics.forStatus(status);
+    }
+
+    public List<TransitionCount> getTransitionCounts() {
+        return statusTransitions.counts();
+    }
+
+    public Flux<ClaimStatusChange> claimStatusChanged(String claimId) {
+        return claimStatusPublisher.claimStatusChanged(claimId);
+    }
+
+    public Flux<ClaimStatusChange> statusTransitions(Status status) {
+        return claimStatusPublisher.statusTransitions(status);
+    }
+
+    private static long parseInstant(String name, String value, long absent) {
+        if (value == null) {
+            return absent;
+        }
+        try {
+            return Instant.parse(value).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " is not an ISO-8601 instant: " + value);
+        }
+    }
+
+    private static String encodeClaimIdCursor(PageKey key) {
+        return encodeCursor(BY_CLAIM_ID + key.claimId());
+    }
+
+    private static String encodeLastUpdatedCursor(PageKey key) {
+        return encodeCursor(BY_LAST_UPDATED + key.lastUpdatedMillis() + ":" + key.claimId());
+    }
 
+    private static String encodeCursor(String position) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeClaimIdCursor(String cursor) {
+        String position = decodeCursor(cursor);
+        if (!position.startsWith(BY_CLAIM_ID)) {
+            throw invalidCursor(cursor);
+        }
+        return position.substring(BY_CLAIM_ID.length());
+    }
+
+    private static PageKey decodeLastUpdatedCursor(String cursor) {
+        String position = decodeCursor(cursor);
+        int separator = position.indexOf(':', BY_LAST_UPDATED.length());
+        if (!position.startsWith(BY_LAST_UPDATED) || separator < 0) {
+            throw invalidCursor(cursor);
+        }
+        try {
+            long lastUpdatedMillis = Long.parseLong(position.substring(BY_LAST_UPDATED.length(), separator));
+            return new PageKey(lastUpdatedMillis, position.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw invalidCursor(cursor);
+        }
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalidCursor(cursor);
+        }
+    }
+
+    private static IllegalArgumentException invalidCursor(String cursor) {
+        return new IllegalArgumentException(
+            "Invalid cursor: " + cursor + ". Cursors are only valid with the filter they were issued for.");
+    }
+
+    private static LocalDate today(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    // Estimate completion date based on pipeline position
+    private String calculateEstimatedCompletion(Status status, LocalDate today) {
         return switch (status) {
             case SUBMITTED,
                  IDENTITY_VERIFIED,
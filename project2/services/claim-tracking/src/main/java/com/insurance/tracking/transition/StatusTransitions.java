@@ -0,0 +1,98 @@
+package com.insurance.tracking.transition;
+
+import com.insurance.tracking.model.ClaimStatus;
+import com.insurance.tracking.model.Status;
+import com.insurance.tracking.model.TransitionCount;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Decides which status a claim may move to next, from the {@link TransitionTable} of its
+ * claim type, and counts the transitions taken along each edge.
+ *
+ * Claim types without a table of their own, and claims without a type, use the default
+ * table. Claim types are matched case-insensitively. Counts start at zero on start-up:
+ * seeded and replayed history is not counted.
+ */
+@Component
+public class StatusTransitions {
+
+    private static final Status[] STATUSES = Status.values();
+
+    private final TransitionTable defaults;
+    private final Map<String, TransitionTable> byClaimType = new HashMap<>();
+
+    // Indexed by from.ordinal() * STATUSES.length + to.ordinal()
+    private final AtomicLongArray counts = new AtomicLongArray(STATUSES.length * STATUSES.length);
+
+    // Every edge of any table, in from/to order
+    private final List<Status[]> edges = new ArrayList<>();
+
+    public StatusTransitions(TransitionProperties properties, MeterRegistry meterRegistry) {
+        this.defaults = TransitionTable.pipeline().with(properties.allowed());
+        properties.claimTypes().forEach((claimType, changes) ->
+                byClaimType.put(claimType.toUpperCase(Locale.ROOT), defaults.with(changes)));
+
+        for (Status from : STATUSES) {
+            EnumSet<Status> next = EnumSet.noneOf(Status.class);
+            next.addAll(defaults.allowedAfter(from));
+            byClaimType.values().forEach(table -> next.addAll(table.allowedAfter(from)));
+            for (Status to : next) {
+                edges.add(new Status[] {from, to});
+                int edge = edge(from, to);
+                FunctionCounter.builder("claim.tracking.transitions", counts, c -> c.get(edge))
+                        .description("Claim status changes along one edge of the pipeline")
+                        .tag("from", from.name())
+                        .tag("to", to.name())
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    /**
+     * Throws unless the claim may move from its current status to {@code to}. Call with
+     * the claim snapshot about to be replaced, so the check and the change are atomic.
+     */
+    public void check(ClaimStatus claimStatus, Status to) {
+        TransitionTable table = tableFor(claimStatus.getClaimType());
+        Status from = claimStatus.getCurrentStatus();
+        if (!table.isAllowed(from, to)) {
+            throw new IllegalArgumentException("Invalid status transition for claim " + claimStatus.getClaimId()
+                    + ": " + from + " -> " + to + ". Allowed next statuses: " + table.allowedAfter(from));
+        }
+    }
+
+    /** Counts one applied transition. */
+    public void record(Status from, Status to) {
+        counts.incrementAndGet(edge(from, to));
+    }
+
+    /** Counts of every edge allowed for any claim type, including those never taken. */
+    public List<TransitionCount> counts() {
+        List<TransitionCount> result = new ArrayList<>(edges.size());
+        for (Status[] edge : edges) {
+            result.add(new TransitionCount(edge[0], edge[1], counts.get(edge(edge[0], edge[1]))));
+        }
+        return result;
+    }
+
+    private TransitionTable tableFor(String claimType) {
+        if (claimType == null || byClaimType.isEmpty()) {
+            return defaults;
+        }
+        return byClaimType.getOrDefault(claimType.toUpperCase(Locale.ROOT), defaults);
+    }
+
+    private static int edge(Status from, Status to) {
+        return from.ordinal() * STATUSES.length + to.ordinal();
+    }
+}
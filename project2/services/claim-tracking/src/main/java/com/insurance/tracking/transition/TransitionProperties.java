@@ -0,0 +1,27 @@
+package com.insurance.tracking.transition;
+
+import com.insurance.tracking.model.Status;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Allowed status transitions ({@code claim-tracking.transitions.*}), as changes to the
+ * default pipeline in which each status leads to the next one and every open status to
+ * REJECTED. Each entry replaces the next statuses of one status; an empty value makes
+ * the status final.
+ *
+ * @param allowed    changes for every claim, e.g. {@code allowed.FRAUD_CHECKED=ELIGIBILITY_CONFIRMED,EXPERT_ASSESSED,REJECTED}
+ * @param claimTypes further changes for claims of one type, applied on top of {@code allowed},
+ *                   e.g. {@code claim-types.AUTO.ELIGIBILITY_CONFIRMED=EXPERT_ASSESSED,REJECTED}
+ */
+@ConfigurationProperties("claim-tracking.transitions")
+public record TransitionProperties(Map<Status, Set<Status>> allowed,
+                                   Map<String, Map<Status, Set<Status>>> claimTypes) {
+
+    public TransitionProperties {
+        allowed = allowed != null ? allowed : Map.of();
+        claimTypes = claimTypes != null ? claimTypes : Map.of();
+    }
+}
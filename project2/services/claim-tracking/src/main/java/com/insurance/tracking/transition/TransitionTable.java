@@ -0,0 +1,62 @@
+package com.insurance.tracking.transition;
+
+import com.insurance.tracking.model.Status;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Next statuses allowed after each status: one EnumSet per status, indexed by ordinal,
+ * so checking a transition is an array load and a bit test. Immutable.
+ */
+public final class TransitionTable {
+
+    private static final Status[] STATUSES = Status.values();
+
+    private final EnumSet<Status>[] next;
+
+    private TransitionTable(EnumSet<Status>[] next) {
+        this.next = next;
+    }
+
+    /** The claim pipeline: each status leads to the next one, and every open status to REJECTED. */
+    public static TransitionTable pipeline() {
+        EnumSet<Status>[] next = newTable();
+        for (Status status : STATUSES) {
+            next[status.ordinal()] = EnumSet.noneOf(Status.class);
+        }
+        for (int i = 0; i < Status.COMPLETED.ordinal(); i++) {
+            next[i].add(STATUSES[i + 1]);
+            next[i].add(Status.REJECTED);
+        }
+        return new TransitionTable(next);
+    }
+
+    /** Returns a copy in which each given status leads to exactly the given next statuses. */
+    public TransitionTable with(Map<Status, Set<Status>> changes) {
+        EnumSet<Status>[] copy = newTable();
+        for (Status status : STATUSES) {
+            Set<Status> changed = changes.get(status);
+            copy[status.ordinal()] = changed == null ? next[status.ordinal()].clone()
+                    : changed.isEmpty() ? EnumSet.noneOf(Status.class)
+                    : EnumSet.copyOf(changed);
+        }
+        return new TransitionTable(copy);
+    }
+
+    public boolean isAllowed(Status from, Status to) {
+        return next[from.ordinal()].contains(to);
+    }
+
+    /** Unmodifiable view of the statuses allowed after {@code from}. */
+    public Set<Status> allowedAfter(Status from) {
+        return Collections.unmodifiableSet(next[from.ordinal()]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EnumSet<Status>[] newTable() {
+        return new EnumSet[STATUSES.length];
+    }
+}
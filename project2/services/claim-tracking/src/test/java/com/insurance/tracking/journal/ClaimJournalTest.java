@@ -0,0 +1,333 @@
+package com.insurance.tracking.journal;
+
+import com.insurance.tracking.model.ClaimStatus;
+import com.insurance.tracking.model.Status;
+import com.insurance.tracking.model.StatusEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ClaimJournal unit tests")
+class ClaimJournalTest {
+
+    private static final Status[] STATUSES = Status.values();
+
+    @TempDir
+    Path directory;
+
+    // Journals left open to simulate a crash, closed once the test is done
+    private final List<ClaimJournal> open = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (ClaimJournal journal : open.reversed()) {
+            journal.close();
+        }
+    }
+
+    // Replay
+
+    @Test
+    @DisplayName("Entries written before a restart are replayed in order, with the claim type")
+    void restart_replaysEveryEntry() throws IOException {
+        ClaimJournal journal = openJournal(DataSize.ofMegabytes(1));
+        Store store = new Store();
+        store.recover(journal);
+        store.insert(journal, "CLM-1", "AUTO");
+        store.advance(journal, "CLM-1", 3);
+        store.insert(journal, "CLM-2", null);
+        journal.close();
+        open.remove(journal);
+
+        Store recovered = new Store();
+        recovered.recover(openJournal(DataSize.ofMegabytes(1)));
+
+        assertThat(recovered.claims).containsOnlyKeys("CLM-1", "CLM-2");
+        assertThat(statuses(recovered.claims.get("CLM-1"))).containsExactly(
+                Status.SUBMITTED, Status.IDENTITY_VERIFIED, Status.POLICY_VALIDATED, Status.FRAUD_CHECKED);
+        assertThat(recovered.claims.get("CLM-1").getClaimType()).isEqualTo("AUTO");
+        assertThat(recovered.claims.get("CLM-1").getStatusHistory().get(1).getUpdatedBy()).isEqualTo("ADJUSTER");
+        assertThat(recovered.claims.get("CLM-2").getClaimType()).isNull();
+        assertThat(recovered.applied).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Author names read back go through the given dictionary")
+    void restart_sharesAuthorNames() throws IOException {
+        ClaimJournal journal = openJournal(DataSize.ofMegabytes(1));
+        Store store = new Store();
+        store.recover(journal);
+        store.insert(journal, "CLM-1", null);
+        store.advance(journal, "CLM-1", 2);
+        journal.close();
+        open.remove(journal);
+
+        Map<String, String> shared = new ConcurrentHashMap<>();
+        Store recovered = new Store();
+        recovered.recover(openJournal(DataSize.ofMegabytes(1)), name -> shared.computeIfAbsent(name, n -> n));
+
+        List<StatusEntry> history = recovered.claims.get("CLM-1").getStatusHistory();
+        assertThat(history.get(1).getUpdatedBy()).isSameAs(history.get(2).getUpdatedBy());
+    }
+
+    // Torn and corrupt tail
+
+    @Test
+    @DisplayName("A frame cut short at the end of the log is truncated and the log stays appendable")
+    void tornLastFrame_isTruncated() throws IOException {
+        ClaimJournal journal = openJournal(DataSize.ofMegabytes(1));
+        Store store = new Store();
+        store.recover(journal);
+        store.insert(journal, "CLM-1", null);
+        store.advance(journal, "CLM-1", 1);
+        journal.close();
+        open.remove(journal);
+
+        Path segment = lastSegment();
+        long intactSize = Files.size(segment);
+        byte[] frame = JournalCodec.encodeFrame(new JournalRecord("CLM-1", 2,
+                new StatusEntry(Status.POLICY_VALIDATED, 0L, "torn", "ADJUSTER"), null, null));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(frame, 0, frame.length / 2));
+        }
+
+        ClaimJournal reopened = openJournal(DataSize.ofMegabytes(1));
+        Store recovered = new Store();
+        recovered.recover(reopened);
+
+        assertThat(Files.size(segment)).isEqualTo(intactSize);
+        assertThat(statuses(recovered.claims.get("CLM-1")))
+                .containsExactly(Status.SUBMITTED, Status.IDENTITY_VERIFIED);
+
+        // Appends after the truncation must land on a frame boundary
+        recovered.advance(reopened, "CLM-1", 1);
+        reopened.close();
+        open.remove(reopened);
+
+        Store again = new Store();
+        again.recover(openJournal(DataSize.ofMegabytes(1)));
+        assertThat(statuses(again.claims.get("CLM-1")))
+                .containsExactly(Status.SUBMITTED, Status.IDENTITY_VERIFIED, Status.POLICY_VALIDATED);
+    }
+
+    @Test
+    @DisplayName("A last frame whose checksum does not match is truncated")
+    void corruptLastFrame_isTruncated() throws IOException {
+        ClaimJournal journal = openJournal(DataSize.ofMegabytes(1));
+        Store store = new Store();
+        store.recover(journal);
+        store.insert(journal, "CLM-1", null);
+        store.advance(journal, "CLM-1", 1);
+        Path segment = lastSegment();
+        long sizeBeforeLastFrame = Files.size(segment);
+        store.advance(journal, "CLM-1", 1);
+        journal.close();
+        open.remove(journal);
+
+        // Flips a byte of the last frame's payload, past its length and checksum
+        long corrupted = sizeBeforeLastFrame + JournalCodec.FRAME_HEADER_BYTES + 2;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer octet = ByteBuffer.allocate(1);
+            channel.read(octet, corrupted);
+            octet.put(0, (byte) ~octet.get(0)).rewind();
+            channel.write(octet, corrupted);
+        }
+
+        Store recovered = new Store();
+        recovered.recover(openJournal(DataSize.ofMegabytes(1)));
+
+        assertThat(Files.size(segment)).isEqualTo(sizeBeforeLastFrame);
+        assertThat(statuses(recovered.claims.get("CLM-1")))
+                .containsExactly(Status.SUBMITTED, Status.IDENTITY_VERIFIED);
+    }
+
+    // Snapshots
+
+    @Test
+    @DisplayName("Recovery loads the snapshot, replays only the log after it and deletes covered segments")
+    void snapshotPlusTail_isRecovered() throws IOException {
+        ClaimJournal journal = openJournal(DataSize.ofMegabytes(1));
+        Store store = new Store();
+        store.recover(journal);
+        journal.startSnapshots(store::forEach);
+        store.insert(journal, "CLM-1", "HOME");
+        store.advance(journal, "CLM-1", 2);
+        Path coveredSegment = lastSegment();
+        journal.snapshot();
+        store.advance(journal, "CLM-1", 1);
+        store.insert(journal, "CLM-2", null);
+        // Left open: the entries after the snapshot are only in the log
+
+        Store recovered = new Store();
+        recovered.recover(openJournal(DataSize.ofMegabytes(1)));
+
+        assertThat(Files.exists(coveredSegment)).isFalse();
+        assertThat(recovered.restored).isEqualTo(1);
+        assertThat(recovered.applied).isEqualTo(2);
+        assertThat(statuses(recovered.claims.get("CLM-1"))).containsExactly(
+                Status.SUBMITTED, Status.IDENTITY_VERIFIED, Status.POLICY_VALIDATED, Status.FRAUD_CHECKED);
+        assertThat(recovered.claims.get("CLM-1").getClaimType()).isEqualTo("HOME");
+        assertThat(recovered.claims).containsKey("CLM-2");
+    }
+
+    @Test
+    @DisplayName("Snapshots taken while appends continue lose no entry and replay none twice")
+    void snapshotDuringAppends_recoversEveryEntry() throws Exception {
+        ClaimJournal journal = openJournal(DataSize.ofKilobytes(4));
+        Store store = new Store();
+        store.recover(journal);
+        journal.startSnapshots(store::forEach);
+
+        int writers = 4;
+        int claimsPerWriter = 25;
+        int updatesPerClaim = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                done.add(executor.submit(() -> {
+                    start.await();
+                    for (int c = 0; c < claimsPerWriter; c++) {
+                        String claimId = "CLM-" + writer + "-" + c;
+                        store.insert(journal, claimId, null);
+                        store.advance(journal, claimId, updatesPerClaim);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            int snapshots = 0;
+            while (!done.stream().allMatch(Future::isDone)) {
+                journal.snapshot();
+                snapshots++;
+            }
+            for (Future<?> future : done) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            assertThat(snapshots).isPositive();
+        } finally {
+            executor.shutdownNow();
+        }
+        // Left open: recovery reads the last snapshot plus whatever was logged after it
+
+        Store recovered = new Store();
+        recovered.recover(openJournal(DataSize.ofKilobytes(4)));
+
+        assertThat(recovered.claims).hasSize(writers * claimsPerWriter);
+        recovered.claims.forEach((claimId, claimStatus) ->
+                assertThat(statuses(claimStatus)).as(claimId).isEqualTo(statuses(store.claims.get(claimId))));
+    }
+
+    private ClaimJournal openJournal(DataSize segmentSize) {
+        ClaimJournal journal = new ClaimJournal(
+                new JournalProperties(true, directory, segmentSize, false, Duration.ofHours(1)));
+        open.add(journal);
+        return journal;
+    }
+
+    private Path lastSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".seg"))
+                    .max(Comparator.naturalOrder())
+                    .orElseThrow();
+        }
+    }
+
+    private static List<Status> statuses(ClaimStatus claimStatus) {
+        return claimStatus.getStatusHistory().stream().map(StatusEntry::getStatus).toList();
+    }
+
+    /** Claims kept the way the repository keeps them: one snapshot per claim, written under compute. */
+    private static final class Store {
+
+        final Map<String, ClaimStatus> claims = new ConcurrentHashMap<>();
+        int restored;
+        int applied;
+
+        void recover(ClaimJournal journal) {
+            recover(journal, UnaryOperator.identity());
+        }
+
+        void recover(ClaimJournal journal, UnaryOperator<String> actors) {
+            journal.recover(actors, claimStatus -> {
+                claims.put(claimStatus.getClaimId(), claimStatus);
+                restored++;
+            }, record -> {
+                boolean[] replayed = new boolean[1];
+                claims.compute(record.claimId(), (id, current) -> {
+                    int size = current != null ? current.getStatusHistory().size() : 0;
+                    if (record.index() != size) {
+                        return current;
+                    }
+                    replayed[0] = true;
+                    return current != null
+                            ? current.withStatusEntry(record.entry(), record.estimatedCompletionDate())
+                            : ClaimStatus.initial(id, record.claimType(), record.entry(),
+                                    record.estimatedCompletionDate());
+                });
+                if (replayed[0]) {
+                    applied++;
+                }
+                return replayed[0];
+            });
+        }
+
+        void insert(ClaimJournal journal, String claimId, String claimType) {
+            ClaimStatus claimStatus = ClaimStatus.initial(claimId, claimType,
+                    new StatusEntry(Status.SUBMITTED, System.currentTimeMillis(), "Submitted", "SYSTEM"), null);
+            List<CompletableFuture<?>> commit = new ArrayList<>(1);
+            journal.write(() -> claims.computeIfAbsent(claimId, id -> {
+                commit.add(journal.append(claimStatus, 0));
+                return claimStatus;
+            }));
+            journal.awaitDurable(commit.get(0));
+        }
+
+        // Moves the claim the given number of steps down the pipeline
+        void advance(ClaimJournal journal, String claimId, int steps) {
+            for (int i = 0; i < steps; i++) {
+                List<CompletableFuture<?>> commit = new ArrayList<>(1);
+                journal.write(() -> claims.computeIfPresent(claimId, (id, current) -> {
+                    Status next = STATUSES[current.getCurrentStatus().ordinal() + 1];
+                    ClaimStatus updated = current.withStatusEntry(
+                            new StatusEntry(next, System.currentTimeMillis(), null, new String("ADJUSTER")), null);
+                    commit.add(journal.append(updated, current.getStatusHistory().size()));
+                    return updated;
+                }));
+                journal.awaitDurable(commit.get(0));
+            }
+        }
+
+        void forEach(Consumer<ClaimStatus> sink) {
+            claims.values().forEach(sink);
+        }
+    }
+}
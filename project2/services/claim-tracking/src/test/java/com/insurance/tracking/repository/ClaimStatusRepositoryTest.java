@@ -0,0 +1,260 @@
+package com.insurance.tracking.repository;
+
+import com.insurance.tracking.analytics.PipelineStatistics;
+import com.insurance.tracking.journal.ClaimJournal;
+import com.insurance.tracking.journal.JournalProperties;
+import com.insurance.tracking.model.ClaimStatus;
+import com.insurance.tracking.model.Status;
+import com.insurance.tracking.model.StatusEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ClaimStatusRepository unit tests")
+class ClaimStatusRepositoryTest {
+
+    // Seeded by the repository: CLM-2024-001 is DOCUMENTS_REVIEWED, CLM-2024-002 POLICY_VALIDATED
+    private static final String SEEDED_REVIEWED = "CLM-2024-001";
+    private static final String SEEDED_VALIDATED = "CLM-2024-002";
+
+    private FailingJournal journal;
+    private ClaimStatusRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        journal = new FailingJournal();
+        repository = new ClaimStatusRepository(journal, new PipelineStatistics(), new ActorDictionary(100));
+    }
+
+    // Journal failures
+
+    @Test
+    @DisplayName("An update whose journal append fails leaves the claim and its index positions unchanged")
+    void update_appendFails_keepsIndexes() {
+        ClaimStatus before = repository.findByClaimId(SEEDED_VALIDATED).orElseThrow();
+        journal.failing = true;
+
+        assertThatThrownBy(() -> repository.update(SEEDED_VALIDATED, advance(Status.FRAUD_CHECKED)))
+                .isInstanceOf(UncheckedIOException.class);
+
+        assertThat(repository.findByClaimId(SEEDED_VALIDATED)).containsSame(before);
+        assertIndexedAt(before);
+    }
+
+    @Test
+    @DisplayName("An insert whose journal append fails stores and indexes nothing")
+    void insert_appendFails_indexesNothing() {
+        ClaimStatus claim = ClaimStatus.initial("CLM-T-01", null, entry(Status.SUBMITTED, "2025-01-01T00:00:00Z"), null);
+        journal.failing = true;
+
+        assertThatThrownBy(() -> repository.insert(claim)).isInstanceOf(UncheckedIOException.class);
+
+        assertThat(repository.exists("CLM-T-01")).isFalse();
+        assertThat(repository.findPageByClaimId(null, null, SEEDED_VALIDATED, 10)).isEmpty();
+        assertThat(repository.findPageByClaimId(Status.SUBMITTED, null, null, 10)).isEmpty();
+        assertThat(repository.findPageByLastUpdated(null, null, Long.MIN_VALUE, Long.MAX_VALUE, null, 10))
+                .extracting(indexed -> indexed.claim().getClaimId())
+                .containsExactly(SEEDED_REVIEWED, SEEDED_VALIDATED);
+
+        journal.failing = false;
+
+        assertThat(repository.insert(claim)).isTrue();
+        assertThat(repository.findPageByClaimId(Status.SUBMITTED, null, null, 10))
+                .extracting(indexed -> indexed.claim().getClaimId())
+                .containsExactly("CLM-T-01");
+    }
+
+    @Test
+    @DisplayName("A bulk update stops at the failed append; claims updated before it stay indexed correctly")
+    void updateAll_appendFails_keepsIndexesOfFailedClaim() {
+        ClaimStatus validated = repository.findByClaimId(SEEDED_VALIDATED).orElseThrow();
+        journal.failAfter = 1;
+        Map<String, UnaryOperator<ClaimStatus>> mutations = new LinkedHashMap<>();
+        mutations.put(SEEDED_REVIEWED, advance(Status.EXPERT_ASSESSED));
+        mutations.put(SEEDED_VALIDATED, advance(Status.FRAUD_CHECKED));
+
+        assertThatThrownBy(() -> repository.updateAll(mutations)).isInstanceOf(UncheckedIOException.class);
+
+        ClaimStatus assessed = repository.findByClaimId(SEEDED_REVIEWED).orElseThrow();
+        assertThat(assessed.getCurrentStatus()).isEqualTo(Status.EXPERT_ASSESSED);
+        assertIndexedAt(assessed);
+        assertThat(repository.findByCurrentStatus(Status.DOCUMENTS_REVIEWED)).isEmpty();
+
+        assertThat(repository.findByClaimId(SEEDED_VALIDATED)).containsSame(validated);
+        assertIndexedAt(validated);
+        assertThat(repository.findByCurrentStatus(Status.FRAUD_CHECKED)).isEmpty();
+    }
+
+    // Author index
+
+    @Test
+    @DisplayName("Seeded claims are indexed under the author of their latest entry")
+    void findPage_byActor_seededClaims() {
+        assertThat(claimIds(repository.findPageByClaimId(null, "ADJUSTER_MARTIN", null, 10)))
+                .containsExactly(SEEDED_REVIEWED);
+        assertThat(claimIds(repository.findPageByLastUpdated(
+                null, "POLICY_SERVICE", Long.MIN_VALUE, Long.MAX_VALUE, null, 10)))
+                .containsExactly(SEEDED_VALIDATED);
+    }
+
+    @Test
+    @DisplayName("Pages filtered by author contain only that author's claims, in order, across page boundaries")
+    void findPage_byActor_pagesThroughAuthorClaims() {
+        for (int i = 1; i <= 6; i++) {
+            insert("CLM-T-0" + i, i % 2 == 1 ? "ALICE" : "BOB", "2025-01-0" + (7 - i) + "T00:00:00Z");
+        }
+
+        List<IndexedClaim> first = repository.findPageByClaimId(null, "ALICE", null, 2);
+        List<IndexedClaim> second = repository.findPageByClaimId(null, "ALICE", "CLM-T-03", 2);
+
+        assertThat(claimIds(first)).containsExactly("CLM-T-01", "CLM-T-03");
+        assertThat(claimIds(second)).containsExactly("CLM-T-05");
+        assertThat(claimIds(repository.findPageByLastUpdated(
+                null, "BOB", Long.MIN_VALUE, Long.MAX_VALUE, null, 10)))
+                .containsExactly("CLM-T-06", "CLM-T-04", "CLM-T-02");
+    }
+
+    @Test
+    @DisplayName("An update moves the claim to the author of its new latest entry")
+    void update_movesClaimToNewAuthor() {
+        insert("CLM-T-01", "ALICE", "2025-01-01T00:00:00Z");
+
+        repository.update("CLM-T-01", current -> current.withStatusEntry(
+                new StatusEntry(Status.IDENTITY_VERIFIED, "2025-01-02T00:00:00Z", "Verified", "BOB"),
+                current.getEstimatedCompletionDate()));
+
+        assertThat(repository.findPageByClaimId(null, "ALICE", null, 10)).isEmpty();
+        assertThat(repository.findPageByLastUpdated(null, "ALICE", Long.MIN_VALUE, Long.MAX_VALUE, null, 10))
+                .isEmpty();
+        assertThat(claimIds(repository.findPageByClaimId(null, "BOB", null, 10))).containsExactly("CLM-T-01");
+        assertThat(repository.findPageByLastUpdated(null, "BOB", Long.MIN_VALUE, Long.MAX_VALUE, null, 10))
+                .extracting(IndexedClaim::key)
+                .containsExactly(PageKey.of(repository.findByClaimId("CLM-T-01").orElseThrow()));
+    }
+
+    @Test
+    @DisplayName("An update by the same author moves the claim within that author's lastUpdated order")
+    void update_sameAuthor_movesWithinAuthorOrder() {
+        insert("CLM-T-01", "ALICE", "2025-01-01T00:00:00Z");
+        insert("CLM-T-02", "ALICE", "2025-01-02T00:00:00Z");
+
+        repository.update("CLM-T-01", current -> current.withStatusEntry(
+                new StatusEntry(Status.IDENTITY_VERIFIED, "2025-01-03T00:00:00Z", "Verified", "ALICE"),
+                current.getEstimatedCompletionDate()));
+
+        assertThat(claimIds(repository.findPageByLastUpdated(
+                null, "ALICE", Long.MIN_VALUE, Long.MAX_VALUE, null, 10)))
+                .containsExactly("CLM-T-02", "CLM-T-01");
+        assertThat(claimIds(repository.findPageByClaimId(null, "ALICE", null, 10)))
+                .containsExactly("CLM-T-01", "CLM-T-02");
+    }
+
+    @Test
+    @DisplayName("An unknown author yields an empty page in both orders")
+    void findPage_unknownActor_isEmpty() {
+        insert("CLM-T-01", "ALICE", "2025-01-01T00:00:00Z");
+
+        assertThat(repository.findPageByClaimId(null, "NOBODY", null, 10)).isEmpty();
+        assertThat(repository.findPageByLastUpdated(null, "NOBODY", Long.MIN_VALUE, Long.MAX_VALUE, null, 10))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Author and status filters combine")
+    void findPage_byActorAndStatus() {
+        insert("CLM-T-01", "ALICE", "2025-01-01T00:00:00Z");
+        insert("CLM-T-02", "ALICE", "2025-01-02T00:00:00Z");
+        repository.update("CLM-T-02", current -> current.withStatusEntry(
+                new StatusEntry(Status.IDENTITY_VERIFIED, "2025-01-03T00:00:00Z", "Verified", "ALICE"),
+                current.getEstimatedCompletionDate()));
+
+        assertThat(claimIds(repository.findPageByClaimId(Status.IDENTITY_VERIFIED, "ALICE", null, 10)))
+                .containsExactly("CLM-T-02");
+        assertThat(claimIds(repository.findPageByLastUpdated(
+                Status.SUBMITTED, "ALICE", Long.MIN_VALUE, Long.MAX_VALUE, null, 10)))
+                .containsExactly("CLM-T-01");
+    }
+
+    private void insert(String claimId, String author, String timestamp) {
+        assertThat(repository.insert(ClaimStatus.initial(claimId, null,
+                new StatusEntry(Status.SUBMITTED, timestamp, "Submitted", author), null))).isTrue();
+    }
+
+    private static List<String> claimIds(List<IndexedClaim> page) {
+        return page.stream().map(indexed -> indexed.claim().getClaimId()).toList();
+    }
+
+    private void assertIndexedAt(ClaimStatus claim) {
+        String claimId = claim.getClaimId();
+        Status status = claim.getCurrentStatus();
+        assertThat(repository.findByCurrentStatus(status))
+                .extracting(ClaimStatus::getClaimId)
+                .contains(claimId);
+        assertThat(repository.findPageByClaimId(status, null, null, 10))
+                .extracting(indexed -> indexed.claim().getClaimId())
+                .contains(claimId);
+        assertThat(repository.findPageByLastUpdated(null, null, Long.MIN_VALUE, Long.MAX_VALUE, null, 10))
+                .extracting(IndexedClaim::key)
+                .contains(PageKey.of(claim));
+    }
+
+    private static UnaryOperator<ClaimStatus> advance(Status status) {
+        return current -> current.withStatusEntry(entry(status, "2025-01-01T00:00:00Z"),
+                current.getEstimatedCompletionDate());
+    }
+
+    private static StatusEntry entry(Status status, String timestamp) {
+        return new StatusEntry(status, timestamp, "Test entry", "TEST_USER");
+    }
+
+    /** Journal without a log whose appends throw, like a log stopped by a flusher failure. */
+    private static final class FailingJournal extends ClaimJournal {
+
+        boolean failing;
+        int failAfter = -1;
+
+        FailingJournal() {
+            super(new JournalProperties(
+                    false, Path.of("unused"), DataSize.ofMegabytes(1), false, Duration.ofMinutes(5)));
+        }
+
+        @Override
+        public CompletableFuture<?> append(ClaimStatus claimStatus, int fromIndex) {
+            checkFailure();
+            return super.append(claimStatus, fromIndex);
+        }
+
+        @Override
+        public void appendUncommitted(ClaimStatus claimStatus, int fromIndex) {
+            checkFailure();
+            super.appendUncommitted(claimStatus, fromIndex);
+        }
+
+        private void checkFailure() {
+            if (failAfter == 0) {
+                failing = true;
+            }
+            if (failAfter > 0) {
+                failAfter--;
+            }
+            if (failing) {
+                throw new UncheckedIOException("Claim journal stopped after a write failure",
+                        new IOException("disk full"));
+            }
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.insurance.tracking.service;
+
+import com.insurance.tracking.analytics.PipelineStatistics;
+import com.insurance.tracking.journal.ClaimJournal;
+import com.insurance.tracking.journal.JournalProperties;
+import com.insurance.tracking.model.BulkStatusUpdatePayload;
+import com.insurance.tracking.model.ClaimFilter;
+import com.insurance.tracking.model.ClaimStatusConnection;
+import com.insurance.tracking.model.ClaimStatusEdge;
+import com.insurance.tracking.model.Status;
+import com.insurance.tracking.model.StatusEntry;
+import com.insurance.tracking.model.StatusUpdateInput;
+import com.insurance.tracking.model.StatusUpdateResult;
+import com.insurance.tracking.repository.ActorDictionary;
+import com.insurance.tracking.repository.ClaimStatusRepository;
+import com.insurance.tracking.transition.StatusTransitions;
+import com.insurance.tracking.transition.TransitionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("ClaimStatusService unit tests")
+class ClaimStatusServiceTest {
+
+    // Seeded by the repository: CLM-2024-001 last updated 2024-03-12, CLM-2024-002 on 2024-03-15
+    private static final String SEEDED_OLDER = "CLM-2024-001";
+    private static final String SEEDED_NEWER = "CLM-2024-002";
+
+    private ClaimStatusService service;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ClaimJournal journal = new ClaimJournal(new JournalProperties(
+                false, Path.of("unused"), DataSize.ofMegabytes(1), false, Duration.ofMinutes(5)));
+        PipelineStatistics pipelineStatistics = new PipelineStatistics();
+        ActorDictionary actors = new ActorDictionary(100);
+        service = new ClaimStatusService(
+                new ClaimStatusRepository(journal, pipelineStatistics, actors),
+                new ClaimStatusPublisher(16, meterRegistry),
+                new StatusTransitions(new TransitionProperties(Map.of(), Map.of()), meterRegistry),
+                pipelineStatistics,
+                actors);
+    }
+
+    // claims: ordered by claim id
+
+    @Test
+    @DisplayName("Paging by claim id visits every claim once, in order, across page boundaries")
+    void claimsById_pagesCoverEveryClaimOnce() {
+        for (int i = 1; i <= 5; i++) {
+            service.initializeClaim("CLM-T-0" + i, null);
+        }
+
+        List<String> seen = new ArrayList<>();
+        String after = null;
+        boolean hasNextPage = true;
+        int pages = 0;
+        while (hasNextPage) {
+            ClaimStatusConnection page = service.getClaims(3, after, null);
+            assertThat(page.pageInfo().hasPreviousPage()).isEqualTo(after != null);
+            page.edges().forEach(edge -> seen.add(edge.node().getClaimId()));
+            hasNextPage = page.pageInfo().hasNextPage();
+            after = page.pageInfo().endCursor();
+            pages++;
+        }
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactly(SEEDED_OLDER, SEEDED_NEWER,
+                "CLM-T-01", "CLM-T-02", "CLM-T-03", "CLM-T-04", "CLM-T-05");
+    }
+
+    @Test
+    @DisplayName("A page exactly as large as the remaining claims has no next page")
+    void claimsById_exactFit_hasNoNextPage() {
+        ClaimStatusConnection page = service.getClaims(2, null, null);
+
+        assertThat(page.edges()).hasSize(2);
+        assertThat(page.pageInfo().hasNextPage()).isFalse();
+        assertThat(page.pageInfo().startCursor()).isEqualTo(page.edges().get(0).cursor());
+        assertThat(page.pageInfo().endCursor()).isEqualTo(page.edges().get(1).cursor());
+    }
+
+    @Test
+    @DisplayName("first: 0 returns no edges and null cursors, but still reports a next page")
+    void claims_firstZero_returnsEmptyPage() {
+        ClaimStatusConnection page = service.getClaims(0, null, null);
+
+        assertThat(page.edges()).isEmpty();
+        assertThat(page.pageInfo().hasNextPage()).isTrue();
+        assertThat(page.pageInfo().startCursor()).isNull();
+        assertThat(page.pageInfo().endCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Negative first is rejected")
+    void claims_negativeFirst_throws() {
+        assertThatThrownBy(() -> service.getClaims(-1, null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("first");
+    }
+
+    @Test
+    @DisplayName("Status and updatedBy filters apply to the latest entry of each claim")
+    void claimsById_filters() {
+        service.initializeClaim("CLM-T-01", null);
+        service.updateClaimStatus("CLM-T-01", Status.IDENTITY_VERIFIED, "Verified", new String("ADJUSTER_MARTIN"));
+
+        assertThat(ids(service.getClaims(10, null, new ClaimFilter(null, null, null, "ADJUSTER_MARTIN"))))
+                .containsExactly(SEEDED_OLDER, "CLM-T-01");
+        assertThat(ids(service.getClaims(10, null, new ClaimFilter(Status.IDENTITY_VERIFIED, null, null, null))))
+                .containsExactly("CLM-T-01");
+        assertThat(ids(service.getClaims(10, null, new ClaimFilter(null, null, null, "NOBODY")))).isEmpty();
+    }
+
+    // claims: ordered by lastUpdated
+
+    @Test
+    @DisplayName("Paging by lastUpdated stays within the filter bounds across page boundaries")
+    void claimsByLastUpdated_pagesWithinBounds() {
+        service.initializeClaim("CLM-T-01", null);
+        ClaimFilter sinceMarch = new ClaimFilter(null, "2024-03-01T00:00:00Z", null, null);
+
+        ClaimStatusConnection first = service.getClaims(1, null, sinceMarch);
+        ClaimStatusConnection second = service.getClaims(1, first.pageInfo().endCursor(), sinceMarch);
+        ClaimStatusConnection third = service.getClaims(1, second.pageInfo().endCursor(), sinceMarch);
+
+        assertThat(ids(first)).containsExactly(SEEDED_OLDER);
+        assertThat(ids(second)).containsExactly(SEEDED_NEWER);
+        assertThat(ids(third)).containsExactly("CLM-T-01");
+        assertThat(third.pageInfo().hasNextPage()).isFalse();
+
+        ClaimFilter march = new ClaimFilter(null, "2024-03-01T00:00:00Z", "2024-04-01T00:00:00Z", null);
+        assertThat(ids(service.getClaims(10, null, march))).containsExactly(SEEDED_OLDER, SEEDED_NEWER);
+    }
+
+    @Test
+    @DisplayName("A cursor before updatedAfter resumes at the bound, not at the cursor")
+    void claimsByLastUpdated_cursorBeforeLowerBound_startsAtBound() {
+        ClaimFilter wide = new ClaimFilter(null, "2024-01-01T00:00:00Z", null, null);
+        String olderCursor = service.getClaims(1, null, wide).pageInfo().endCursor();
+
+        ClaimFilter narrow = new ClaimFilter(null, "2024-03-14T00:00:00Z", null, null);
+        ClaimStatusConnection page = service.getClaims(10, olderCursor, narrow);
+
+        assertThat(ids(page)).containsExactly(SEEDED_NEWER);
+    }
+
+    @Test
+    @DisplayName("A cursor at or past updatedBefore yields an empty last page")
+    void claimsByLastUpdated_cursorPastUpperBound_isEmpty() {
+        ClaimFilter wide = new ClaimFilter(null, "2024-01-01T00:00:00Z", null, null);
+        String newerCursor = edgeOf(service.getClaims(10, null, wide), SEEDED_NEWER).cursor();
+
+        ClaimFilter beforeNewer = new ClaimFilter(null, "2024-01-01T00:00:00Z", "2024-03-13T00:00:00Z", null);
+        ClaimStatusConnection page = service.getClaims(10, newerCursor, beforeNewer);
+
+        assertThat(page.edges()).isEmpty();
+        assertThat(page.pageInfo().hasNextPage()).isFalse();
+    }
+
+    @Test
+    @DisplayName("A claim updated while paging moves behind the cursor and is seen again later")
+    void claimsByLastUpdated_updatedClaimMovesToEnd() {
+        ClaimFilter sinceMarch = new ClaimFilter(null, "2024-03-01T00:00:00Z", null, null);
+        ClaimStatusConnection first = service.getClaims(1, null, sinceMarch);
+        service.updateClaimStatus(SEEDED_OLDER, Status.EXPERT_ASSESSED, "Assessed", "EXPERT");
+
+        ClaimStatusConnection rest = service.getClaims(10, first.pageInfo().endCursor(), sinceMarch);
+
+        assertThat(ids(first)).containsExactly(SEEDED_OLDER);
+        assertThat(ids(rest)).containsExactly(SEEDED_NEWER, SEEDED_OLDER);
+    }
+
+    // claims: malformed cursors
+
+    @Test
+    @DisplayName("Cursors that are not base64, not a position, or issued for the other ordering are rejected")
+    void claims_malformedCursor_throws() {
+        ClaimFilter byLastUpdated = new ClaimFilter(null, "2024-01-01T00:00:00Z", null, null);
+        String claimIdCursor = service.getClaims(1, null, null).pageInfo().endCursor();
+        String lastUpdatedCursor = service.getClaims(1, null, byLastUpdated).pageInfo().endCursor();
+
+        assertThatThrownBy(() -> service.getClaims(1, "not base64!", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+        assertThatThrownBy(() -> service.getClaims(1, cursor("CLM-2024-001"), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+        assertThatThrownBy(() -> service.getClaims(1, claimIdCursor, byLastUpdated))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+        assertThatThrownBy(() -> service.getClaims(1, lastUpdatedCursor, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+        assertThatThrownBy(() -> service.getClaims(1, cursor("lu:yesterday:CLM-2024-001"), byLastUpdated))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+        assertThatThrownBy(() -> service.getClaims(1, cursor("lu:1710234000000"), byLastUpdated))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    @DisplayName("A filter bound that is not an ISO-8601 instant is rejected")
+    void claims_malformedBound_throws() {
+        assertThatThrownBy(() -> service.getClaims(1, null, new ClaimFilter(null, "2024-03-01", null, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("updatedAfter");
+    }
+
+    // bulkUpdateClaimStatus
+
+    @Test
+    @DisplayName("Bulk results follow request order, each with the claim right after its own update")
+    void bulkUpdate_resultsInRequestOrder() {
+        service.initializeClaim("CLM-A", null);
+        service.initializeClaim("CLM-B", null);
+
+        BulkStatusUpdatePayload payload = service.bulkUpdateClaimStatus(List.of(
+                update("CLM-A", Status.IDENTITY_VERIFIED),
+                update("CLM-B", Status.IDENTITY_VERIFIED),
+                update("CLM-A", Status.POLICY_VALIDATED),
+                update("CLM-B", Status.REJECTED)));
+
+        List<StatusUpdateResult> results = payload.results();
+        assertThat(results).extracting(StatusUpdateResult::claimId)
+                .containsExactly("CLM-A", "CLM-B", "CLM-A", "CLM-B");
+        assertThat(results).allMatch(StatusUpdateResult::succeeded);
+        assertThat(results.get(0).claim().getCurrentStatus()).isEqualTo(Status.IDENTITY_VERIFIED);
+        assertThat(results.get(0).claim().getStatusHistory()).hasSize(2);
+        assertThat(results.get(2).claim().getCurrentStatus()).isEqualTo(Status.POLICY_VALIDATED);
+        assertThat(results.get(2).claim().getStatusHistory()).hasSize(3);
+        assertThat(results.get(3).claim().getCurrentStatus()).isEqualTo(Status.REJECTED);
+        assertThat(payload.succeeded()).isEqualTo(4);
+        assertThat(payload.failed()).isZero();
+        assertThat(service.trackClaim("CLM-A").getCurrentStatus()).isEqualTo(Status.POLICY_VALIDATED);
+    }
+
+    @Test
+    @DisplayName("A failed bulk update affects only its own result; later updates of the claim continue")
+    void bulkUpdate_failuresAreIsolated() {
+        service.initializeClaim("CLM-A", null);
+        service.initializeClaim("CLM-B", null);
+
+        BulkStatusUpdatePayload payload = service.bulkUpdateClaimStatus(List.of(
+                update("CLM-A", Status.IDENTITY_VERIFIED),
+                update("CLM-A", Status.COMPLETED),
+                update("CLM-MISSING", Status.IDENTITY_VERIFIED),
+                update("CLM-B", Status.IDENTITY_VERIFIED),
+                update("CLM-A", Status.POLICY_VALIDATED)));
+
+        List<StatusUpdateResult> results = payload.results();
+        assertThat(results).extracting(StatusUpdateResult::succeeded)
+                .containsExactly(true, false, false, true, true);
+        assertThat(results.get(1).claimId()).isEqualTo("CLM-A");
+        assertThat(results.get(1).claim()).isNull();
+        assertThat(results.get(1).error()).contains("Invalid status transition");
+        assertThat(results.get(2).claimId()).isEqualTo("CLM-MISSING");
+        assertThat(results.get(2).error()).contains("Claim not found");
+        assertThat(results.get(4).claim().getStatusHistory()).extracting(StatusEntry::getStatus)
+                .containsExactly(Status.SUBMITTED, Status.IDENTITY_VERIFIED, Status.POLICY_VALIDATED);
+        assertThat(payload.succeeded()).isEqualTo(3);
+        assertThat(payload.failed()).isEqualTo(2);
+        assertThat(service.trackClaim("CLM-MISSING")).isNull();
+        assertThat(service.trackClaim("CLM-B").getCurrentStatus()).isEqualTo(Status.IDENTITY_VERIFIED);
+    }
+
+    @Test
+    @DisplayName("More than MAX_BULK_UPDATES updates are rejected before any is applied")
+    void bulkUpdate_overCap_throws() {
+        service.initializeClaim("CLM-A", null);
+        List<StatusUpdateInput> updates = new ArrayList<>(Collections.nCopies(
+                ClaimStatusService.MAX_BULK_UPDATES, update("CLM-MISSING", Status.IDENTITY_VERIFIED)));
+        updates.add(0, update("CLM-A", Status.IDENTITY_VERIFIED));
+
+        assertThatThrownBy(() -> service.bulkUpdateClaimStatus(updates))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(String.valueOf(ClaimStatusService.MAX_BULK_UPDATES));
+        assertThat(service.trackClaim("CLM-A").getCurrentStatus()).isEqualTo(Status.SUBMITTED);
+    }
+
+    @Test
+    @DisplayName("Exactly MAX_BULK_UPDATES updates are accepted")
+    void bulkUpdate_atCap_isAccepted() {
+        List<StatusUpdateInput> updates = Collections.nCopies(
+                ClaimStatusService.MAX_BULK_UPDATES, update("CLM-MISSING", Status.IDENTITY_VERIFIED));
+
+        BulkStatusUpdatePayload payload = service.bulkUpdateClaimStatus(updates);
+
+        assertThat(payload.results()).hasSize(ClaimStatusService.MAX_BULK_UPDATES);
+        assertThat(payload.failed()).isEqualTo(ClaimStatusService.MAX_BULK_UPDATES);
+    }
+
+    private static StatusUpdateInput update(String claimId, Status status) {
+        return new StatusUpdateInput(claimId, status, status + " via bulk update", "BULK_JOB");
+    }
+
+    private static List<String> ids(ClaimStatusConnection connection) {
+        return connection.edges().stream().map(edge -> edge.node().getClaimId()).toList();
+    }
+
+    private static ClaimStatusEdge edgeOf(ClaimStatusConnection connection, String claimId) {
+        return connection.edges().stream()
+                .filter(edge -> edge.node().getClaimId().equals(claimId))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static String cursor(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+}
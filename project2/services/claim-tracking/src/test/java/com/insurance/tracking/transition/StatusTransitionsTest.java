@@ -0,0 +1,95 @@
+package com.insurance.tracking.transition;
+
+import com.insurance.tracking.model.ClaimStatus;
+import com.insurance.tracking.model.Status;
+import com.insurance.tracking.model.StatusEntry;
+import com.insurance.tracking.model.TransitionCount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("StatusTransitions unit tests")
+class StatusTransitionsTest {
+
+    private StatusTransitions transitions;
+
+    @BeforeEach
+    void setUp() {
+        // Every claim may skip document review after fraud checks; AUTO claims also skip
+        // the expert assessment after document review
+        TransitionProperties properties = new TransitionProperties(
+                Map.of(Status.FRAUD_CHECKED,
+                        EnumSet.of(Status.ELIGIBILITY_CONFIRMED, Status.DOCUMENTS_REVIEWED, Status.REJECTED)),
+                Map.of("auto", Map.of(Status.DOCUMENTS_REVIEWED,
+                        EnumSet.of(Status.COMPENSATION_CALCULATED, Status.REJECTED))));
+        transitions = new StatusTransitions(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Changes for every claim apply to claims with and without a type")
+    void allowedChange_appliesToEveryClaim() {
+        assertThatCode(() -> transitions.check(claim(null, Status.FRAUD_CHECKED), Status.DOCUMENTS_REVIEWED))
+                .doesNotThrowAnyException();
+        assertThatCode(() -> transitions.check(claim("AUTO", Status.FRAUD_CHECKED), Status.DOCUMENTS_REVIEWED))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Claim type changes apply only to claims of that type")
+    void claimTypeChange_appliesToThatTypeOnly() {
+        assertThatCode(() -> transitions.check(claim("AUTO", Status.DOCUMENTS_REVIEWED), Status.COMPENSATION_CALCULATED))
+                .doesNotThrowAnyException();
+        assertThatThrownBy(() -> transitions.check(claim("AUTO", Status.DOCUMENTS_REVIEWED), Status.EXPERT_ASSESSED))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("DOCUMENTS_REVIEWED -> EXPERT_ASSESSED");
+        assertThatThrownBy(() -> transitions.check(claim("HOME", Status.DOCUMENTS_REVIEWED), Status.COMPENSATION_CALCULATED))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> transitions.check(claim(null, Status.DOCUMENTS_REVIEWED), Status.COMPENSATION_CALCULATED))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Claim types are matched case-insensitively")
+    void claimType_isCaseInsensitive() {
+        for (String claimType : new String[] {"AUTO", "auto", "Auto"}) {
+            assertThatCode(() -> transitions.check(claim(claimType, Status.DOCUMENTS_REVIEWED), Status.COMPENSATION_CALCULATED))
+                    .as(claimType)
+                    .doesNotThrowAnyException();
+        }
+    }
+
+    @Test
+    @DisplayName("A rejected transition names the allowed next statuses")
+    void check_rejected_namesAllowedStatuses() {
+        assertThatThrownBy(() -> transitions.check(claim(null, Status.COMPLETED), Status.SUBMITTED))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("CLM-1")
+                .hasMessageContaining("Allowed next statuses: []");
+    }
+
+    @Test
+    @DisplayName("Counts list every edge of any table, including the claim type edges")
+    void counts_coverEveryEdge() {
+        transitions.record(Status.DOCUMENTS_REVIEWED, Status.COMPENSATION_CALCULATED);
+        transitions.record(Status.DOCUMENTS_REVIEWED, Status.COMPENSATION_CALCULATED);
+
+        assertThat(transitions.counts())
+                .contains(new TransitionCount(Status.DOCUMENTS_REVIEWED, Status.COMPENSATION_CALCULATED, 2),
+                        new TransitionCount(Status.DOCUMENTS_REVIEWED, Status.EXPERT_ASSESSED, 0),
+                        new TransitionCount(Status.NOTIFIED, Status.COMPLETED, 0))
+                .noneMatch(count -> count.from() == Status.COMPLETED || count.from() == Status.REJECTED);
+    }
+
+    private static ClaimStatus claim(String claimType, Status currentStatus) {
+        return ClaimStatus.initial("CLM-1", claimType,
+                new StatusEntry(currentStatus, 0L, null, "SYSTEM"), null);
+    }
+}
@@ -0,0 +1,96 @@
+package com.insurance.tracking.transition;
+
+import com.insurance.tracking.model.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("TransitionTable unit tests")
+class TransitionTableTest {
+
+    private final TransitionTable pipeline = TransitionTable.pipeline();
+
+    // Default pipeline
+
+    @Test
+    @DisplayName("Each open status leads to the next one of the pipeline and to REJECTED only")
+    void pipeline_openStatus_leadsToNextAndRejected() {
+        Status[] statuses = Status.values();
+        for (int i = 0; i < Status.COMPLETED.ordinal(); i++) {
+            assertThat(pipeline.allowedAfter(statuses[i]))
+                    .as(statuses[i].name())
+                    .containsExactlyInAnyOrder(statuses[i + 1], Status.REJECTED);
+        }
+    }
+
+    @Test
+    @DisplayName("NOTIFIED leads to COMPLETED")
+    void pipeline_notified_leadsToCompleted() {
+        assertThat(pipeline.isAllowed(Status.NOTIFIED, Status.COMPLETED)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Statuses cannot be skipped, repeated or moved backwards")
+    void pipeline_disallowsSkipsRepeatsAndReversals() {
+        assertThat(pipeline.isAllowed(Status.SUBMITTED, Status.POLICY_VALIDATED)).isFalse();
+        assertThat(pipeline.isAllowed(Status.FRAUD_CHECKED, Status.FRAUD_CHECKED)).isFalse();
+        assertThat(pipeline.isAllowed(Status.FRAUD_CHECKED, Status.POLICY_VALIDATED)).isFalse();
+        assertThat(pipeline.isAllowed(Status.SUBMITTED, Status.COMPLETED)).isFalse();
+    }
+
+    @Test
+    @DisplayName("COMPLETED and REJECTED are final")
+    void pipeline_completedAndRejected_areFinal() {
+        assertThat(pipeline.allowedAfter(Status.COMPLETED)).isEmpty();
+        assertThat(pipeline.allowedAfter(Status.REJECTED)).isEmpty();
+        for (Status to : Status.values()) {
+            assertThat(pipeline.isAllowed(Status.COMPLETED, to)).isFalse();
+            assertThat(pipeline.isAllowed(Status.REJECTED, to)).isFalse();
+        }
+    }
+
+    // Changes
+
+    @Test
+    @DisplayName("A change replaces the next statuses of its status and leaves the others untouched")
+    void with_replacesOnlyChangedStatuses() {
+        TransitionTable changed = pipeline.with(Map.of(
+                Status.ELIGIBILITY_CONFIRMED, EnumSet.of(Status.EXPERT_ASSESSED, Status.REJECTED)));
+
+        assertThat(changed.allowedAfter(Status.ELIGIBILITY_CONFIRMED))
+                .containsExactlyInAnyOrder(Status.EXPERT_ASSESSED, Status.REJECTED);
+        assertThat(changed.isAllowed(Status.ELIGIBILITY_CONFIRMED, Status.DOCUMENTS_REVIEWED)).isFalse();
+        assertThat(changed.allowedAfter(Status.FRAUD_CHECKED))
+                .containsExactlyInAnyOrder(Status.ELIGIBILITY_CONFIRMED, Status.REJECTED);
+    }
+
+    @Test
+    @DisplayName("An empty change makes the status final")
+    void with_emptyChange_makesStatusFinal() {
+        TransitionTable changed = pipeline.with(Map.of(Status.PAYMENT_AUTHORIZED, Set.of()));
+
+        assertThat(changed.allowedAfter(Status.PAYMENT_AUTHORIZED)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Changes return a copy; the original table is unchanged")
+    void with_leavesOriginalUnchanged() {
+        pipeline.with(Map.of(Status.SUBMITTED, Set.of(Status.REJECTED)));
+
+        assertThat(pipeline.allowedAfter(Status.SUBMITTED))
+                .containsExactlyInAnyOrder(Status.IDENTITY_VERIFIED, Status.REJECTED);
+    }
+
+    @Test
+    @DisplayName("allowedAfter is an unmodifiable view")
+    void allowedAfter_isUnmodifiable() {
+        assertThatThrownBy(() -> pipeline.allowedAfter(Status.SUBMITTED).add(Status.COMPLETED))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -2,9 +2,11 @@ package com.insurance.document;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 // GraphQL service — GraphiQL available at http://localhost:8085/graphiql
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class DocumentReviewApplication {
 
     public static void main(String[] args) {
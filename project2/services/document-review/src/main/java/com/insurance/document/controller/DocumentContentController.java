@@ -0,0 +1,203 @@
+package com.insurance.document.controller;
+
+import com.insurance.document.model.Document;
+import com.insurance.document.service.DocumentService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Uploads and downloads the file of a submitted document. Uploads stream the bytes into
+ * the content store; the GraphQL API then reports the document's content hash and size.
+ *
+ * Downloads never pass the file through the heap. Where the connector supports it the
+ * file is handed to Tomcat's sendfile, which transfers it straight from the page cache
+ * to the socket; otherwise it is copied with {@link FileChannel#transferTo}. The content
+ * hash is a strong ETag, so a client revalidating with If-None-Match gets a 304 without
+ * any of the file, and a single byte range can be requested with Range.
+ */
+@RestController
+@RequestMapping("/documents/{id}/content")
+public class DocumentContentController {
+
+    // Tomcat request attributes that make the connector send a file region itself
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final long TRANSFER_CHUNK_BYTES = 1 << 20;
+
+    private final DocumentService documentService;
+
+    public DocumentContentController(DocumentService documentService) {
+        this.documentService = documentService;
+    }
+
+    /** The request body is the file; its Content-Type is recorded with it. */
+    @PutMapping
+    public ResponseEntity<Document> upload(@PathVariable String id, HttpServletRequest request) throws IOException {
+        if (documentService.getDocument(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try (InputStream body = request.getInputStream()) {
+            return ResponseEntity.ok(documentService.uploadContent(
+                    id, Channels.newChannel(body), contentType(request.getContentType())));
+        }
+    }
+
+    /** multipart/form-data with the file in a part named {@code file}. */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Document> uploadMultipart(@PathVariable String id,
+                                                    @RequestParam("file") MultipartFile file) throws IOException {
+        if (documentService.getDocument(id) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try (InputStream body = file.getInputStream()) {
+            return ResponseEntity.ok(documentService.uploadContent(
+                    id, Channels.newChannel(body), contentType(file.getContentType())));
+        }
+    }
+
+    /**
+     * Serves the document's content: 200 with the whole file, 206 with one requested byte
+     * range, 304 if the client's copy is current, or 404 if no content was uploaded.
+     * Multiple ranges are answered with the whole file.
+     */
+    @GetMapping
+    public void download(@PathVariable String id,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Document document = documentService.getDocument(id);
+        Optional<Path> stored = document != null ? documentService.findContent(document) : Optional.empty();
+        if (stored.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Path file = stored.get();
+        long length = Files.size(file);
+        String etag = '"' + document.getContentSha256() + '"';
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        // Content may be replaced by a new upload, so clients revalidate every view
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentType(document.getContentType() != null
+                ? document.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        if (document.getFileName() != null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                    .filename(document.getFileName(), StandardCharsets.UTF_8).build().toString());
+        }
+
+        long start = 0;
+        long end = length;
+        HttpRange range = requestedRange(request, etag);
+        if (range != null) {
+            if (!isSatisfiable(range, length)) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            start = range.getRangeStart(length);
+            end = range.getRangeEnd(length) + 1;
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+        }
+        response.setContentLengthLong(end - start);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        send(file, start, end, request, response);
+    }
+
+    private static void send(Path file, long start, long end,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += in.transferTo(position, Math.min(TRANSFER_CHUNK_BYTES, end - position), out);
+            }
+        }
+    }
+
+    // The single byte range requested, or null to send the whole file: when there is no
+    // Range header, a malformed or multi-range one, or an If-Range that is not current
+    private static HttpRange requestedRange(HttpServletRequest request, String etag) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.trim().equals(etag)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isSatisfiable(HttpRange range, long length) {
+        try {
+            return length > 0 && range.getRangeStart(length) <= range.getRangeEnd(length);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // If-None-Match compares weakly: W/"x" matches "x"
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String contentType(String declared) {
+        return declared != null ? declared : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+}
@@ -1,23 +1,38 @@
 package com.insurance.document.controller;
 
+import com.insurance.document.model.ClaimDocuments;
 import com.insurance.document.model.Document;
 import com.insurance.document.model.DocumentStatus;
 import com.insurance.document.model.DocumentType;
 import com.insurance.document.service.DocumentService;
+import org.dataloader.DataLoader;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
 import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Controller
 public class DocumentController {
 
+    // Collects every claim id looked up while one GraphQL operation executes, so all of
+    // them are answered by a single repository call
+    private static final String DOCUMENTS_BY_CLAIM_ID = "documentsByClaimId";
+
     private final DocumentService documentService;
 
-    public DocumentController(DocumentService documentService) {
+    public DocumentController(DocumentService documentService, BatchLoaderRegistry batchLoaderRegistry) {
         this.documentService = documentService;
+        batchLoaderRegistry.<String, List<Document>>forName(DOCUMENTS_BY_CLAIM_ID)
+            .registerMappedBatchLoader((claimIds, environment) ->
+                Mono.just(documentService.getDocumentsByClaimIds(claimIds)));
     }
 
     // Queries
@@ -28,8 +43,29 @@ public class DocumentController {
     }
 
     @QueryMapping
-    public List<Document> getDocumentsByClaimId(@Argument String claimId) {
-        return documentService.getDocumentsByClaimId(claimId);
+    public CompletableFuture<List<Document>> getDocumentsByClaimId(
+            @Argument String claimId,
+            DataLoader<String, List<Document>> documentsByClaimId) {
+        return documentsByClaimId.load(claimId);
+    }
+
+    @QueryMapping
+    public CompletableFuture<List<ClaimDocuments>> getDocumentsByClaimIds(
+            @Argument List<String> claimIds,
+            DataLoader<String, List<Document>> documentsByClaimId) {
+        Set<String> distinct = new LinkedHashSet<>(claimIds);
+        if (distinct.size() > DocumentService.MAX_BATCH_CLAIM_IDS) {
+            throw new IllegalArgumentException(
+                "At most " + DocumentService.MAX_BATCH_CLAIM_IDS + " claim ids per query, got " + distinct.size());
+        }
+        List<String> ids = new ArrayList<>(distinct);
+        return documentsByClaimId.loadMany(ids).thenApply(documents -> {
+            List<ClaimDocuments> grouped = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                grouped.add(new ClaimDocuments(ids.get(i), documents.get(i)));
+            }
+            return grouped;
+        });
     }
 
     @QueryMapping
@@ -47,6 +83,11 @@ public class DocumentController {
         return documentService.submitDocument(claimId, documentType, fileName);
     }
 
+    @MutationMapping
+    public Document validateDocument(@Argument String id) {
+        return documentService.validateDocument(id);
+    }
+
     @MutationMapping
     public Document reviewDocument(
             @Argument String id,
@@ -0,0 +1,7 @@
+package com.insurance.document.model;
+
+import java.util.List;
+
+/** The documents of one claim, in submission order. */
+public record ClaimDocuments(String claimId, List<Document> documents) {
+}
@@ -1,5 +1,7 @@
 package com.insurance.document.model;
 
+import java.util.List;
+
 public class Document {
 
     private String id;
@@ -11,6 +13,13 @@ public class Document {
     // null until an adjuster reviews the document
     private String reviewedAt;
     private boolean valid;
+    // null until content is uploaded
+    private String contentSha256;
+    private Long contentSize;
+    private String contentType;
+    // null until content is uploaded
+    private ValidationStatus validationStatus;
+    private List<String> validationErrors = List.of();
 
     public Document() {
     }
@@ -33,6 +42,17 @@ public class Document {
         this.valid = valid;
     }
 
+    /** Copies every field of the document. */
+    public Document(Document other) {
+        this(other.id, other.claimId, other.documentType, other.fileName,
+             other.status, other.reviewNotes, other.reviewedAt, other.valid);
+        this.contentSha256 = other.contentSha256;
+        this.contentSize = other.contentSize;
+        this.contentType = other.contentType;
+        this.validationStatus = other.validationStatus;
+        this.validationErrors = other.validationErrors;
+    }
+
     public String getId() {
         return id;
     }
@@ -97,6 +117,50 @@ public class Document {
         this.valid = valid;
     }
 
+    /** Hex SHA-256 of the uploaded content, its key in the content store. */
+    public String getContentSha256() {
+        return contentSha256;
+    }
+
+    public void setContentSha256(String contentSha256) {
+        this.contentSha256 = contentSha256;
+    }
+
+    /** Size of the uploaded content in bytes. */
+    public Long getContentSize() {
+        return contentSize;
+    }
+
+    public void setContentSize(Long contentSize) {
+        this.contentSize = contentSize;
+    }
+
+    /** Media type given with the upload. */
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public ValidationStatus getValidationStatus() {
+        return validationStatus;
+    }
+
+    public void setValidationStatus(ValidationStatus validationStatus) {
+        this.validationStatus = validationStatus;
+    }
+
+    /** Why the uploaded content failed validation; empty unless it did. */
+    public List<String> getValidationErrors() {
+        return validationErrors;
+    }
+
+    public void setValidationErrors(List<String> validationErrors) {
+        this.validationErrors = List.copyOf(validationErrors);
+    }
+
     @Override
     public String toString() {
         return "Document{" +
@@ -106,6 +170,7 @@ public class Document {
                ", fileName='" + fileName + '\'' +
                ", status=" + status +
                ", valid=" + valid +
+               ", contentSha256='" + contentSha256 + '\'' +
                '}';
     }
 }
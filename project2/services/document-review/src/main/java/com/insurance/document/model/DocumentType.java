@@ -1,6 +1,7 @@
 package com.insurance.document.model;
 
-// POLICE_REPORT and MEDICAL_RECORD are auto-validated on submission; others need manual review
+// POLICE_REPORT and MEDICAL_RECORD become valid once their uploaded content passes validation;
+// others need manual review
 public enum DocumentType {
     POLICE_REPORT,
     MEDICAL_RECORD,
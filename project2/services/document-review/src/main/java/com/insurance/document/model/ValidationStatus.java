@@ -0,0 +1,10 @@
+package com.insurance.document.model;
+
+// Automatic checks of a document's uploaded content; see DocumentValidator
+public enum ValidationStatus {
+    QUEUED,
+    PASSED,
+    FAILED,
+    // The checks could not be completed, even after retries
+    ERROR
+}
@@ -6,17 +6,52 @@ import com.insurance.document.model.DocumentType;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.UnaryOperator;
 
+/**
+ * In-memory documents, indexed by claim, by content hash and by pending review so that
+ * these lookups cost in proportion to their result rather than to the whole store.
+ *
+ * A stored document is never modified: {@link #update} changes a copy and stores it in
+ * place of the original, so readers never see a half-applied change, and a document
+ * reaches other threads through the concurrent store map, which publishes it safely.
+ * The indexes are updated in {@link #save} from what was last indexed for the document.
+ * Writes are serialized, so the check and the change of an update are atomic with
+ * respect to every other write; reads go through concurrent maps and immutable
+ * per-claim lists and never block.
+ */
 @Repository
 public class DocumentRepository {
 
     private final Map<String, Document> store = new ConcurrentHashMap<>();
 
+    // Ids of each claim's documents, in submission order; replaced, never modified
+    private final Map<String, List<String>> idsByClaim = new ConcurrentHashMap<>();
+
+    // Ids of the documents whose uploaded content has each SHA-256, likewise
+    private final Map<String, List<String>> idsByContent = new ConcurrentHashMap<>();
+
+    // Ids of documents pending review, keyed by the order in which they became pending
+    private final NavigableMap<Long, String> pendingQueue = new ConcurrentSkipListMap<>();
+
+    // What each document is indexed under; only accessed inside save
+    private final Map<String, Indexed> indexed = new HashMap<>();
+    private long pendingSequence;
+
+    // pendingKey is null when the document is not in the pending queue
+    private record Indexed(String claimId, String contentSha256, Long pendingKey) {
+    }
+
     public DocumentRepository() {
         seedSampleData();
     }
@@ -55,33 +90,131 @@ public class DocumentRepository {
             true
         );
 
-        store.put(doc1.getId(), doc1);
-        store.put(doc2.getId(), doc2);
-        store.put(doc3.getId(), doc3);
+        save(doc1);
+        save(doc2);
+        save(doc3);
     }
 
     public Optional<Document> findById(String id) {
         return Optional.ofNullable(store.get(id));
     }
 
+    /** Documents of the claim, in submission order. */
     public List<Document> findByClaimId(String claimId) {
-        return store.values().stream()
-            .filter(doc -> claimId.equals(doc.getClaimId()))
-            .collect(Collectors.toList());
+        return resolve(idsByClaim.getOrDefault(claimId, List.of()));
+    }
+
+    /**
+     * Documents of each claim, in submission order, in one pass over the claim index.
+     *
+     * @return every given claim id, in iteration order, mapped to its documents
+     */
+    public Map<String, List<Document>> findByClaimIds(Collection<String> claimIds) {
+        Map<String, List<Document>> documents = new LinkedHashMap<>();
+        for (String claimId : claimIds) {
+            documents.computeIfAbsent(claimId, id -> resolve(idsByClaim.getOrDefault(id, List.of())));
+        }
+        return documents;
+    }
+
+    /** Documents whose uploaded content has this SHA-256, in upload order. */
+    public List<Document> findByContentSha256(String contentSha256) {
+        return resolve(idsByContent.getOrDefault(contentSha256, List.of()));
     }
 
+    /**
+     * Documents pending review, oldest first: in the order they were submitted or last
+     * sent back to pending review.
+     */
     public List<Document> findPending() {
-        return store.values().stream()
-            .filter(doc -> DocumentStatus.PENDING_REVIEW.equals(doc.getStatus()))
-            .collect(Collectors.toList());
+        List<Document> documents = new ArrayList<>();
+        for (String id : pendingQueue.values()) {
+            Document document = store.get(id);
+            // Skips a document being reviewed whose new status is not saved yet
+            if (document != null && DocumentStatus.PENDING_REVIEW.equals(document.getStatus())) {
+                documents.add(document);
+            }
+        }
+        return documents;
     }
 
     public List<Document> findAll() {
         return new ArrayList<>(store.values());
     }
 
+    /**
+     * Replaces the document with a changed copy, atomically with respect to other writes.
+     * The mutation receives a copy of the stored document; it returns the copy, usually
+     * changed, or null to leave the stored document as it is. An exception thrown by the
+     * mutation leaves the stored document as it is.
+     *
+     * @return the document stored after the call, or empty if no document has this id
+     */
+    public synchronized Optional<Document> update(String id, UnaryOperator<Document> mutation) {
+        Document current = store.get(id);
+        if (current == null) {
+            return Optional.empty();
+        }
+        Document updated = mutation.apply(new Document(current));
+        return Optional.of(updated != null ? save(updated) : current);
+    }
+
+    /** Stores a new document, or one replacing the stored document with the same id. */
     public synchronized Document save(Document document) {
-        store.put(document.getId(), document);
+        String id = document.getId();
+        Indexed previous = indexed.get(id);
+        store.put(id, document);
+
+        String claimId = document.getClaimId();
+        reindex(idsByClaim, previous != null ? previous.claimId() : null, claimId, id);
+        String contentSha256 = document.getContentSha256();
+        reindex(idsByContent, previous != null ? previous.contentSha256() : null, contentSha256, id);
+
+        boolean pending = DocumentStatus.PENDING_REVIEW.equals(document.getStatus());
+        Long pendingKey = previous != null ? previous.pendingKey() : null;
+        if (pending && pendingKey == null) {
+            pendingKey = ++pendingSequence;
+            pendingQueue.put(pendingKey, id);
+        } else if (!pending && pendingKey != null) {
+            pendingQueue.remove(pendingKey);
+            pendingKey = null;
+        }
+
+        indexed.put(id, new Indexed(claimId, contentSha256, pendingKey));
         return document;
     }
+
+    private List<Document> resolve(List<String> ids) {
+        List<Document> documents = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Document document = store.get(id);
+            if (document != null) {
+                documents.add(document);
+            }
+        }
+        return documents;
+    }
+
+    // Moves the id from the list under the previous key to the list under the new one
+    private static void reindex(Map<String, List<String>> index, String previousKey, String key, String id) {
+        if (Objects.equals(previousKey, key)) {
+            return;
+        }
+        if (previousKey != null) {
+            List<String> remaining = index.getOrDefault(previousKey, List.of()).stream()
+                .filter(existing -> !existing.equals(id))
+                .toList();
+            if (remaining.isEmpty()) {
+                index.remove(previousKey);
+            } else {
+                index.put(previousKey, remaining);
+            }
+        }
+        if (key != null) {
+            List<String> ids = index.getOrDefault(key, List.of());
+            String[] added = ids.toArray(new String[ids.size() + 1]);
+            added[ids.size()] = id;
+            index.put(key, List.of(added));
+        }
+    }
 }
@@ -4,20 +4,36 @@ import com.insurance.document.model.Document;
 import com.insurance.document.model.DocumentStatus;
 import com.insurance.document.model.DocumentType;
 import com.insurance.document.repository.DocumentRepository;
+import com.insurance.document.storage.ContentStore;
+import com.insurance.document.storage.StoredContent;
+import com.insurance.document.validation.ValidationPipeline;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class DocumentService {
 
+    public static final int MAX_BATCH_CLAIM_IDS = 500;
+
     private final DocumentRepository documentRepository;
+    private final ContentStore contentStore;
+    private final ValidationPipeline validationPipeline;
 
-    public DocumentService(DocumentRepository documentRepository) {
+    public DocumentService(DocumentRepository documentRepository,
+                           ContentStore contentStore,
+                           ValidationPipeline validationPipeline) {
         this.documentRepository = documentRepository;
+        this.contentStore = contentStore;
+        this.validationPipeline = validationPipeline;
     }
 
     public Document getDocument(String id) {
@@ -28,14 +44,17 @@ public class DocumentService {
         return documentRepository.findByClaimId(claimId);
     }
 
+    /** @return every given claim id mapped to its documents, in submission order */
+    public Map<String, List<Document>> getDocumentsByClaimIds(Collection<String> claimIds) {
+        return documentRepository.findByClaimIds(claimIds);
+    }
+
     public List<Document> getPendingDocuments() {
         return documentRepository.findPending();
     }
 
     public Document submitDocument(String claimId, DocumentType documentType, String fileName) {
-        // POLICE_REPORT and MEDICAL_RECORD are pre-validated; others require adjuster review
-        boolean autoValid = isAutoValidated(documentType);
-
+        // Not valid until its content is uploaded and validated, or an adjuster approves it
         Document document = new Document(
             UUID.randomUUID().toString(),
             claimId,
@@ -44,29 +63,64 @@ public class DocumentService {
             DocumentStatus.PENDING_REVIEW,
             null,
             null,
-            autoValid
+            false
         );
 
         return documentRepository.save(document);
     }
 
     public Document reviewDocument(String id, DocumentStatus status, String reviewNotes) {
-        Document document = documentRepository.findById(id)
+        return documentRepository.update(id, document -> {
+                document.setStatus(status);
+                document.setReviewNotes(reviewNotes);
+                document.setReviewedAt(Instant.now().toString());
+
+                // A document is considered valid only when explicitly approved
+                document.setValid(DocumentStatus.APPROVED.equals(status));
+                return document;
+            })
             .orElseThrow(() -> new IllegalArgumentException(
                 "Document not found with id: " + id));
+    }
 
-        document.setStatus(status);
-        document.setReviewNotes(reviewNotes);
-        document.setReviewedAt(Instant.now().toString());
-
-        // A document is considered valid only when explicitly approved
-        document.setValid(DocumentStatus.APPROVED.equals(status));
+    /**
+     * Streams the content into the content store, links it to the document, replacing
+     * any content uploaded before, and queues it for validation. The document goes back
+     * to pending review whatever its status, so new content of an approved or rejected
+     * document is reviewed again rather than keeping a decision made on other content.
+     *
+     * @param contentType media type given with the upload, or null if unknown
+     */
+    public Document uploadContent(String id, ReadableByteChannel content, String contentType) throws IOException {
+        if (documentRepository.findById(id).isEmpty()) {
+            throw new IllegalArgumentException("Document not found with id: " + id);
+        }
+
+        StoredContent stored = contentStore.store(content);
+        return validationPipeline.submit(id, document -> {
+                document.setContentSha256(stored.sha256());
+                document.setContentSize(stored.size());
+                document.setContentType(contentType);
+                document.setValid(false);
+                document.setStatus(DocumentStatus.PENDING_REVIEW);
+            })
+            .orElseThrow(() -> new IllegalArgumentException(
+                "Document not found with id: " + id));
+    }
 
-        return documentRepository.save(document);
+    /** Queues the document's uploaded content for validation again. */
+    public Document validateDocument(String id) {
+        return validationPipeline.submit(id, document -> {
+                if (document.getContentSha256() == null) {
+                    throw new IllegalArgumentException("Document " + id + " has no uploaded content to validate");
+                }
+            })
+            .orElseThrow(() -> new IllegalArgumentException(
+                "Document not found with id: " + id));
     }
 
-    private boolean isAutoValidated(DocumentType documentType) {
-        return documentType == DocumentType.POLICE_REPORT
-            || documentType == DocumentType.MEDICAL_RECORD;
+    /** Returns the file holding the document's uploaded content, if there is one. */
+    public Optional<Path> findContent(Document document) {
+        return contentStore.find(document.getContentSha256());
     }
 }
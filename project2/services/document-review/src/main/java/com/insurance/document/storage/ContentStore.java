@@ -0,0 +1,186 @@
+package com.insurance.document.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Local content-addressed store of document files, keyed by the SHA-256 of their bytes.
+ *
+ * Content lives at {@code <directory>/ab/cd/abcd…}, two levels of directories named
+ * after the first bytes of the hash, so no directory grows too large to list. An upload
+ * is streamed into a temporary file with {@link FileChannel#transferFrom}, hashed as it
+ * passes, forced to disk and then renamed to its hash: identical uploads are stored once,
+ * and a crash mid-upload leaves only a temporary file, removed on the next start-up.
+ * Memory use is a fixed transfer buffer whatever the size of the file.
+ */
+@Component
+public class ContentStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentStore.class);
+
+    private static final String TEMPORARY_DIRECTORY = "tmp";
+    private static final long TRANSFER_CHUNK_BYTES = 1 << 20;
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Path directory;
+    private final Path temporaryDirectory;
+    private final long maxFileBytes;
+
+    public ContentStore(StorageProperties properties) {
+        this.directory = properties.directory();
+        this.temporaryDirectory = directory.resolve(TEMPORARY_DIRECTORY);
+        this.maxFileBytes = properties.maxFileSize().toBytes();
+        try {
+            Files.createDirectories(temporaryDirectory);
+            deleteLeftoverUploads();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open document content store at " + directory.toAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Reads the channel to its end and stores the bytes, unless identical content is
+     * already stored.
+     *
+     * @throws ContentTooLargeException if the content exceeds the maximum file size
+     */
+    public StoredContent store(ReadableByteChannel content) throws IOException {
+        Path upload = temporaryDirectory.resolve(UUID.randomUUID() + ".upload");
+        try {
+            HashingChannel source = new HashingChannel(content, maxFileBytes);
+            try (FileChannel out = FileChannel.open(upload, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                long position = 0;
+                while (!source.isAtEnd()) {
+                    position += out.transferFrom(source, position, TRANSFER_CHUNK_BYTES);
+                }
+                out.force(true);
+            }
+
+            StoredContent stored = new StoredContent(HEX.formatHex(source.digest()), source.size());
+            Path target = path(stored.sha256());
+            if (Files.exists(target)) {
+                return stored;
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Stored by a concurrent identical upload
+                return stored;
+            }
+            syncDirectory(target.getParent());
+            return stored;
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    /** Returns the file holding the content with this hash, if it is stored. */
+    public Optional<Path> find(String sha256) {
+        if (sha256 == null || !SHA256_HEX.matcher(sha256).matches()) {
+            return Optional.empty();
+        }
+        Path file = path(sha256);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    private Path path(String sha256) {
+        return directory.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private void deleteLeftoverUploads() throws IOException {
+        try (Stream<Path> files = Files.list(temporaryDirectory)) {
+            for (Path leftover : files.toList()) {
+                log.info("Deleting incomplete upload {}", leftover.getFileName());
+                Files.deleteIfExists(leftover);
+            }
+        }
+    }
+
+    // Makes the rename durable, where supported
+    private static void syncDirectory(Path directory) {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform; the file contents are forced regardless
+        }
+    }
+
+    /** Passes bytes through while hashing and counting them, up to a maximum. */
+    private static final class HashingChannel implements ReadableByteChannel {
+
+        private final ReadableByteChannel delegate;
+        private final long maxBytes;
+        private final MessageDigest digest;
+        private long size;
+        private boolean atEnd;
+
+        HashingChannel(ReadableByteChannel delegate, long maxBytes) {
+            this.delegate = delegate;
+            this.maxBytes = maxBytes;
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            int start = dst.position();
+            int read = delegate.read(dst);
+            if (read < 0) {
+                atEnd = true;
+                return read;
+            }
+            size += read;
+            if (size > maxBytes) {
+                throw new ContentTooLargeException(maxBytes);
+            }
+            digest.update(dst.duplicate().limit(dst.position()).position(start));
+            return read;
+        }
+
+        boolean isAtEnd() {
+            return atEnd;
+        }
+
+        long size() {
+            return size;
+        }
+
+        byte[] digest() {
+            return digest.digest();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
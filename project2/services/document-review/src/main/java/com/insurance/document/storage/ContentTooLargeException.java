@@ -0,0 +1,11 @@
+package com.insurance.document.storage;
+
+import java.io.IOException;
+
+/** An upload exceeded {@link StorageProperties#maxFileSize()}; nothing was stored. */
+public class ContentTooLargeException extends IOException {
+
+    public ContentTooLargeException(long maxBytes) {
+        super("Document content exceeds the maximum size of " + maxBytes + " bytes");
+    }
+}
@@ -0,0 +1,18 @@
+package com.insurance.document.storage;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of the document content store ({@code document-review.storage.*}).
+ *
+ * @param directory   root of the content-addressed store
+ * @param maxFileSize largest accepted upload
+ */
+@ConfigurationProperties("document-review.storage")
+public record StorageProperties(@DefaultValue("data/content") Path directory,
+                                @DefaultValue("100MB") DataSize maxFileSize) {
+}
@@ -0,0 +1,10 @@
+package com.insurance.document.storage;
+
+/**
+ * Content held by the {@link ContentStore}.
+ *
+ * @param sha256 lower-case hex SHA-256 of the bytes, which is also their key in the store
+ * @param size   length in bytes
+ */
+public record StoredContent(String sha256, long size) {
+}
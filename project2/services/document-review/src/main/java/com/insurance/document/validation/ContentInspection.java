@@ -0,0 +1,19 @@
+package com.insurance.document.validation;
+
+/**
+ * What one read of a stored file found.
+ *
+ * @param mediaType detected from the leading bytes, or null if not a supported format
+ * @param pages     page objects found in a PDF; 0 for other formats, and for PDFs whose
+ *                  page tree is inside compressed object streams
+ * @param sha256    hex SHA-256 of the bytes read
+ * @param size      bytes read
+ */
+record ContentInspection(String mediaType, int pages, String sha256, long size) {
+
+    static final String PDF = "application/pdf";
+    static final String JPEG = "image/jpeg";
+    static final String PNG = "image/png";
+    static final String TIFF = "image/tiff";
+    static final String HEIC = "image/heic";
+}
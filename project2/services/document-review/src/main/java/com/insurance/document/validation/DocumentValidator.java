@@ -0,0 +1,243 @@
+package com.insurance.document.validation;
+
+import com.insurance.document.model.Document;
+import com.insurance.document.model.DocumentType;
+import com.insurance.document.repository.DocumentRepository;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks a document's uploaded content: its format, detected from the leading bytes and
+ * allowed for the document type; its page count, for PDFs; its integrity against the
+ * hash it was stored under; its size; and that no other claim submitted the same file.
+ * The file is read once, in fixed-size chunks.
+ */
+@Component
+public class DocumentValidator {
+
+    private static final int READ_BUFFER_BYTES = 1 << 16;
+    private static final int HEADER_BYTES = 12;
+    private static final HexFormat HEX = HexFormat.of();
+
+    // Photos must be images; other documents may be PDFs or scans
+    private static final Set<String> PHOTO_TYPES = Set.of(
+            ContentInspection.JPEG, ContentInspection.PNG, ContentInspection.HEIC, ContentInspection.TIFF);
+    private static final Set<String> DOCUMENT_TYPES = Set.of(
+            ContentInspection.PDF, ContentInspection.JPEG, ContentInspection.PNG, ContentInspection.TIFF);
+
+    private final DocumentRepository documentRepository;
+    private final long minFileBytes;
+    private final int maxPages;
+
+    public DocumentValidator(DocumentRepository documentRepository, ValidationProperties properties) {
+        this.documentRepository = documentRepository;
+        this.minFileBytes = properties.minFileSize().toBytes();
+        this.maxPages = properties.maxPages();
+    }
+
+    /**
+     * @param file the stored content of the document
+     * @return why the content is not acceptable; empty if it passed every check
+     * @throws IOException if the file cannot be read, which may be transient
+     */
+    public List<String> validate(Document document, Path file) throws IOException {
+        ContentInspection inspection = inspect(file);
+        List<String> errors = new ArrayList<>();
+
+        if (!inspection.sha256().equals(document.getContentSha256())) {
+            errors.add("Stored content does not match its SHA-256; upload it again");
+        }
+        if (inspection.size() < minFileBytes) {
+            errors.add("File is " + inspection.size() + " bytes, below the minimum of " + minFileBytes);
+        }
+
+        String mediaType = inspection.mediaType();
+        Set<String> allowed = document.getDocumentType() == DocumentType.PHOTO_EVIDENCE ? PHOTO_TYPES : DOCUMENT_TYPES;
+        if (mediaType == null) {
+            errors.add("Unrecognized file format; expected one of " + allowed);
+        } else if (!allowed.contains(mediaType)) {
+            errors.add(mediaType + " is not accepted for " + document.getDocumentType() + "; expected one of " + allowed);
+        }
+        String declared = document.getContentType();
+        if (mediaType != null && declared != null && !isGeneric(declared) && !declared.startsWith(mediaType)) {
+            errors.add("Uploaded as " + declared + " but the content is " + mediaType);
+        }
+        if (inspection.pages() > maxPages) {
+            errors.add("PDF has " + inspection.pages() + " pages, above the maximum of " + maxPages);
+        }
+
+        for (Document other : documentRepository.findByContentSha256(document.getContentSha256())) {
+            if (!other.getId().equals(document.getId()) && !other.getClaimId().equals(document.getClaimId())) {
+                errors.add("Same file already submitted for claim " + other.getClaimId()
+                        + " as document " + other.getId());
+            }
+        }
+        return errors;
+    }
+
+    private static boolean isGeneric(String contentType) {
+        return contentType.startsWith(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+    }
+
+    /** Reads the whole file once: detects its format, hashes it and counts PDF pages. */
+    static ContentInspection inspect(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            // Positional reads leave the channel at 0 for the full read below
+            while (header.hasRemaining()) {
+                if (in.read(header, header.position()) <= 0) {
+                    break;
+                }
+            }
+            String mediaType = detect(header.flip());
+
+            PageCounter pages = ContentInspection.PDF.equals(mediaType) ? new PageCounter() : null;
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+            long size = 0;
+            int read;
+            while ((read = in.read(buffer.clear())) > 0) {
+                size += read;
+                digest.update(buffer.array(), 0, read);
+                if (pages != null) {
+                    pages.accept(buffer.array(), read);
+                }
+            }
+            return new ContentInspection(mediaType, pages != null ? pages.count() : 0,
+                    HEX.formatHex(digest.digest()), size);
+        }
+    }
+
+    // Leading "magic" bytes of each supported format
+    private static String detect(ByteBuffer header) {
+        if (startsWith(header, 0, "%PDF-")) {
+            return ContentInspection.PDF;
+        }
+        if (startsWith(header, 0, 0xFF, 0xD8, 0xFF)) {
+            return ContentInspection.JPEG;
+        }
+        if (startsWith(header, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return ContentInspection.PNG;
+        }
+        if (startsWith(header, 0, 'I', 'I', 0x2A, 0x00) || startsWith(header, 0, 'M', 'M', 0x00, 0x2A)) {
+            return ContentInspection.TIFF;
+        }
+        if (startsWith(header, 4, "ftypheic") || startsWith(header, 4, "ftypheix")
+                || startsWith(header, 4, "ftypmif1")) {
+            return ContentInspection.HEIC;
+        }
+        return null;
+    }
+
+    private static boolean startsWith(ByteBuffer header, int offset, String magic) {
+        return startsWith(header, offset, magic.chars().toArray());
+    }
+
+    private static boolean startsWith(ByteBuffer header, int offset, int... magic) {
+        if (header.remaining() < offset + magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((header.get(offset + i) & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts page objects, {@code /Type /Page} not followed by {@code s}, across chunk
+     * boundaries. Page objects inside compressed object streams are not seen.
+     */
+    static final class PageCounter {
+
+        private static final byte[] TYPE = "/Type".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] PAGE = "/Page".getBytes(StandardCharsets.US_ASCII);
+
+        private enum State { TYPE, SPACE, PAGE, AFTER_PAGE }
+
+        private State state = State.TYPE;
+        private int matched;
+        private int count;
+
+        void accept(byte[] bytes, int length) {
+            for (int i = 0; i < length; i++) {
+                accept(bytes[i]);
+            }
+        }
+
+        private void accept(byte b) {
+            switch (state) {
+                case TYPE -> matchType(b);
+                case SPACE -> {
+                    if (b == '/') {
+                        state = State.PAGE;
+                        matched = 1;
+                    } else if (!isWhitespace(b)) {
+                        restart(b);
+                    }
+                }
+                case PAGE -> {
+                    if (b == PAGE[matched]) {
+                        if (++matched == PAGE.length) {
+                            state = State.AFTER_PAGE;
+                        }
+                    } else {
+                        restart(b);
+                    }
+                }
+                case AFTER_PAGE -> {
+                    // "/Pages" is the page tree, not a page
+                    if (b != 's') {
+                        count++;
+                    }
+                    restart(b);
+                }
+            }
+        }
+
+        private void restart(byte b) {
+            state = State.TYPE;
+            matched = 0;
+            matchType(b);
+        }
+
+        private void matchType(byte b) {
+            if (b == TYPE[matched]) {
+                if (++matched == TYPE.length) {
+                    state = State.SPACE;
+                    matched = 0;
+                }
+            } else {
+                matched = b == TYPE[0] ? 1 : 0;
+            }
+        }
+
+        private static boolean isWhitespace(byte b) {
+            return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0;
+        }
+
+        int count() {
+            return count;
+        }
+    }
+}
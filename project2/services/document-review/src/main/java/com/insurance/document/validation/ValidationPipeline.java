@@ -0,0 +1,235 @@
+package com.insurance.document.validation;
+
+import com.insurance.document.model.Document;
+import com.insurance.document.model.DocumentStatus;
+import com.insurance.document.model.DocumentType;
+import com.insurance.document.model.ValidationStatus;
+import com.insurance.document.repository.DocumentRepository;
+import com.insurance.document.storage.ContentStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Validates uploaded document content in the background, so uploads and mutations never
+ * wait for the checks of {@link DocumentValidator}.
+ *
+ * Documents wait in a bounded queue for a fixed pool of virtual-thread workers. When the
+ * queue is full a document is not queued and its validation ends in ERROR; it can be
+ * queued again later. A validation that cannot read the content is retried after a
+ * growing delay, up to a maximum number of attempts. A validation whose document got new
+ * content in the meantime is dropped, as the new upload queued its own.
+ *
+ * Passing documents of the types that used to be accepted on submission (police reports
+ * and medical records) become valid; other types still need an adjuster's approval.
+ * Failing documents still pending review are sent back for resubmission.
+ */
+@Component
+public class ValidationPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(ValidationPipeline.class);
+
+    private final DocumentRepository documentRepository;
+    private final ContentStore contentStore;
+    private final DocumentValidator validator;
+    private final ValidationProperties properties;
+
+    private final BlockingQueue<Job> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private final ScheduledExecutorService retryScheduler;
+
+    private final Timer waitTimer;
+    private final Timer passedTimer;
+    private final Timer failedTimer;
+    private final Timer retriedTimer;
+    private final Timer errorTimer;
+
+    // One validation attempt of the content with this hash
+    private record Job(String documentId, String contentSha256, int attempt, long queuedNanos) {
+    }
+
+    public ValidationPipeline(DocumentRepository documentRepository,
+                              ContentStore contentStore,
+                              DocumentValidator validator,
+                              ValidationProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.documentRepository = documentRepository;
+        this.contentStore = contentStore;
+        this.validator = validator;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+
+        Gauge.builder("document.review.validation.queue", queue, BlockingQueue::size)
+                .description("Documents waiting for a validation worker")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("document.review.validation.wait")
+                .description("Time documents spend queued before a worker validates them")
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+        this.passedTimer = processingTimer(meterRegistry, "passed");
+        this.failedTimer = processingTimer(meterRegistry, "failed");
+        this.retriedTimer = processingTimer(meterRegistry, "retried");
+        this.errorTimer = processingTimer(meterRegistry, "error");
+
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "document-validation-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < properties.workers(); i++) {
+            workers.add(Thread.ofVirtual().name("document-validator-" + i).start(this::work));
+        }
+    }
+
+    private static Timer processingTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("document.review.validation")
+                .description("Time taken by one validation attempt")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Applies the change to the document and marks it QUEUED in one repository update,
+     * then queues its content for validation; marks it ERROR instead if the queue is
+     * full. Returns without waiting for a worker.
+     *
+     * @param change applied to a copy of the document first; may throw to leave the
+     *               document unchanged and queue nothing
+     * @return the document as stored once queued, or empty if no document has this id
+     */
+    public Optional<Document> submit(String documentId, Consumer<Document> change) {
+        Optional<Document> queued = documentRepository.update(documentId, document -> {
+            change.accept(document);
+            document.setValidationStatus(ValidationStatus.QUEUED);
+            document.setValidationErrors(List.of());
+            return document;
+        });
+        if (queued.isEmpty()) {
+            return queued;
+        }
+        String contentSha256 = queued.get().getContentSha256();
+        if (!queue.offer(new Job(documentId, contentSha256, 1, System.nanoTime()))) {
+            log.warn("Validation queue full; document {} is not validated", documentId);
+            finish(documentId, contentSha256, ValidationStatus.ERROR,
+                    List.of("Validation queue is full; request validation again later"));
+            return documentRepository.findById(documentId);
+        }
+        return queued;
+    }
+
+    private void work() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Job job;
+            try {
+                job = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            waitTimer.record(System.nanoTime() - job.queuedNanos(), TimeUnit.NANOSECONDS);
+            try {
+                validate(job);
+            } catch (RuntimeException e) {
+                log.error("Validation of document {} failed", job.documentId(), e);
+                finish(job.documentId(), job.contentSha256(), ValidationStatus.ERROR,
+                        List.of("Validation failed unexpectedly"));
+            }
+        }
+    }
+
+    private void validate(Job job) {
+        Optional<Document> current = documentRepository.findById(job.documentId())
+                .filter(document -> job.contentSha256().equals(document.getContentSha256()));
+        if (current.isEmpty()) {
+            return;
+        }
+        Document document = current.get();
+
+        long started = System.nanoTime();
+        Optional<Path> file = contentStore.find(job.contentSha256());
+        if (file.isEmpty()) {
+            errorTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            finish(job.documentId(), job.contentSha256(), ValidationStatus.ERROR,
+                    List.of("Uploaded content is missing from the content store"));
+            return;
+        }
+        try {
+            List<String> errors = validator.validate(document, file.get());
+            (errors.isEmpty() ? passedTimer : failedTimer).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            finish(job.documentId(), job.contentSha256(),
+                    errors.isEmpty() ? ValidationStatus.PASSED : ValidationStatus.FAILED, errors);
+        } catch (IOException e) {
+            if (job.attempt() < properties.maxAttempts()) {
+                retriedTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                retry(job, e);
+            } else {
+                errorTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                log.warn("Giving up validating document {} after {} attempts", job.documentId(), job.attempt(), e);
+                finish(job.documentId(), job.contentSha256(), ValidationStatus.ERROR,
+                        List.of("Content could not be read: " + e.getMessage()));
+            }
+        }
+    }
+
+    private void retry(Job job, IOException cause) {
+        long delayMillis = properties.retryDelay().toMillis() << (job.attempt() - 1);
+        log.info("Validation attempt {} of document {} failed ({}); retrying in {} ms",
+                job.attempt(), job.documentId(), cause.getMessage(), delayMillis);
+        retryScheduler.schedule(() -> {
+            Job next = new Job(job.documentId(), job.contentSha256(), job.attempt() + 1, System.nanoTime());
+            if (!queue.offer(next)) {
+                finish(job.documentId(), job.contentSha256(), ValidationStatus.ERROR,
+                        List.of("Validation queue is full; request validation again later"));
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Records the outcome, unless the document got new content since it was queued. The
+    // status is checked inside the update, so a review saved meanwhile is never overridden
+    private void finish(String documentId, String contentSha256, ValidationStatus outcome, List<String> errors) {
+        documentRepository.update(documentId, document -> {
+            if (!contentSha256.equals(document.getContentSha256())) {
+                return null;
+            }
+            document.setValidationStatus(outcome);
+            document.setValidationErrors(errors);
+            boolean pending = DocumentStatus.PENDING_REVIEW.equals(document.getStatus());
+            if (outcome == ValidationStatus.PASSED && pending && isAutoValidated(document.getDocumentType())) {
+                document.setValid(true);
+            } else if (outcome == ValidationStatus.FAILED && pending) {
+                document.setValid(false);
+                document.setStatus(DocumentStatus.REQUIRES_RESUBMISSION);
+            }
+            return document;
+        });
+    }
+
+    // POLICE_REPORT and MEDICAL_RECORD need no adjuster to be valid once their content passes
+    private static boolean isAutoValidated(DocumentType documentType) {
+        return documentType == DocumentType.POLICE_REPORT
+            || documentType == DocumentType.MEDICAL_RECORD;
+    }
+
+    /** Stops the workers; documents still queued keep their QUEUED status. */
+    @PreDestroy
+    public void close() {
+        retryScheduler.shutdownNow();
+        workers.forEach(Thread::interrupt);
+    }
+}
@@ -0,0 +1,26 @@
+package com.insurance.document.validation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings of the document validation pipeline ({@code document-review.validation.*}).
+ *
+ * @param workers       virtual threads validating documents concurrently
+ * @param queueCapacity documents that may wait for a worker; further uploads are not validated
+ * @param maxAttempts   attempts of a validation that fails to read the content
+ * @param retryDelay    wait before the second attempt, doubled before each further one
+ * @param minFileSize   smallest content accepted
+ * @param maxPages      most pages accepted in a PDF
+ */
+@ConfigurationProperties("document-review.validation")
+public record ValidationProperties(@DefaultValue("4") int workers,
+                                   @DefaultValue("1000") int queueCapacity,
+                                   @DefaultValue("3") int maxAttempts,
+                                   @DefaultValue("2s") Duration retryDelay,
+                                   @DefaultValue("100B") DataSize minFileSize,
+                                   @DefaultValue("500") int maxPages) {
+}
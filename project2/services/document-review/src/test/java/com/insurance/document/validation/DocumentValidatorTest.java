@@ -0,0 +1,142 @@
+package com.insurance.document.validation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DocumentValidator unit tests")
+class DocumentValidatorTest {
+
+    private static final String THREE_PAGES = """
+            %PDF-1.7
+            1 0 obj << /Type /Catalog /Pages 2 0 R >> endobj
+            2 0 obj << /Type /Pages /Kids [3 0 R 4 0 R 5 0 R] /Count 3 >> endobj
+            3 0 obj << /Type /Page /Parent 2 0 R >> endobj
+            4 0 obj << /Type/Page /Parent 2 0 R >> endobj
+            5 0 obj << /Type
+            /Page/Parent 2 0 R >> endobj
+            %%EOF
+            """;
+
+    @TempDir
+    Path directory;
+
+    // PageCounter
+
+    @Test
+    @DisplayName("Counts /Type /Page objects but not the /Type /Pages tree")
+    void pageCounter_countsPagesNotPageTree() {
+        assertThat(countPages(THREE_PAGES, Integer.MAX_VALUE)).isEqualTo(3);
+        assertThat(countPages("<< /Type /Pages /Count 0 >>", Integer.MAX_VALUE)).isZero();
+        assertThat(countPages("<< /Type /Page >>", Integer.MAX_VALUE)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Page counts do not depend on where chunk boundaries fall")
+    void pageCounter_acrossChunkBoundaries() {
+        for (int chunk = 1; chunk <= 16; chunk++) {
+            assertThat(countPages(THREE_PAGES, chunk)).as("chunks of %d bytes", chunk).isEqualTo(3);
+        }
+        // Every split point of a single page object, including inside "/Type" and "/Page"
+        String page = "x/Type /Page>>";
+        for (int split = 1; split < page.length(); split++) {
+            DocumentValidator.PageCounter counter = new DocumentValidator.PageCounter();
+            byte[] first = page.substring(0, split).getBytes(StandardCharsets.US_ASCII);
+            byte[] second = page.substring(split).getBytes(StandardCharsets.US_ASCII);
+            counter.accept(first, first.length);
+            counter.accept(second, second.length);
+            assertThat(counter.count()).as("split at %d", split).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Near misses are not pages, and a match restarts after them")
+    void pageCounter_nearMisses() {
+        assertThat(countPages("/Type /Pag /Type /Page ", Integer.MAX_VALUE)).isEqualTo(1);
+        assertThat(countPages("/Type x/Page ", Integer.MAX_VALUE)).isZero();
+        assertThat(countPages("//Type /Page ", Integer.MAX_VALUE)).isEqualTo(1);
+        assertThat(countPages("/Typ/Type /Page ", Integer.MAX_VALUE)).isEqualTo(1);
+    }
+
+    // inspect: format detection
+
+    @Test
+    @DisplayName("Detects PDF, JPEG, PNG, both TIFF byte orders and HEIC from their leading bytes")
+    void inspect_detectsEachFormat() throws IOException {
+        assertThat(inspect("%PDF-1.4\n".getBytes(StandardCharsets.US_ASCII)).mediaType())
+                .isEqualTo(ContentInspection.PDF);
+        assertThat(inspect(bytes(0xFF, 0xD8, 0xFF, 0xE0, 0, 0x10)).mediaType())
+                .isEqualTo(ContentInspection.JPEG);
+        assertThat(inspect(bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 0x0D)).mediaType())
+                .isEqualTo(ContentInspection.PNG);
+        assertThat(inspect(bytes('I', 'I', 0x2A, 0x00, 8, 0, 0, 0)).mediaType())
+                .isEqualTo(ContentInspection.TIFF);
+        assertThat(inspect(bytes('M', 'M', 0x00, 0x2A, 0, 0, 0, 8)).mediaType())
+                .isEqualTo(ContentInspection.TIFF);
+        for (String brand : new String[] {"heic", "heix", "mif1"}) {
+            byte[] heic = ("\0\0\0\u0018ftyp" + brand).getBytes(StandardCharsets.ISO_8859_1);
+            assertThat(inspect(heic).mediaType()).as(brand).isEqualTo(ContentInspection.HEIC);
+        }
+    }
+
+    @Test
+    @DisplayName("Unknown, truncated and empty content has no media type")
+    void inspect_unknownFormat() throws IOException {
+        assertThat(inspect("plain text, not a document".getBytes(StandardCharsets.US_ASCII)).mediaType()).isNull();
+        assertThat(inspect(bytes(0xFF, 0xD8)).mediaType()).isNull();
+        assertThat(inspect(bytes(0x89, 'P', 'N', 'G')).mediaType()).isNull();
+        assertThat(inspect(new byte[0]).mediaType()).isNull();
+    }
+
+    @Test
+    @DisplayName("Inspection hashes and sizes the whole file and counts pages only for PDFs")
+    void inspect_hashesSizesAndCountsPages() throws IOException, NoSuchAlgorithmException {
+        byte[] pdf = THREE_PAGES.getBytes(StandardCharsets.US_ASCII);
+
+        ContentInspection inspection = inspect(pdf);
+
+        assertThat(inspection.size()).isEqualTo(pdf.length);
+        assertThat(inspection.sha256())
+                .isEqualTo(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(pdf)));
+        assertThat(inspection.pages()).isEqualTo(3);
+
+        byte[] jpegWithPageMarker = "\u00FF\u00D8\u00FF/Type /Page ".getBytes(StandardCharsets.ISO_8859_1);
+        assertThat(inspect(jpegWithPageMarker).pages()).isZero();
+    }
+
+    private ContentInspection inspect(byte[] content) throws IOException {
+        Path file = Files.createTempFile(directory, "content", ".bin");
+        Files.write(file, content);
+        return DocumentValidator.inspect(file);
+    }
+
+    private static int countPages(String content, int chunkSize) {
+        byte[] bytes = content.getBytes(StandardCharsets.US_ASCII);
+        DocumentValidator.PageCounter counter = new DocumentValidator.PageCounter();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            int length = Math.min(chunkSize, bytes.length - offset);
+            byte[] chunk = new byte[length];
+            System.arraycopy(bytes, offset, chunk, 0, length);
+            counter.accept(chunk, length);
+        }
+        return counter.count();
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+}
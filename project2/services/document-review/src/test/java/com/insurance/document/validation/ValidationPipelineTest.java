@@ -0,0 +1,190 @@
+package com.insurance.document.validation;
+
+import com.insurance.document.model.Document;
+import com.insurance.document.model.DocumentStatus;
+import com.insurance.document.model.ValidationStatus;
+import com.insurance.document.repository.DocumentRepository;
+import com.insurance.document.storage.ContentStore;
+import com.insurance.document.storage.StorageProperties;
+import com.insurance.document.storage.StoredContent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ValidationPipeline unit tests")
+class ValidationPipelineTest {
+
+    // Seeded by the repository: doc-001 is an approved police report,
+    // doc-002 a repair estimate and doc-003 a medical record, both pending review
+    private static final String REPAIR_ESTIMATE = "doc-002";
+    private static final String MEDICAL_RECORD = "doc-003";
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @TempDir
+    Path directory;
+
+    private DocumentRepository documentRepository;
+    private ContentStore contentStore;
+    private ValidationPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        documentRepository = new DocumentRepository();
+        contentStore = new ContentStore(new StorageProperties(directory, DataSize.ofMegabytes(1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Content that cannot be read is retried, then ends in ERROR after maxAttempts")
+    void unreadableContent_endsInErrorAfterMaxAttempts() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        pipeline = pipeline(new StubValidator(documentRepository) {
+            @Override
+            public List<String> validate(Document document, Path file) throws IOException {
+                attempts.incrementAndGet();
+                throw new IOException("disk unavailable");
+            }
+        });
+
+        upload(MEDICAL_RECORD);
+        Document document = await(MEDICAL_RECORD, d -> d.getValidationStatus() == ValidationStatus.ERROR);
+
+        assertThat(attempts.get()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(document.isValid()).isFalse();
+        assertThat(document.getValidationErrors()).singleElement().asString()
+                .contains("Content could not be read").contains("disk unavailable");
+        assertThat(document.getStatus()).isEqualTo(DocumentStatus.PENDING_REVIEW);
+    }
+
+    @Test
+    @DisplayName("A read failure followed by a successful attempt passes")
+    void transientReadFailure_isRetried() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        pipeline = pipeline(new StubValidator(documentRepository) {
+            @Override
+            public List<String> validate(Document document, Path file) throws IOException {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new IOException("busy");
+                }
+                return List.of();
+            }
+        });
+
+        upload(MEDICAL_RECORD);
+        Document document = await(MEDICAL_RECORD, d -> d.getValidationStatus() == ValidationStatus.PASSED);
+
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(document.isValid()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Failing content of a document pending review requires resubmission")
+    void failedValidation_requiresResubmission() throws Exception {
+        pipeline = pipeline(new StubValidator(documentRepository) {
+            @Override
+            public List<String> validate(Document document, Path file) {
+                return List.of("too small");
+            }
+        });
+
+        upload(REPAIR_ESTIMATE);
+        Document document = await(REPAIR_ESTIMATE, d -> d.getValidationStatus() == ValidationStatus.FAILED);
+
+        assertThat(document.getStatus()).isEqualTo(DocumentStatus.REQUIRES_RESUBMISSION);
+        assertThat(document.getValidationErrors()).containsExactly("too small");
+    }
+
+    @Test
+    @DisplayName("A review saved while validation runs is not overridden by the outcome")
+    void reviewDuringValidation_isKept() throws Exception {
+        CountDownLatch validating = new CountDownLatch(1);
+        CountDownLatch reviewed = new CountDownLatch(1);
+        pipeline = pipeline(new StubValidator(documentRepository) {
+            @Override
+            public List<String> validate(Document document, Path file) {
+                validating.countDown();
+                try {
+                    reviewed.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return List.of("too small");
+            }
+        });
+
+        upload(REPAIR_ESTIMATE);
+        assertThat(validating.await(5, TimeUnit.SECONDS)).isTrue();
+        documentRepository.update(REPAIR_ESTIMATE, document -> {
+            document.setStatus(DocumentStatus.APPROVED);
+            document.setValid(true);
+            return document;
+        });
+        reviewed.countDown();
+        Document document = await(REPAIR_ESTIMATE, d -> d.getValidationStatus() == ValidationStatus.FAILED);
+
+        assertThat(document.getStatus()).isEqualTo(DocumentStatus.APPROVED);
+        assertThat(document.isValid()).isTrue();
+    }
+
+    private ValidationPipeline pipeline(DocumentValidator validator) {
+        ValidationProperties properties = new ValidationProperties(
+                1, 10, MAX_ATTEMPTS, Duration.ofMillis(10), DataSize.ofBytes(1), 500);
+        return new ValidationPipeline(documentRepository, contentStore, validator, properties,
+                new SimpleMeterRegistry());
+    }
+
+    private void upload(String documentId) throws IOException {
+        StoredContent stored = contentStore.store(Channels.newChannel(
+                new ByteArrayInputStream(("content of " + documentId).getBytes(StandardCharsets.UTF_8))));
+        pipeline.submit(documentId, document -> {
+            document.setContentSha256(stored.sha256());
+            document.setValid(false);
+        });
+    }
+
+    private Document await(String documentId, Predicate<Document> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            Document document = documentRepository.findById(documentId).orElseThrow();
+            if (condition.test(document)) {
+                return document;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Document " + documentId + " did not reach the expected state: "
+                + documentRepository.findById(documentId).orElseThrow());
+    }
+
+    // Replaces the checks; the pipeline only sees what validate returns or throws
+    private abstract static class StubValidator extends DocumentValidator {
+
+        StubValidator(DocumentRepository documentRepository) {
+            super(documentRepository, new ValidationProperties(1, 1, 1, Duration.ZERO, DataSize.ofBytes(1), 1));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.insurance.fraud.benchmarks;
+
+import com.insurance.fraud.proto.FraudAssessmentRequest;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+
+/**
+ * Per-thread cursor over a fixed pool of realistic claims, so benchmarks neither build
+ * requests inside the measured code nor let the JIT specialise on a single input.
+ *
+ * Amounts are log-uniform between 100 and 200 000, which spreads claims over every
+ * default rule; 256 policies share the pool, so the velocity windows fill up the
+ * way they do under production traffic.
+ */
+@State(Scope.Thread)
+public class ClaimRequests {
+
+    static final int POOL_SIZE = 1024;
+
+    private static final String[] CLAIM_TYPES = {"AUTO", "HOME", "HEALTH", "LIFE"};
+
+    private final FraudAssessmentRequest[] pool = new FraudAssessmentRequest[POOL_SIZE];
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < POOL_SIZE; i++) {
+            pool[i] = request(random, i);
+        }
+    }
+
+    FraudAssessmentRequest next() {
+        FraudAssessmentRequest request = pool[cursor];
+        cursor = (cursor + 1) & (POOL_SIZE - 1);
+        return request;
+    }
+
+    static FraudAssessmentRequest request(SplittableRandom random, int i) {
+        double amount = Math.exp(random.nextDouble(Math.log(100.0), Math.log(200_000.0)));
+        return FraudAssessmentRequest.newBuilder()
+                .setClaimId(String.format("CLM-%06d", i))
+                .setPolicyNumber(String.format("POL-%04d", i % 256))
+                .setEstimatedAmount(Math.round(amount * 100.0) / 100.0)
+                .setClaimType(CLAIM_TYPES[random.nextInt(CLAIM_TYPES.length)])
+                .setIncidentDate(String.format("2024-%02d-%02d", 1 + random.nextInt(12), 1 + random.nextInt(28)))
+                .setPreviousClaimsCount(random.nextInt(6))
+                .build();
+    }
+}
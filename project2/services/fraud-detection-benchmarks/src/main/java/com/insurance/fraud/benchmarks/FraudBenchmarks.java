@@ -0,0 +1,47 @@
+package com.insurance.fraud.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Accepts the usual JMH command line and always
+ * attaches the GC profiler, so every run reports {@code gc.alloc.rate.norm}
+ * (bytes allocated per operation) next to the timings.
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar                 # everything
+ * java -jar target/benchmarks.jar Scoring -f 2    # one class, two forks
+ * </pre>
+ */
+public final class FraudBenchmarks {
+
+    private FraudBenchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+
+        // Listing and help need no profiler; let JMH handle them as usual
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams()
+                || cli.shouldListProfilers() || cli.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+
+        boolean gcRequested = cli.getProfilers().stream()
+                .anyMatch(profiler -> profiler.getKlass().equals(GCProfiler.class.getName())
+                        || profiler.getKlass().equals("gc"));
+
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(cli);
+        if (!gcRequested) {
+            options.addProfiler(GCProfiler.class);
+        }
+        Options built = options.build();
+        new Runner(built).run();
+    }
+}
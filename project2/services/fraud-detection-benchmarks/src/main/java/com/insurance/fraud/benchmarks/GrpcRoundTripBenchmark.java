@@ -0,0 +1,143 @@
+package com.insurance.fraud.benchmarks;
+
+import com.insurance.fraud.features.DuplicateClaimIndex;
+import com.insurance.fraud.features.VelocityStore;
+import com.insurance.fraud.limits.AimdLimit;
+import com.insurance.fraud.limits.ConcurrencyLimitInterceptor;
+import com.insurance.fraud.metrics.MetricsInterceptor;
+import com.insurance.fraud.proto.FraudAssessmentRequest;
+import com.insurance.fraud.proto.FraudAssessmentResponse;
+import com.insurance.fraud.proto.FraudDetectionServiceGrpc;
+import com.insurance.fraud.rules.RuleEngine;
+import com.insurance.fraud.service.AssessmentCache;
+import com.insurance.fraud.service.FraudDetectionServiceImpl;
+import com.insurance.fraud.service.FraudScorer;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end calls through the real service implementation over the in-process
+ * transport: stubs, interceptors, marshalling and flow control, without sockets. The
+ * service is wrapped in the concurrency limiter and the metrics interceptor with the
+ * default settings, as the server does.
+ *
+ * {@code unary} is one AssessFraudRisk round-trip. {@code batchStream} sends
+ * {@value #BATCH_SIZE} claims over one AssessFraudRiskBatch call and reports the time
+ * per claim. StreamRiskUpdates is not measured: it is paced by a fixed timer, not by
+ * the work done.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class GrpcRoundTripBenchmark {
+
+    static final int BATCH_SIZE = 100;
+
+    private RuleEngine ruleEngine;
+    private ScheduledExecutorService scheduler;
+    private Server server;
+    private ManagedChannel channel;
+    private FraudDetectionServiceGrpc.FraudDetectionServiceBlockingStub blockingStub;
+    private FraudDetectionServiceGrpc.FraudDetectionServiceStub asyncStub;
+
+    @Setup
+    public void setUp() throws IOException {
+        ruleEngine = RuleEngine.fromClasspath();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        FraudScorer scorer = new FraudScorer(
+                ruleEngine,
+                new VelocityStore(50_000, 64),
+                new DuplicateClaimIndex(200_000, 0.05, true),
+                AssessmentCache.disabled());
+
+        // Same order as GrpcServer: the metrics interceptor runs first
+        ConcurrencyLimitInterceptor limiter = new ConcurrencyLimitInterceptor(
+                new AimdLimit(200, 16, 2_000, 0.9, TimeUnit.MILLISECONDS.toNanos(50)),
+                new AimdLimit(1_000, 32, 10_000, 0.9, TimeUnit.MILLISECONDS.toNanos(100)));
+        MetricsInterceptor metrics = new MetricsInterceptor();
+        metrics.scheduleWindowRotation(scheduler, 60);
+
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .directExecutor()
+                .addService(ServerInterceptors.intercept(
+                        new FraudDetectionServiceImpl(scorer, scheduler), limiter, metrics))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name)
+                .directExecutor()
+                .build();
+        blockingStub = FraudDetectionServiceGrpc.newBlockingStub(channel);
+        asyncStub = FraudDetectionServiceGrpc.newStub(channel);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException, IOException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        scheduler.shutdownNow();
+        ruleEngine.close();
+    }
+
+    @Benchmark
+    public FraudAssessmentResponse unary(ClaimRequests claims) {
+        return blockingStub.assessFraudRisk(claims.next());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int batchStream(ClaimRequests claims) throws InterruptedException, ExecutionException {
+        CompletableFuture<Integer> done = new CompletableFuture<>();
+        StreamObserver<FraudAssessmentRequest> requests = asyncStub.assessFraudRiskBatch(new StreamObserver<>() {
+
+            private int received;
+
+            @Override
+            public void onNext(FraudAssessmentResponse response) {
+                received++;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                done.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                done.complete(received);
+            }
+        });
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            requests.onNext(claims.next());
+        }
+        requests.onCompleted();
+        return done.get();
+    }
+}
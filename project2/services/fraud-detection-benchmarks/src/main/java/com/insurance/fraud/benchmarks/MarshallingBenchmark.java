@@ -0,0 +1,84 @@
+package com.insurance.fraud.benchmarks;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.insurance.fraud.proto.FraudAssessmentRequest;
+import com.insurance.fraud.proto.FraudAssessmentResponse;
+import com.insurance.fraud.proto.RiskLevel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Protobuf encode and decode of the fraud messages, as done by the gRPC marshaller on
+ * every call.
+ *
+ * Messages cache their serialized size after the first encode, so encoding the same
+ * instance twice is cheaper than encoding a fresh one; {@code buildAndEncodeResponse}
+ * shows what a server actually pays per response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MarshallingBenchmark {
+
+    private FraudAssessmentRequest request;
+    private FraudAssessmentResponse response;
+    private byte[] requestBytes;
+    private byte[] responseBytes;
+
+    @Setup
+    public void setUp() {
+        request = ClaimRequests.request(new SplittableRandom(42), 1);
+        response = buildResponse(request.getClaimId());
+        requestBytes = request.toByteArray();
+        responseBytes = response.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeRequest() {
+        return request.toByteArray();
+    }
+
+    @Benchmark
+    public FraudAssessmentRequest decodeRequest() throws InvalidProtocolBufferException {
+        return FraudAssessmentRequest.parseFrom(requestBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeResponse() {
+        return response.toByteArray();
+    }
+
+    @Benchmark
+    public FraudAssessmentResponse decodeResponse() throws InvalidProtocolBufferException {
+        return FraudAssessmentResponse.parseFrom(responseBytes);
+    }
+
+    @Benchmark
+    public byte[] buildAndEncodeResponse() {
+        return buildResponse(request.getClaimId()).toByteArray();
+    }
+
+    private static FraudAssessmentResponse buildResponse(String claimId) {
+        return FraudAssessmentResponse.newBuilder()
+                .setClaimId(claimId)
+                .setRiskLevel(RiskLevel.HIGH)
+                .setRiskScore(0.80)
+                .setAssessmentReason("High claim amount")
+                .setRequiresInvestigation(true)
+                .build();
+    }
+}
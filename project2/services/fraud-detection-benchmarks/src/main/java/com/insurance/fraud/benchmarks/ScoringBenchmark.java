@@ -0,0 +1,102 @@
+package com.insurance.fraud.benchmarks;
+
+import com.insurance.fraud.features.ClaimVelocity;
+import com.insurance.fraud.features.DuplicateClaimIndex;
+import com.insurance.fraud.features.VelocityStore;
+import com.insurance.fraud.proto.FraudAssessmentRequest;
+import com.insurance.fraud.proto.FraudAssessmentResponse;
+import com.insurance.fraud.rules.RuleEngine;
+import com.insurance.fraud.rules.RuleOutcome;
+import com.insurance.fraud.service.AssessmentCache;
+import com.insurance.fraud.service.FraudScorer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of scoring one claim, from the rule table alone up to the full assessment that
+ * also feeds the velocity store and the duplicate index. {@code assessCached} replays
+ * the same pool of requests against the result cache, i.e. the cost of a resend.
+ *
+ * Run with {@code -prof gc} (the default through {@link FraudBenchmarks}) and compare
+ * {@code gc.alloc.rate.norm}: {@code buildAssessment} is the per-call response builder
+ * allocation, {@code evaluateRules} should stay at zero.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn")
+@State(Scope.Benchmark)
+public class ScoringBenchmark {
+
+    private static final ClaimVelocity VELOCITY = new ClaimVelocity(0, 1, 2, 0.0, 1_500.0, 4_200.0);
+
+    private RuleEngine ruleEngine;
+    private FraudScorer scorer;
+    private FraudScorer cachingScorer;
+
+    @Setup
+    public void setUp() {
+        ruleEngine = RuleEngine.fromClasspath();
+        scorer = new FraudScorer(
+                ruleEngine,
+                new VelocityStore(50_000, 64),
+                new DuplicateClaimIndex(200_000, 0.05, true),
+                AssessmentCache.disabled());
+        cachingScorer = new FraudScorer(
+                ruleEngine,
+                new VelocityStore(50_000, 64),
+                new DuplicateClaimIndex(200_000, 0.05, true),
+                AssessmentCache.create(50_000, Duration.ofMinutes(10)));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        ruleEngine.close();
+    }
+
+    @Benchmark
+    public RuleOutcome evaluateRules(ClaimRequests claims) {
+        FraudAssessmentRequest request = claims.next();
+        return ruleEngine.evaluate(
+                request.getClaimType(),
+                request.getEstimatedAmount(),
+                request.getPreviousClaimsCount(),
+                VELOCITY,
+                false);
+    }
+
+    @Benchmark
+    public double computeIntermediateScore(ClaimRequests claims) {
+        FraudAssessmentRequest request = claims.next();
+        return FraudScorer.computeIntermediateScore(request.getEstimatedAmount(), request.getPreviousClaimsCount());
+    }
+
+    @Benchmark
+    public FraudAssessmentResponse buildAssessment(ClaimRequests claims) {
+        return scorer.buildAssessment(claims.next(), VELOCITY, false);
+    }
+
+    @Benchmark
+    public FraudAssessmentResponse assess(ClaimRequests claims) {
+        return scorer.assess(claims.next());
+    }
+
+    @Benchmark
+    public FraudAssessmentResponse assessCached(ClaimRequests claims) {
+        return cachingScorer.assess(claims.next());
+    }
+}
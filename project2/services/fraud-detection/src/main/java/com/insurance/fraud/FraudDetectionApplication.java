@@ -1,5 +1,6 @@
 package com.insurance.fraud;
 
+import com.insurance.fraud.config.FraudDetectionConfig;
 import com.insurance.fraud.server.GrpcServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,11 +11,12 @@ public class FraudDetectionApplication {
 
     public static void main(String[] args) throws InterruptedException {
         log.info("=== Insurance Fraud Detection Service ===");
-        log.info("Starting gRPC server on port 9090 ...");
-
-        GrpcServer server = new GrpcServer();
 
         try {
+            FraudDetectionConfig config = FraudDetectionConfig.load();
+            log.info("Starting gRPC server on port {} ...", config.port());
+
+            GrpcServer server = new GrpcServer(config);
             server.start();
             log.info("Server started successfully. Awaiting incoming requests.");
             server.blockUntilShutdown();
@@ -0,0 +1,307 @@
+package com.insurance.fraud.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Runtime settings of the fraud-detection server.
+ *
+ * Defaults ship in the classpath resource {@code fraud-detection.properties}. They are
+ * overridden, in increasing order of precedence, by an external properties file
+ * ({@code -Dfraud.config=<path>} or {@code FRAUD_CONFIG=<path>}), by environment
+ * variables ({@code grpc.port} -> {@code GRPC_PORT}) and by JVM system properties.
+ */
+public final class FraudDetectionConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(FraudDetectionConfig.class);
+
+    private static final String DEFAULTS_RESOURCE = "/fraud-detection.properties";
+    private static final String EXTERNAL_FILE_PROPERTY = "fraud.config";
+    private static final String EXTERNAL_FILE_ENV = "FRAUD_CONFIG";
+
+    public enum ExecutorType { VIRTUAL, FIXED, DIRECT, DEFAULT }
+
+    public enum TransportType { AUTO, EPOLL, NIO }
+
+    private final Properties properties;
+    private final Map<String, String> environment;
+
+    FraudDetectionConfig(Properties properties, Map<String, String> environment) {
+        this.properties = properties;
+        this.environment = environment;
+    }
+
+    public static FraudDetectionConfig load() {
+        Properties properties = new Properties();
+
+        try (InputStream in = FraudDetectionConfig.class.getResourceAsStream(DEFAULTS_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing classpath resource " + DEFAULTS_RESOURCE);
+            }
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + DEFAULTS_RESOURCE, e);
+        }
+
+        String externalFile = System.getProperty(EXTERNAL_FILE_PROPERTY, System.getenv(EXTERNAL_FILE_ENV));
+        if (externalFile != null && !externalFile.isBlank()) {
+            Path path = Path.of(externalFile);
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+                log.info("Loaded configuration overrides from {}", path.toAbsolutePath());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read configuration file " + path, e);
+            }
+        }
+
+        return new FraudDetectionConfig(properties, System.getenv());
+    }
+
+    // --- Listener ---
+
+    public int port() {
+        return intValue("grpc.port");
+    }
+
+    public long shutdownGracePeriodSeconds() {
+        return longValue("grpc.shutdown.grace-period-seconds");
+    }
+
+    // --- Call executor ---
+
+    public ExecutorType executorType() {
+        return enumValue("grpc.executor", ExecutorType.class);
+    }
+
+    public int executorThreads() {
+        int threads = intValue("grpc.executor.threads");
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    // --- Netty transport ---
+
+    public TransportType transportType() {
+        return enumValue("grpc.netty.transport", TransportType.class);
+    }
+
+    public int bossThreads() {
+        return intValue("grpc.netty.boss-threads");
+    }
+
+    /** Zero means "let Netty decide". */
+    public int workerThreads() {
+        return intValue("grpc.netty.worker-threads");
+    }
+
+    // --- HTTP/2 limits ---
+
+    public int maxConcurrentCallsPerConnection() {
+        return intValue("grpc.max-concurrent-calls-per-connection");
+    }
+
+    public int maxInboundMessageSize() {
+        return intValue("grpc.max-inbound-message-size");
+    }
+
+    public int maxInboundMetadataSize() {
+        return intValue("grpc.max-inbound-metadata-size");
+    }
+
+    public int flowControlWindow() {
+        return intValue("grpc.flow-control-window");
+    }
+
+    public boolean flowControlAutoTune() {
+        return booleanValue("grpc.flow-control-auto-tune");
+    }
+
+    // --- Keepalive ---
+
+    public long keepAliveTimeSeconds() {
+        return longValue("grpc.keepalive.time-seconds");
+    }
+
+    public long keepAliveTimeoutSeconds() {
+        return longValue("grpc.keepalive.timeout-seconds");
+    }
+
+    public long permitKeepAliveTimeSeconds() {
+        return longValue("grpc.keepalive.permit-time-seconds");
+    }
+
+    public boolean permitKeepAliveWithoutCalls() {
+        return booleanValue("grpc.keepalive.permit-without-calls");
+    }
+
+    /** Zero disables idle connection reaping. */
+    public long maxConnectionIdleSeconds() {
+        return longValue("grpc.max-connection-idle-seconds");
+    }
+
+    // --- StreamRiskUpdates ---
+
+    public int streamSchedulerThreads() {
+        int threads = intValue("fraud.stream.scheduler-threads");
+        return threads > 0 ? threads : Math.max(2, Runtime.getRuntime().availableProcessors() / 4);
+    }
+
+    // --- Fraud rules ---
+
+    /** External rule file, or empty to use the bundled classpath rules. */
+    public Optional<Path> rulesPath() {
+        String path = value("fraud.rules.path");
+        return path.isEmpty() ? Optional.empty() : Optional.of(Path.of(path));
+    }
+
+    public boolean watchRules() {
+        return booleanValue("fraud.rules.watch");
+    }
+
+    // --- Adaptive concurrency limits ---
+
+    public boolean limitsEnabled() {
+        return booleanValue("grpc.limits.enabled");
+    }
+
+    public double limitsBackoffRatio() {
+        return doubleValue("grpc.limits.backoff-ratio");
+    }
+
+    /** @param callClass {@code unary} or {@code streaming} */
+    public int limitsInitial(String callClass) {
+        return intValue("grpc.limits." + callClass + ".initial");
+    }
+
+    public int limitsMin(String callClass) {
+        return intValue("grpc.limits." + callClass + ".min");
+    }
+
+    public int limitsMax(String callClass) {
+        return intValue("grpc.limits." + callClass + ".max");
+    }
+
+    public long limitsLatencyTargetMillis(String callClass) {
+        return longValue("grpc.limits." + callClass + ".latency-target-millis");
+    }
+
+    // --- Velocity feature store ---
+
+    public int velocityMaxPolicies() {
+        return intValue("fraud.velocity.max-policies");
+    }
+
+    public int velocityLockStripes() {
+        return intValue("fraud.velocity.lock-stripes");
+    }
+
+    public long velocitySweepIntervalSeconds() {
+        return longValue("fraud.velocity.sweep-interval-seconds");
+    }
+
+    // --- Duplicate-claim index ---
+
+    public int duplicatesMaxEntries() {
+        return intValue("fraud.duplicates.max-entries");
+    }
+
+    public double duplicatesAmountTolerance() {
+        return doubleValue("fraud.duplicates.amount-tolerance");
+    }
+
+    public boolean duplicatesBloomFilter() {
+        return booleanValue("fraud.duplicates.bloom-filter");
+    }
+
+    // --- Result cache ---
+
+    public long cacheMaxEntries() {
+        return longValue("fraud.cache.max-entries");
+    }
+
+    public long cacheTtlSeconds() {
+        return longValue("fraud.cache.ttl-seconds");
+    }
+
+    // --- Management endpoints ---
+
+    public boolean managementEnabled() {
+        return booleanValue("management.enabled");
+    }
+
+    public int managementPort() {
+        return intValue("management.port");
+    }
+
+    public long managementLatencyWindowSeconds() {
+        return longValue("management.latency-window-seconds");
+    }
+
+    // --- Lookup ---
+
+    String value(String key) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = environment.get(toEnvironmentName(key));
+        }
+        if (value == null) {
+            value = properties.getProperty(key);
+        }
+        if (value == null) {
+            throw new IllegalStateException("Missing configuration value for '" + key + "'");
+        }
+        return value.trim();
+    }
+
+    int intValue(String key) {
+        try {
+            return Integer.parseInt(value(key));
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Configuration value for '" + key + "' is not an integer", e);
+        }
+    }
+
+    long longValue(String key) {
+        try {
+            return Long.parseLong(value(key));
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Configuration value for '" + key + "' is not an integer", e);
+        }
+    }
+
+    double doubleValue(String key) {
+        try {
+            return Double.parseDouble(value(key));
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Configuration value for '" + key + "' is not a number", e);
+        }
+    }
+
+    boolean booleanValue(String key) {
+        return Boolean.parseBoolean(value(key));
+    }
+
+    <E extends Enum<E>> E enumValue(String key, Class<E> type) {
+        String value = value(key);
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Unsupported value '" + value + "' for '" + key + "'", e);
+        }
+    }
+
+    static String toEnvironmentName(String key) {
+        return key.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_');
+    }
+}
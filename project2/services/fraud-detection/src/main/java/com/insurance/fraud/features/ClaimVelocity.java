@@ -0,0 +1,83 @@
+package com.insurance.fraud.features;
+
+/**
+ * Claims previously seen for a policy, per sliding window. The claim being assessed is
+ * not included.
+ *
+ * Mutable so that a batch stream can fill the same instance in for every claim it
+ * scores: {@link VelocityStore#record} overwrites every field. Not thread-safe.
+ */
+public final class ClaimVelocity {
+
+    private int claimsLastHour;
+    private int claimsLastDay;
+    private int claimsLast30Days;
+    private double amountLastHour;
+    private double amountLastDay;
+    private double amountLast30Days;
+
+    /** No claims in any window. */
+    public ClaimVelocity() {
+    }
+
+    public ClaimVelocity(int claimsLastHour,
+                         int claimsLastDay,
+                         int claimsLast30Days,
+                         double amountLastHour,
+                         double amountLastDay,
+                         double amountLast30Days) {
+        set(claimsLastHour, claimsLastDay, claimsLast30Days, amountLastHour, amountLastDay, amountLast30Days);
+    }
+
+    void set(int claimsLastHour,
+             int claimsLastDay,
+             int claimsLast30Days,
+             double amountLastHour,
+             double amountLastDay,
+             double amountLast30Days) {
+        this.claimsLastHour = claimsLastHour;
+        this.claimsLastDay = claimsLastDay;
+        this.claimsLast30Days = claimsLast30Days;
+        this.amountLastHour = amountLastHour;
+        this.amountLastDay = amountLastDay;
+        this.amountLast30Days = amountLast30Days;
+    }
+
+    void clear() {
+        set(0, 0, 0, 0.0, 0.0, 0.0);
+    }
+
+    public int claimsLastHour() {
+        return claimsLastHour;
+    }
+
+    public int claimsLastDay() {
+        return claimsLastDay;
+    }
+
+    public int claimsLast30Days() {
+        return claimsLast30Days;
+    }
+
+    public double amountLastHour() {
+        return amountLastHour;
+    }
+
+    public double amountLastDay() {
+        return amountLastDay;
+    }
+
+    public double amountLast30Days() {
+        return amountLast30Days;
+    }
+
+    @Override
+    public String toString() {
+        return "ClaimVelocity[claimsLastHour=" + claimsLastHour
+                + ", claimsLastDay=" + claimsLastDay
+                + ", claimsLast30Days=" + claimsLast30Days
+                + ", amountLastHour=" + amountLastHour
+                + ", amountLastDay=" + amountLastDay
+                + ", amountLast30Days=" + amountLast30Days + "]";
+    }
+}
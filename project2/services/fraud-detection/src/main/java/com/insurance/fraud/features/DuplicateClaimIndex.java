@@ -0,0 +1,263 @@
+package com.insurance.fraud.features;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Detects duplicate and near-duplicate claim submissions: a claim with a different
+ * claim id but the same policy number, incident date and claim type, and an amount in
+ * the same or an adjacent amount bucket.
+ *
+ * Amounts are bucketed on a logarithmic scale whose step is the configured tolerance,
+ * so "similar" means relative, not absolute. Each (policy, date, type, bucket) tuple is
+ * reduced to a 64-bit fingerprint and stored with the hash of the claim id that first
+ * submitted it in a primitive open-addressing table (12 bytes per slot, split into
+ * independently locked segments). A lookup therefore costs three probes and no
+ * allocation.
+ *
+ * Memory is bounded by generations: once the current generation holds
+ * {@code maxEntries} fingerprints it becomes the previous one and the older generation
+ * is dropped, so a fingerprint is remembered for at least one full generation.
+ * With the optional Bloom filter front, a probe for a never-seen fingerprint (the
+ * common case) is answered from a lock-free bit array without touching the table.
+ */
+public class DuplicateClaimIndex {
+
+    private static final int SEGMENTS = 16;
+
+    private final int maxEntries;
+    private final boolean bloomFront;
+    private final double logStep;
+
+    private final ReentrantLock rotationLock = new ReentrantLock();
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    private final AtomicLong duplicateHits = new AtomicLong();
+
+    /**
+     * @param maxEntries      fingerprints per generation
+     * @param amountTolerance relative amount difference treated as "similar", e.g. 0.05
+     * @param bloomFront      whether to answer negative lookups from a Bloom filter
+     */
+    public DuplicateClaimIndex(int maxEntries, double amountTolerance, boolean bloomFront) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        if (amountTolerance <= 0.0) {
+            throw new IllegalArgumentException("amountTolerance must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.bloomFront = bloomFront;
+        this.logStep = Math.log1p(amountTolerance);
+        this.current = new Generation(maxEntries, bloomFront);
+    }
+
+    /**
+     * Returns whether an earlier, different claim matches this one, then remembers this
+     * claim for later lookups.
+     */
+    public boolean checkAndRecord(String policyNumber,
+                                  String incidentDate,
+                                  String claimType,
+                                  String claimId,
+                                  double amount) {
+        if (policyNumber.isEmpty()) {
+            return false;
+        }
+
+        long key = keyHash(policyNumber, incidentDate, claimType);
+        int bucket = amountBucket(amount);
+        int claimHash = claimHash(claimId);
+
+        boolean duplicate = find(key, bucket, claimHash);
+
+        Generation generation = current;
+        generation.putIfAbsent(fingerprint(key, bucket), claimHash);
+        if (generation.size() >= maxEntries) {
+            rotate(generation);
+        }
+
+        if (duplicate) {
+            duplicateHits.incrementAndGet();
+        }
+        return duplicate;
+    }
+
+    /** Returns whether an earlier, different claim matches this one, without recording it. */
+    public boolean isDuplicate(String policyNumber,
+                               String incidentDate,
+                               String claimType,
+                               String claimId,
+                               double amount) {
+        if (policyNumber.isEmpty()) {
+            return false;
+        }
+        return find(keyHash(policyNumber, incidentDate, claimType), amountBucket(amount), claimHash(claimId));
+    }
+
+    public long duplicateHits() {
+        return duplicateHits.get();
+    }
+
+    private boolean find(long key, int bucket, int claimHash) {
+        Generation newer = current;
+        Generation older = previous;
+        for (int b = bucket - 1; b <= bucket + 1; b++) {
+            long fingerprint = fingerprint(key, b);
+            if (newer.matchesOtherClaim(fingerprint, claimHash)
+                    || (older != null && older.matchesOtherClaim(fingerprint, claimHash))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void rotate(Generation full) {
+        rotationLock.lock();
+        try {
+            if (current == full) {
+                previous = full;
+                current = new Generation(maxEntries, bloomFront);
+            }
+        } finally {
+            rotationLock.unlock();
+        }
+    }
+
+    private int amountBucket(double amount) {
+        return amount <= 0.0 ? 0 : 1 + (int) (Math.log1p(amount) / logStep);
+    }
+
+    // Segment.ABSENT (0) is reserved, so a claim id hashing to 0 is treated as 1
+    private static int claimHash(String claimId) {
+        int hash = claimId.hashCode();
+        return hash != Segment.ABSENT ? hash : 1;
+    }
+
+    private static long keyHash(String policyNumber, String incidentDate, String claimType) {
+        long h = mix(((long) policyNumber.hashCode() << 32) ^ (incidentDate.hashCode() & 0xFFFFFFFFL));
+        return mix(h ^ claimType.hashCode());
+    }
+
+    private static long fingerprint(long keyHash, int bucket) {
+        long fingerprint = mix(keyHash + bucket * 0x9E3779B97F4A7C15L);
+        // 0 marks an empty slot
+        return fingerprint != 0L ? fingerprint : 1L;
+    }
+
+    // MurmurHash3 fmix64 finaliser
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Generation {
+
+        private final Segment[] segments = new Segment[SEGMENTS];
+        private final BloomFilter bloom;
+
+        Generation(int maxEntries, boolean bloomFront) {
+            int perSegment = Math.max(1, maxEntries / SEGMENTS);
+            for (int i = 0; i < SEGMENTS; i++) {
+                segments[i] = new Segment(perSegment);
+            }
+            this.bloom = bloomFront ? new BloomFilter(maxEntries) : null;
+        }
+
+        boolean matchesOtherClaim(long fingerprint, int claimHash) {
+            if (bloom != null && !bloom.mightContain(fingerprint)) {
+                return false;
+            }
+            int stored = segmentFor(fingerprint).get(fingerprint);
+            return stored != Segment.ABSENT && stored != claimHash;
+        }
+
+        void putIfAbsent(long fingerprint, int claimHash) {
+            if (segmentFor(fingerprint).putIfAbsent(fingerprint, claimHash) && bloom != null) {
+                bloom.put(fingerprint);
+            }
+        }
+
+        int size() {
+            int size = 0;
+            for (Segment segment : segments) {
+                size += segment.size;
+            }
+            return size;
+        }
+
+        private Segment segmentFor(long fingerprint) {
+            return segments[(int) (fingerprint >>> 60)];
+        }
+    }
+
+    /**
+     * Linear-probing table of fingerprint -> claim id hash, kept at most half full. Once
+     * its share of the generation is reached the segment stops accepting new keys; the
+     * generation is rotated out shortly after.
+     */
+    private static final class Segment {
+
+        static final int ABSENT = 0;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long[] fingerprints;
+        private final int[] claimHashes;
+        private final int mask;
+        private final int limit;
+        private volatile int size;
+
+        Segment(int maxEntries) {
+            int capacity = Integer.highestOneBit(Math.max(2, maxEntries * 2 - 1)) << 1;
+            this.fingerprints = new long[capacity];
+            this.claimHashes = new int[capacity];
+            this.mask = capacity - 1;
+            this.limit = capacity / 2;
+        }
+
+        int get(long fingerprint) {
+            lock.lock();
+            try {
+                for (int slot = (int) fingerprint & mask; ; slot = (slot + 1) & mask) {
+                    long stored = fingerprints[slot];
+                    if (stored == fingerprint) {
+                        return claimHashes[slot];
+                    }
+                    if (stored == 0L) {
+                        return ABSENT;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean putIfAbsent(long fingerprint, int claimHash) {
+            lock.lock();
+            try {
+                if (size >= limit) {
+                    return false;
+                }
+                for (int slot = (int) fingerprint & mask; ; slot = (slot + 1) & mask) {
+                    long stored = fingerprints[slot];
+                    if (stored == fingerprint) {
+                        return false;
+                    }
+                    if (stored == 0L) {
+                        fingerprints[slot] = fingerprint;
+                        claimHashes[slot] = claimHash;
+                        size++;
+                        return true;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
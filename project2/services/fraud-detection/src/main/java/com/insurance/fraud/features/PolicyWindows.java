@@ -0,0 +1,117 @@
+package com.insurance.fraud.features;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bucketed ring buffers holding the claim history of one policy at three resolutions:
+ * 12 x 5 minutes (last hour), 24 x 1 hour (last day) and 30 x 1 day (last 30 days).
+ *
+ * All slots live in a single int array of {@code [bucketIndex, count, amountUnits]}
+ * triples (about 0.8 KB per policy). A slot whose bucket index is older than the ring
+ * span is stale and is reset lazily the next time the slot is written. Amounts are kept
+ * in whole currency units and saturate at {@link Integer#MAX_VALUE}.
+ *
+ * Not thread-safe: {@link VelocityStore} guards every instance with its lock stripe.
+ */
+final class PolicyWindows {
+
+    private static final long FIVE_MINUTES = TimeUnit.MINUTES.toMillis(5);
+    private static final long ONE_HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long ONE_DAY = TimeUnit.DAYS.toMillis(1);
+
+    // Ring layout: bucket width, bucket count and first slot of each ring
+    private static final long[] BUCKET_MILLIS = {FIVE_MINUTES, ONE_HOUR, ONE_DAY};
+    private static final int[] BUCKET_COUNT = {12, 24, 30};
+    private static final int[] FIRST_SLOT = {0, 12, 36};
+    private static final int SLOTS = 66;
+    private static final int INTS_PER_SLOT = 3;
+
+    private static final int HOUR_RING = 0;
+    private static final int DAY_RING = 1;
+    private static final int MONTH_RING = 2;
+
+    static final long RETENTION_MILLIS = BUCKET_COUNT[MONTH_RING] * ONE_DAY;
+
+    // Bucket index 0 is never current, so zeroed slots read as stale
+    private final int[] slots = new int[SLOTS * INTS_PER_SLOT];
+
+    private long lastSeenMillis;
+    private String lastClaimId;
+
+    /**
+     * Writes the velocity before this claim into {@code before}, then adds the claim to
+     * every ring. A repeat of the most recently recorded claim id (a client retry) is not
+     * counted twice.
+     */
+    void record(String claimId, double amount, long nowMillis, ClaimVelocity before) {
+        snapshot(nowMillis, before);
+
+        if (claimId.equals(lastClaimId)) {
+            lastSeenMillis = nowMillis;
+            return;
+        }
+
+        int units = amount <= 0.0 ? 0 : (int) Math.min(Math.round(amount), Integer.MAX_VALUE);
+        for (int ring = 0; ring < BUCKET_COUNT.length; ring++) {
+            add(ring, nowMillis, units);
+        }
+
+        lastClaimId = claimId;
+        lastSeenMillis = nowMillis;
+    }
+
+    void snapshot(long nowMillis, ClaimVelocity into) {
+        if (lastSeenMillis == 0L) {
+            into.clear();
+            return;
+        }
+        into.set(
+                count(HOUR_RING, nowMillis),
+                count(DAY_RING, nowMillis),
+                count(MONTH_RING, nowMillis),
+                amount(HOUR_RING, nowMillis),
+                amount(DAY_RING, nowMillis),
+                amount(MONTH_RING, nowMillis));
+    }
+
+    long lastSeenMillis() {
+        return lastSeenMillis;
+    }
+
+    private void add(int ring, long nowMillis, int units) {
+        int bucket = (int) (nowMillis / BUCKET_MILLIS[ring]);
+        int base = (FIRST_SLOT[ring] + bucket % BUCKET_COUNT[ring]) * INTS_PER_SLOT;
+
+        if (slots[base] != bucket) {
+            slots[base] = bucket;
+            slots[base + 1] = 0;
+            slots[base + 2] = 0;
+        }
+        slots[base + 1]++;
+        slots[base + 2] = (int) Math.min((long) slots[base + 2] + units, Integer.MAX_VALUE);
+    }
+
+    private int count(int ring, long nowMillis) {
+        return (int) sum(ring, nowMillis, 1);
+    }
+
+    private double amount(int ring, long nowMillis) {
+        return sum(ring, nowMillis, 2);
+    }
+
+    private long sum(int ring, long nowMillis, int field) {
+        int current = (int) (nowMillis / BUCKET_MILLIS[ring]);
+        int oldest = current - BUCKET_COUNT[ring] + 1;
+        int from = FIRST_SLOT[ring] * INTS_PER_SLOT;
+        int to = from + BUCKET_COUNT[ring] * INTS_PER_SLOT;
+
+        long total = 0L;
+        for (int base = from; base < to; base += INTS_PER_SLOT) {
+            int bucket = slots[base];
+            if (bucket >= oldest && bucket <= current) {
+                total += slots[base + field];
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,238 @@
+package com.insurance.fraud.features;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process claim-velocity features per policy number, fed by every assessment.
+ *
+ * Each policy owns a {@link PolicyWindows} of fixed size, so memory is bounded by
+ * {@code maxPolicies}. Reads and writes for a policy are serialised by one of a fixed
+ * number of lock stripes chosen from the policy number's hash; different policies
+ * proceed in parallel. Idle policies (nothing recorded for 30 days) are swept
+ * periodically. A new policy first reserves one of the {@code maxPolicies} slots; when
+ * none is free, the least recently seen of a small sample of policies, taken by a clock
+ * hand over the map, is evicted until one is, so the store never exceeds its bound.
+ */
+public class VelocityStore {
+
+    private static final Logger log = LoggerFactory.getLogger(VelocityStore.class);
+
+    private static final int EVICTION_SAMPLE = 8;
+
+    private final Map<String, PolicyWindows> policies = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes;
+    private final int stripeMask;
+    private final int maxPolicies;
+
+    // Slots reserved by tracked policies and by new policies about to be inserted; never
+    // exceeds maxPolicies and never falls below policies.size()
+    private final AtomicInteger reserved = new AtomicInteger();
+
+    // Clock hand of the sampled eviction; only advanced while holding evictionLock
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private Iterator<Map.Entry<String, PolicyWindows>> evictionHand;
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxPolicies maximum number of tracked policies
+     * @param lockStripes number of lock stripes, rounded up to a power of two
+     */
+    public VelocityStore(int maxPolicies, int lockStripes) {
+        if (maxPolicies <= 0) {
+            throw new IllegalArgumentException("maxPolicies must be positive");
+        }
+        int stripeCount = Integer.highestOneBit(Math.max(1, lockStripes - 1)) << 1;
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.stripeMask = stripeCount - 1;
+        this.maxPolicies = maxPolicies;
+    }
+
+    /**
+     * Records a claim and fills {@code into} with the policy's velocity as it was before
+     * the claim. Claims without a policy number are not tracked.
+     *
+     * @return {@code into}
+     */
+    public ClaimVelocity record(String policyNumber, String claimId, double amount, long nowMillis,
+                                ClaimVelocity into) {
+        if (policyNumber.isEmpty()) {
+            into.clear();
+            return into;
+        }
+
+        ReentrantLock stripe = stripeFor(policyNumber);
+        stripe.lock();
+        try {
+            PolicyWindows windows = policies.get(policyNumber);
+            if (windows != null) {
+                windows.record(claimId, amount, nowMillis, into);
+                return into;
+            }
+        } finally {
+            stripe.unlock();
+        }
+
+        // Eviction locks the victim's stripe, so the slot is reserved before this
+        // policy's stripe is taken again
+        reserveSlot();
+        stripe.lock();
+        try {
+            PolicyWindows windows = policies.get(policyNumber);
+            if (windows == null) {
+                windows = new PolicyWindows();
+                policies.put(policyNumber, windows);
+            } else {
+                // Inserted by another thread in the meantime
+                reserved.decrementAndGet();
+            }
+            windows.record(claimId, amount, nowMillis, into);
+            return into;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /** Returns the policy's current velocity without recording anything. */
+    public ClaimVelocity peek(String policyNumber, long nowMillis) {
+        ClaimVelocity velocity = new ClaimVelocity();
+        if (policyNumber.isEmpty()) {
+            return velocity;
+        }
+
+        ReentrantLock stripe = stripeFor(policyNumber);
+        stripe.lock();
+        try {
+            PolicyWindows windows = policies.get(policyNumber);
+            if (windows != null) {
+                windows.snapshot(nowMillis, velocity);
+            }
+            return velocity;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /** Removes every policy with no claim inside the longest window. */
+    public int evictIdle(long nowMillis) {
+        long idleBefore = nowMillis - PolicyWindows.RETENTION_MILLIS;
+        int removed = 0;
+
+        for (String policyNumber : policies.keySet()) {
+            if (removeIfIdleSince(policyNumber, idleBefore)) {
+                removed++;
+            }
+        }
+
+        evictions.addAndGet(removed);
+        return removed;
+    }
+
+    /**
+     * Sweeps idle policies at a fixed rate on the given scheduler. A sweep walks every
+     * policy, so give it a scheduler of its own rather than one that paces requests.
+     */
+    public void scheduleIdleEviction(ScheduledExecutorService scheduler, long intervalSeconds) {
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                int removed = evictIdle(System.currentTimeMillis());
+                if (removed > 0) {
+                    log.info("Evicted {} idle policies from the velocity store ({} tracked)",
+                            removed, policies.size());
+                }
+            } catch (RuntimeException e) {
+                log.error("Velocity store idle sweep failed", e);
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public int size() {
+        return policies.size();
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    private void reserveSlot() {
+        while (true) {
+            int slots = reserved.get();
+            if (slots < maxPolicies) {
+                if (reserved.compareAndSet(slots, slots + 1)) {
+                    return;
+                }
+            } else if (!evictOne()) {
+                // The sampled policies were all touched meanwhile, or the remaining
+                // slots are reserved by inserts still in flight
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /** Evicts the least recently seen of a sample of policies; false if none was removed. */
+    private boolean evictOne() {
+        evictionLock.lock();
+        try {
+            String victim = null;
+            long oldestSeen = Long.MAX_VALUE;
+
+            for (int i = 0; i < EVICTION_SAMPLE; i++) {
+                if (evictionHand == null || !evictionHand.hasNext()) {
+                    evictionHand = policies.entrySet().iterator();
+                    if (!evictionHand.hasNext()) {
+                        return false;
+                    }
+                }
+                Map.Entry<String, PolicyWindows> candidate = evictionHand.next();
+                // Racy read of lastSeenMillis is fine for choosing a victim
+                long seen = candidate.getValue().lastSeenMillis();
+                if (seen < oldestSeen) {
+                    oldestSeen = seen;
+                    victim = candidate.getKey();
+                }
+            }
+
+            if (victim != null && removeIfIdleSince(victim, oldestSeen + 1)) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private boolean removeIfIdleSince(String policyNumber, long idleBefore) {
+        ReentrantLock stripe = stripeFor(policyNumber);
+        stripe.lock();
+        try {
+            PolicyWindows windows = policies.get(policyNumber);
+            if (windows != null && windows.lastSeenMillis() < idleBefore) {
+                policies.remove(policyNumber);
+                reserved.decrementAndGet();
+                return true;
+            }
+            return false;
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    private ReentrantLock stripeFor(String policyNumber) {
+        int h = policyNumber.hashCode();
+        return stripes[(h ^ (h >>> 16)) & stripeMask];
+    }
+}
@@ -0,0 +1,113 @@
+package com.insurance.fraud.limits;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Concurrency limit that adapts to observed latency with additive increase and
+ * multiplicative decrease, the way TCP congestion control sizes its window.
+ *
+ * A sample slower than the latency target, or one reported as dropped, shrinks the
+ * limit by the backoff ratio, at most once per observed round trip so a burst of slow
+ * calls counts as one congestion signal. A fast sample grows the limit by 1/limit, so
+ * roughly +1 per round trip, but only while at least half of the limit is in use; an
+ * idle server does not inflate its limit.
+ */
+public class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyTargetNanos;
+
+    private final AtomicLong limitBits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastDecreaseNanos = new AtomicLong(System.nanoTime());
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * @param initialLimit       starting limit
+     * @param minLimit           the limit never drops below this
+     * @param maxLimit           the limit never grows beyond this
+     * @param backoffRatio       factor applied on a congestion signal, e.g. 0.9
+     * @param latencyTargetNanos samples slower than this are a congestion signal
+     */
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyTargetNanos) {
+        if (minLimit <= 0 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(
+                    "Concurrency limits must satisfy 0 < min <= initial <= max, got min=" + minLimit
+                            + " initial=" + initialLimit + " max=" + maxLimit);
+        }
+        if (backoffRatio <= 0.0 || backoffRatio >= 1.0) {
+            throw new IllegalArgumentException("backoffRatio must be in (0, 1)");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(initialLimit));
+    }
+
+    /** Takes a slot if fewer than {@link #limit()} calls are in flight. */
+    public boolean tryAcquire() {
+        int limit = limit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejections.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** Returns a slot taken by a successful {@link #tryAcquire()}. */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Feeds one latency observation into the limit.
+     *
+     * @param dropped true if the call failed in a way that signals overload, such as an
+     *                expired deadline, regardless of its latency
+     */
+    public void onSample(long latencyNanos, boolean dropped) {
+        if (dropped || latencyNanos > latencyTargetNanos) {
+            long now = System.nanoTime();
+            long last = lastDecreaseNanos.get();
+            if (now - last >= Math.max(latencyNanos, latencyTargetNanos)
+                    && lastDecreaseNanos.compareAndSet(last, now)) {
+                update(limit -> Math.max(minLimit, limit * backoffRatio));
+            }
+        } else if (inFlight.get() * 2 >= limit()) {
+            update(limit -> Math.min(maxLimit, limit + 1.0 / limit));
+        }
+    }
+
+    public int limit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long rejections() {
+        return rejections.sum();
+    }
+
+    private void update(DoubleUnaryOperator change) {
+        while (true) {
+            long bits = limitBits.get();
+            double next = change.applyAsDouble(Double.longBitsToDouble(bits));
+            if (limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+}
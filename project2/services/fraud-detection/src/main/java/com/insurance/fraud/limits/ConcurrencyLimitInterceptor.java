@@ -0,0 +1,153 @@
+package com.insurance.fraud.limits;
+
+import com.insurance.fraud.metrics.PrometheusText;
+import io.grpc.Context;
+import io.grpc.Deadline;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Sheds load before it queues: a call that arrives while its class is at its adaptive
+ * concurrency limit is closed immediately with RESOURCE_EXHAUSTED, so clients fail fast
+ * and can back off instead of waiting for a deadline.
+ *
+ * Unary calls and streams are limited separately because their latencies are not
+ * comparable. A unary call samples its full duration. A stream holds its slot until it
+ * closes but samples only the time to its first response, which grows with server load
+ * whereas the stream's total length does not.
+ */
+public class ConcurrencyLimitInterceptor implements ServerInterceptor {
+
+    private static final ServerCall.Listener<Object> NOOP_LISTENER = new ServerCall.Listener<>() {
+    };
+
+    private final AimdLimit unaryLimit;
+    private final AimdLimit streamingLimit;
+
+    public ConcurrencyLimitInterceptor(AimdLimit unaryLimit, AimdLimit streamingLimit) {
+        this.unaryLimit = unaryLimit;
+        this.streamingLimit = streamingLimit;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                 Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        boolean unary = call.getMethodDescriptor().getType() == MethodDescriptor.MethodType.UNARY;
+        AimdLimit limit = unary ? unaryLimit : streamingLimit;
+
+        if (!limit.tryAcquire()) {
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription(
+                    "Fraud service is at its " + (unary ? "unary" : "streaming")
+                            + " concurrency limit (" + limit.limit() + "), retry with backoff"),
+                    new Metadata());
+            return (ServerCall.Listener<ReqT>) NOOP_LISTENER;
+        }
+
+        LimitedCall<ReqT, RespT> limited = new LimitedCall<>(call, limit, unary);
+        try {
+            return new LimitedListener<>(next.startCall(limited, headers), limited);
+        } catch (RuntimeException e) {
+            limited.finish(Status.Code.UNKNOWN);
+            throw e;
+        }
+    }
+
+    public void writeTo(PrometheusText out) {
+        String unary = PrometheusText.labels("call_class", "unary");
+        String streaming = PrometheusText.labels("call_class", "streaming");
+
+        out.family("grpc_server_concurrency_limit", "gauge", "Current adaptive concurrency limit.");
+        out.sample("grpc_server_concurrency_limit", unary, unaryLimit.limit());
+        out.sample("grpc_server_concurrency_limit", streaming, streamingLimit.limit());
+
+        out.family("grpc_server_concurrency_in_flight", "gauge", "Calls holding a concurrency slot.");
+        out.sample("grpc_server_concurrency_in_flight", unary, unaryLimit.inFlight());
+        out.sample("grpc_server_concurrency_in_flight", streaming, streamingLimit.inFlight());
+
+        out.family("grpc_server_limit_rejections_total", "counter",
+                "Calls rejected with RESOURCE_EXHAUSTED by the concurrency limit.");
+        out.sample("grpc_server_limit_rejections_total", unary, unaryLimit.rejections());
+        out.sample("grpc_server_limit_rejections_total", streaming, streamingLimit.rejections());
+    }
+
+    /** Samples the limit once and releases the slot exactly once, at close or on cancellation. */
+    private static final class LimitedCall<ReqT, RespT>
+            extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+
+        private static final AtomicIntegerFieldUpdater<LimitedCall> SAMPLED =
+                AtomicIntegerFieldUpdater.newUpdater(LimitedCall.class, "sampled");
+        private static final AtomicIntegerFieldUpdater<LimitedCall> RELEASED =
+                AtomicIntegerFieldUpdater.newUpdater(LimitedCall.class, "released");
+
+        private final AimdLimit limit;
+        private final boolean unary;
+        private final long startNanos = System.nanoTime();
+        private volatile int sampled;
+        private volatile int released;
+
+        LimitedCall(ServerCall<ReqT, RespT> delegate, AimdLimit limit, boolean unary) {
+            super(delegate);
+            this.limit = limit;
+            this.unary = unary;
+        }
+
+        @Override
+        public void sendMessage(RespT message) {
+            if (!unary) {
+                sample(false);
+            }
+            super.sendMessage(message);
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            finish(status.getCode());
+            super.close(status, trailers);
+        }
+
+        void finish(Status.Code code) {
+            // Only an expired deadline says the server was too slow; other errors are the
+            // caller's or the service's and say nothing about load
+            sample(code == Status.Code.DEADLINE_EXCEEDED);
+            if (RELEASED.compareAndSet(this, 0, 1)) {
+                limit.release();
+            }
+        }
+
+        private void sample(boolean dropped) {
+            if (SAMPLED.compareAndSet(this, 0, 1)) {
+                limit.onSample(System.nanoTime() - startNanos, dropped);
+            }
+        }
+    }
+
+    private static final class LimitedListener<ReqT>
+            extends ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
+
+        private final LimitedCall<ReqT, ?> call;
+
+        LimitedListener(ServerCall.Listener<ReqT> delegate, LimitedCall<ReqT, ?> call) {
+            super(delegate);
+            this.call = call;
+        }
+
+        @Override
+        public void onCancel() {
+            // A call whose deadline passed while it was still running is cancelled too
+            Deadline deadline = Context.current().getDeadline();
+            boolean expired = deadline != null && deadline.isExpired();
+            call.finish(expired ? Status.Code.DEADLINE_EXCEEDED : Status.Code.CANCELLED);
+            super.onCancel();
+        }
+    }
+}
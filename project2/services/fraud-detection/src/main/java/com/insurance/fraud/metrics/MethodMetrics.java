@@ -0,0 +1,68 @@
+package com.insurance.fraud.metrics;
+
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency recorder of one gRPC method. Every update is a striped add or a
+ * wait-free histogram record, so concurrent calls never contend on a lock.
+ */
+final class MethodMetrics {
+
+    private static final Status.Code[] CODES = Status.Code.values();
+
+    // Two significant digits keep each window histogram at a few KB
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    final String labels;
+
+    final LongAdder started = new LongAdder();
+    final LongAdder inFlight = new LongAdder();
+    final LongAdder messagesReceived = new LongAdder();
+    final LongAdder messagesSent = new LongAdder();
+    final LongAdder handlingNanos = new LongAdder();
+    final LongAdder[] handled = new LongAdder[CODES.length];
+
+    private final Recorder latencyMicros = new Recorder(SIGNIFICANT_DIGITS);
+    private volatile Histogram lastWindow = new Histogram(SIGNIFICANT_DIGITS);
+
+    MethodMetrics(MethodDescriptor<?, ?> method) {
+        this.labels = PrometheusText.labels(
+                "grpc_service", String.valueOf(method.getServiceName()),
+                "grpc_method", String.valueOf(method.getBareMethodName()),
+                "grpc_type", method.getType().name());
+        for (int i = 0; i < handled.length; i++) {
+            handled[i] = new LongAdder();
+        }
+    }
+
+    void onStart() {
+        started.increment();
+        inFlight.increment();
+    }
+
+    void onClose(Status.Code code, long durationNanos) {
+        inFlight.decrement();
+        handled[code.ordinal()].increment();
+        handlingNanos.add(durationNanos);
+        latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+    }
+
+    /** Closes the current latency window; readers see it until the next rotation. */
+    void rotateWindow() {
+        lastWindow = latencyMicros.getIntervalHistogram();
+    }
+
+    Histogram lastWindow() {
+        return lastWindow;
+    }
+
+    static Status.Code code(int ordinal) {
+        return CODES[ordinal];
+    }
+}
@@ -0,0 +1,118 @@
+package com.insurance.fraud.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Plain-HTTP management listener beside the gRPC port, built on the JDK's HTTP server:
+ *
+ * GET /metrics — Prometheus text rendered by every registered source
+ * GET /health  — {"status":"UP"} (200) while the server is serving, otherwise 503;
+ *                probed by the docker-compose health check
+ *
+ * Requests are served by a single daemon thread; a scrape only sums counters.
+ */
+public class MetricsHttpServer {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsHttpServer.class);
+
+    private final int port;
+    private final BooleanSupplier healthy;
+    private final List<Consumer<PrometheusText>> sources;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param port    listening port
+     * @param healthy whether the gRPC server is currently serving
+     * @param sources metric writers, rendered in order on every scrape
+     */
+    public MetricsHttpServer(int port, BooleanSupplier healthy, List<Consumer<PrometheusText>> sources) {
+        this.port = port;
+        this.healthy = healthy;
+        this.sources = List.copyOf(sources);
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", this::metrics);
+        server.createContext("/health", this::health);
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "management-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.start();
+        log.info("Management endpoints listening on port {} (/metrics, /health)", server.getAddress().getPort());
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private void metrics(HttpExchange exchange) throws IOException {
+        if (!isGet(exchange)) {
+            return;
+        }
+        PrometheusText out = new PrometheusText();
+        try {
+            sources.forEach(source -> source.accept(out));
+        } catch (RuntimeException e) {
+            log.error("Failed to render metrics", e);
+            respond(exchange, 500, "text/plain; charset=utf-8", "Failed to render metrics\n");
+            return;
+        }
+        respond(exchange, 200, PrometheusText.CONTENT_TYPE, out.toString());
+    }
+
+    private void health(HttpExchange exchange) throws IOException {
+        if (!isGet(exchange)) {
+            return;
+        }
+        boolean up = healthy.getAsBoolean();
+        respond(exchange, up ? 200 : 503, "application/json",
+                up ? "{\"status\":\"UP\"}" : "{\"status\":\"DOWN\"}");
+    }
+
+    private static boolean isGet(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        if (method.equals("GET") || method.equals("HEAD")) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+        exchange.sendResponseHeaders(405, -1);
+        exchange.close();
+        return false;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body)
+            throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        boolean head = exchange.getRequestMethod().equals("HEAD");
+        exchange.sendResponseHeaders(status, head ? -1 : bytes.length);
+        if (!head) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+        exchange.close();
+    }
+}
@@ -0,0 +1,182 @@
+package com.insurance.fraud.metrics;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Records per-method call counts, status codes, in-flight calls, messages in each
+ * direction and handling latency for every call through the server.
+ *
+ * Latency is measured from call start to close, which for the streaming RPCs is the
+ * stream duration. Percentiles are taken from HdrHistogram recorders and published per
+ * fixed window: a scrape reports the last completed window, so any number of scrapers
+ * see the same values. Counts and sums are cumulative.
+ */
+public class MetricsInterceptor implements ServerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsInterceptor.class);
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final ConcurrentMap<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                 Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        MethodDescriptor<ReqT, RespT> method = call.getMethodDescriptor();
+        MethodMetrics metrics = methods.get(method.getFullMethodName());
+        if (metrics == null) {
+            metrics = methods.computeIfAbsent(method.getFullMethodName(), name -> new MethodMetrics(method));
+        }
+
+        MonitoredCall<ReqT, RespT> monitored = new MonitoredCall<>(call, metrics);
+        metrics.onStart();
+        try {
+            return new MonitoredListener<>(next.startCall(monitored, headers), monitored);
+        } catch (RuntimeException e) {
+            monitored.finish(Status.Code.UNKNOWN);
+            throw e;
+        }
+    }
+
+    /** Closes the latency window of every method at a fixed rate on the given scheduler. */
+    public void scheduleWindowRotation(ScheduledExecutorService scheduler, long windowSeconds) {
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                methods.values().forEach(MethodMetrics::rotateWindow);
+            } catch (RuntimeException e) {
+                log.error("Latency window rotation failed", e);
+            }
+        }, windowSeconds, windowSeconds, TimeUnit.SECONDS);
+    }
+
+    public void writeTo(PrometheusText out) {
+        Collection<MethodMetrics> all = methods.values();
+
+        out.family("grpc_server_started_total", "counter", "RPCs started on the server.");
+        for (MethodMetrics metrics : all) {
+            out.sample("grpc_server_started_total", metrics.labels, metrics.started.sum());
+        }
+
+        out.family("grpc_server_handled_total", "counter", "RPCs completed on the server, by status code.");
+        for (MethodMetrics metrics : all) {
+            for (int i = 0; i < metrics.handled.length; i++) {
+                long count = metrics.handled[i].sum();
+                if (count > 0) {
+                    out.sample("grpc_server_handled_total",
+                            PrometheusText.withLabel(metrics.labels, "grpc_code", MethodMetrics.code(i).name()),
+                            count);
+                }
+            }
+        }
+
+        out.family("grpc_server_in_flight", "gauge", "RPCs currently in progress.");
+        for (MethodMetrics metrics : all) {
+            out.sample("grpc_server_in_flight", metrics.labels, metrics.inFlight.sum());
+        }
+
+        out.family("grpc_server_msg_received_total", "counter", "Messages received from clients.");
+        for (MethodMetrics metrics : all) {
+            out.sample("grpc_server_msg_received_total", metrics.labels, metrics.messagesReceived.sum());
+        }
+
+        out.family("grpc_server_msg_sent_total", "counter", "Messages sent to clients.");
+        for (MethodMetrics metrics : all) {
+            out.sample("grpc_server_msg_sent_total", metrics.labels, metrics.messagesSent.sum());
+        }
+
+        out.family("grpc_server_handling_seconds", "summary",
+                "Call duration (stream duration for streaming RPCs); quantiles cover the last window.");
+        for (MethodMetrics metrics : all) {
+            Histogram window = metrics.lastWindow();
+            for (double quantile : QUANTILES) {
+                double micros = window.getTotalCount() > 0 ? window.getValueAtPercentile(quantile * 100.0) : Double.NaN;
+                out.sample("grpc_server_handling_seconds",
+                        PrometheusText.withLabel(metrics.labels, "quantile", Double.toString(quantile)),
+                        micros / 1_000_000.0);
+            }
+            long completed = 0;
+            for (int i = 0; i < metrics.handled.length; i++) {
+                completed += metrics.handled[i].sum();
+            }
+            out.sample("grpc_server_handling_seconds_sum", metrics.labels, metrics.handlingNanos.sum() / 1e9);
+            out.sample("grpc_server_handling_seconds_count", metrics.labels, completed);
+        }
+    }
+
+    /** Counts outbound messages and records the call exactly once, at close or on cancellation. */
+    private static final class MonitoredCall<ReqT, RespT>
+            extends ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT> {
+
+        private static final AtomicIntegerFieldUpdater<MonitoredCall> FINISHED =
+                AtomicIntegerFieldUpdater.newUpdater(MonitoredCall.class, "finished");
+
+        private final MethodMetrics metrics;
+        private final long startNanos = System.nanoTime();
+        private volatile int finished;
+
+        MonitoredCall(ServerCall<ReqT, RespT> delegate, MethodMetrics metrics) {
+            super(delegate);
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void sendMessage(RespT message) {
+            metrics.messagesSent.increment();
+            super.sendMessage(message);
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            finish(status.getCode());
+            super.close(status, trailers);
+        }
+
+        void finish(Status.Code code) {
+            if (FINISHED.compareAndSet(this, 0, 1)) {
+                metrics.onClose(code, System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    private static final class MonitoredListener<ReqT>
+            extends ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
+
+        private final MonitoredCall<ReqT, ?> call;
+
+        MonitoredListener(ServerCall.Listener<ReqT> delegate, MonitoredCall<ReqT, ?> call) {
+            super(delegate);
+            this.call = call;
+        }
+
+        @Override
+        public void onMessage(ReqT message) {
+            call.metrics.messagesReceived.increment();
+            super.onMessage(message);
+        }
+
+        @Override
+        public void onCancel() {
+            // The client went away before the server closed the call
+            call.finish(Status.Code.CANCELLED);
+            super.onCancel();
+        }
+    }
+}
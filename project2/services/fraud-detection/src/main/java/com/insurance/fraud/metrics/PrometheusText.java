@@ -0,0 +1,76 @@
+package com.insurance.fraud.metrics;
+
+/**
+ * Writer for the Prometheus text exposition format (version 0.0.4). Samples of one
+ * metric family must follow its {@link #family} header without interruption.
+ */
+public final class PrometheusText {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final StringBuilder out = new StringBuilder(8192);
+
+    public PrometheusText family(String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    /** @param labels pre-rendered label pairs as built by {@link #labels}, or empty */
+    public PrometheusText sample(String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+        return this;
+    }
+
+    public PrometheusText gauge(String name, String help, double value) {
+        return family(name, "gauge", help).sample(name, "", value);
+    }
+
+    public PrometheusText counter(String name, String help, double value) {
+        return family(name, "counter", help).sample(name, "", value);
+    }
+
+    /** Renders alternating label names and values, escaping the values. */
+    public static String labels(String... namesAndValues) {
+        StringBuilder labels = new StringBuilder();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            if (i > 0) {
+                labels.append(',');
+            }
+            labels.append(namesAndValues[i]).append("=\"");
+            String value = namesAndValues[i + 1];
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                switch (c) {
+                    case '\\' -> labels.append("\\\\");
+                    case '"' -> labels.append("\\\"");
+                    case '\n' -> labels.append("\\n");
+                    default -> labels.append(c);
+                }
+            }
+            labels.append('"');
+        }
+        return labels.toString();
+    }
+
+    /** Appends one more label to a pre-rendered label string. */
+    public static String withLabel(String labels, String name, String value) {
+        String extra = labels(name, value);
+        return labels.isEmpty() ? extra : labels + ',' + extra;
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+}
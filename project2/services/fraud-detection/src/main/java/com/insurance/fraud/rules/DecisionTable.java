@@ -0,0 +1,129 @@
+package com.insurance.fraud.rules;
+
+import com.insurance.fraud.features.ClaimVelocity;
+import com.insurance.fraud.proto.RiskLevel;
+
+import java.util.List;
+
+/**
+ * Compiled, immutable form of one rule set.
+ *
+ * Conditions are stored column-wise in primitive arrays; an absent threshold is
+ * compiled to a value every input exceeds, so each row is evaluated with the same
+ * fixed set of comparisons joined by non-short-circuit ANDs instead of a per-rule
+ * branch tree. Evaluation allocates nothing.
+ */
+final class DecisionTable {
+
+    private final double[] amountAbove;
+    private final int[] previousClaimsAbove;
+    private final int[] claimsLastHourAbove;
+    private final int[] claimsLastDayAbove;
+    private final double[] amountLastDayAbove;
+    // 1 when the rule requires a duplicate hit, 0 otherwise
+    private final int[] duplicateAtLeast;
+    private final RuleOutcome[] outcomes;
+
+    private DecisionTable(double[] amountAbove,
+                          int[] previousClaimsAbove,
+                          int[] claimsLastHourAbove,
+                          int[] claimsLastDayAbove,
+                          double[] amountLastDayAbove,
+                          int[] duplicateAtLeast,
+                          RuleOutcome[] outcomes) {
+        this.amountAbove = amountAbove;
+        this.previousClaimsAbove = previousClaimsAbove;
+        this.claimsLastHourAbove = claimsLastHourAbove;
+        this.claimsLastDayAbove = claimsLastDayAbove;
+        this.amountLastDayAbove = amountLastDayAbove;
+        this.duplicateAtLeast = duplicateAtLeast;
+        this.outcomes = outcomes;
+    }
+
+    static DecisionTable compile(String ruleSetName, List<RuleDefinitions.Rule> rules) {
+        if (rules == null || rules.isEmpty()) {
+            throw new IllegalArgumentException("Rule set '" + ruleSetName + "' is empty");
+        }
+
+        int size = rules.size();
+        double[] amountAbove = new double[size];
+        int[] previousClaimsAbove = new int[size];
+        int[] claimsLastHourAbove = new int[size];
+        int[] claimsLastDayAbove = new int[size];
+        double[] amountLastDayAbove = new double[size];
+        int[] duplicateAtLeast = new int[size];
+        RuleOutcome[] outcomes = new RuleOutcome[size];
+
+        for (int i = 0; i < size; i++) {
+            RuleDefinitions.Rule rule = rules.get(i);
+            String ruleName = rule.name() != null ? rule.name() : ruleSetName + "#" + i;
+            RuleDefinitions.Condition when = rule.when() != null ? rule.when() : RuleDefinitions.Condition.ALWAYS;
+            RuleDefinitions.Outcome then = rule.then();
+
+            if (then == null || then.riskLevel() == null || then.riskLevel() == RiskLevel.UNRECOGNIZED) {
+                throw new IllegalArgumentException(
+                        "Rule '" + ruleName + "' in set '" + ruleSetName + "' has no valid riskLevel");
+            }
+            if (then.score() < 0.0 || then.score() > 1.0) {
+                throw new IllegalArgumentException(
+                        "Rule '" + ruleName + "' in set '" + ruleSetName + "' has a score outside [0, 1]");
+            }
+
+            amountAbove[i] = orNegativeInfinity(when.amountAbove());
+            previousClaimsAbove[i] = orMinValue(when.previousClaimsAbove());
+            claimsLastHourAbove[i] = orMinValue(when.claimsLastHourAbove());
+            claimsLastDayAbove[i] = orMinValue(when.claimsLastDayAbove());
+            amountLastDayAbove[i] = orNegativeInfinity(when.amountLastDayAbove());
+            boolean duplicateRule = Boolean.TRUE.equals(when.duplicateSuspected());
+            duplicateAtLeast[i] = duplicateRule ? 1 : 0;
+            outcomes[i] = new RuleOutcome(
+                    ruleName,
+                    then.riskLevel(),
+                    then.score(),
+                    then.reason() != null ? then.reason() : ruleName,
+                    then.investigate(),
+                    duplicateRule);
+        }
+
+        RuleDefinitions.Condition last = rules.get(size - 1).when();
+        if (last != null && !RuleDefinitions.Condition.ALWAYS.equals(last)) {
+            throw new IllegalArgumentException(
+                    "Rule set '" + ruleSetName + "' must end with a rule without conditions");
+        }
+
+        return new DecisionTable(amountAbove, previousClaimsAbove, claimsLastHourAbove,
+                claimsLastDayAbove, amountLastDayAbove, duplicateAtLeast, outcomes);
+    }
+
+    RuleOutcome evaluate(double amount, int previousClaims, ClaimVelocity velocity, boolean duplicate) {
+        int claimsLastHour = velocity.claimsLastHour();
+        int claimsLastDay = velocity.claimsLastDay();
+        double amountLastDay = velocity.amountLastDay();
+        int duplicateFlag = duplicate ? 1 : 0;
+
+        int last = outcomes.length - 1;
+        for (int i = 0; i < last; i++) {
+            if (amount > amountAbove[i]
+                    & previousClaims > previousClaimsAbove[i]
+                    & claimsLastHour > claimsLastHourAbove[i]
+                    & claimsLastDay > claimsLastDayAbove[i]
+                    & amountLastDay > amountLastDayAbove[i]
+                    & duplicateFlag >= duplicateAtLeast[i]) {
+                return outcomes[i];
+            }
+        }
+        return outcomes[last];
+    }
+
+    private static double orNegativeInfinity(Double threshold) {
+        return threshold != null ? threshold : Double.NEGATIVE_INFINITY;
+    }
+
+    private static int orMinValue(Integer threshold) {
+        return threshold != null ? threshold : Integer.MIN_VALUE;
+    }
+
+    int size() {
+        return outcomes.length;
+    }
+}
@@ -0,0 +1,50 @@
+package com.insurance.fraud.rules;
+
+import com.insurance.fraud.proto.RiskLevel;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON shape of a rule file, as written by analysts. Rules of a set are evaluated in
+ * order and the first match wins; a set must end with a rule without conditions.
+ *
+ * <pre>
+ * { "ruleSets": {
+ *     "DEFAULT": [ { "name": "high-amount",
+ *                    "when": { "amountAbove": 50000 },
+ *                    "then": { "riskLevel": "HIGH", "score": 0.8, "reason": "High claim amount",
+ *                              "investigate": true } }, ... ],
+ *     "AUTO":    [ ... ] } }
+ * </pre>
+ *
+ * The {@code DEFAULT} set is mandatory and applies to every claim type without its own set.
+ */
+public record RuleDefinitions(Map<String, List<Rule>> ruleSets) {
+
+    public static final String DEFAULT_RULE_SET = "DEFAULT";
+
+    public record Rule(String name, Condition when, Outcome then) {
+    }
+
+    /**
+     * All present thresholds must be exceeded (strictly) for the rule to match.
+     * {@code previousClaimsAbove} is compared with the larger of the caller-reported count
+     * and the claims observed on the policy over the last 30 days; the velocity thresholds
+     * only count claims observed by this service. {@code duplicateSuspected: true} requires
+     * the duplicate-claim index to have matched an earlier claim; false or absent ignores it.
+     */
+    public record Condition(Double amountAbove,
+                            Integer previousClaimsAbove,
+                            Integer claimsLastHourAbove,
+                            Integer claimsLastDayAbove,
+                            Double amountLastDayAbove,
+                            Boolean duplicateSuspected) {
+
+        /** A condition without thresholds, which every claim satisfies. */
+        public static final Condition ALWAYS = new Condition(null, null, null, null, null, null);
+    }
+
+    public record Outcome(RiskLevel riskLevel, double score, String reason, boolean investigate) {
+    }
+}
@@ -0,0 +1,221 @@
+package com.insurance.fraud.rules;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.fraud.features.ClaimVelocity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Evaluates claims against the current fraud rules.
+ *
+ * Rules are read from JSON (see {@link RuleDefinitions}), compiled into one
+ * {@link DecisionTable} per claim type and published as a single immutable snapshot
+ * through a volatile field. A reload builds a complete new snapshot off to the side and
+ * swaps the reference, so in-flight assessments keep using the snapshot they started
+ * with and are never blocked. A rule file that fails to parse or compile is rejected
+ * and the previous rules stay active.
+ */
+public class RuleEngine implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RuleEngine.class);
+
+    private static final String CLASSPATH_RULES = "/fraud-rules.json";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long RELOAD_SETTLE_MILLIS = 200L;
+
+    // Null when the rules come from the classpath
+    private final Path rulesFile;
+
+    private volatile CompiledRules rules;
+
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+
+    private WatchService watchService;
+    private Thread watcher;
+
+    private RuleEngine(Path rulesFile, CompiledRules rules) {
+        this.rulesFile = rulesFile;
+        this.rules = rules;
+    }
+
+    public static RuleEngine fromClasspath() {
+        try (InputStream in = RuleEngine.class.getResourceAsStream(CLASSPATH_RULES)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing classpath resource " + CLASSPATH_RULES);
+            }
+            CompiledRules rules = compile(MAPPER.readValue(in, RuleDefinitions.class));
+            log.info("Loaded fraud rules from classpath:{} ({})", CLASSPATH_RULES, rules.describe());
+            return new RuleEngine(null, rules);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + CLASSPATH_RULES, e);
+        }
+    }
+
+    public static RuleEngine fromFile(Path rulesFile) {
+        try {
+            CompiledRules rules = compile(MAPPER.readValue(rulesFile.toFile(), RuleDefinitions.class));
+            log.info("Loaded fraud rules from {} ({})", rulesFile.toAbsolutePath(), rules.describe());
+            return new RuleEngine(rulesFile, rules);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read fraud rules from " + rulesFile, e);
+        }
+    }
+
+    /**
+     * Returns the outcome of the first matching rule of the claim type's rule set,
+     * falling back to the DEFAULT set for claim types without their own rules.
+     */
+    public RuleOutcome evaluate(String claimType,
+                                double estimatedAmount,
+                                int previousClaimsCount,
+                                ClaimVelocity velocity,
+                                boolean duplicateSuspected) {
+        CompiledRules snapshot = rules;
+        DecisionTable table = snapshot.byClaimType().get(claimType);
+        if (table == null) {
+            table = snapshot.defaults();
+        }
+        return table.evaluate(estimatedAmount, previousClaimsCount, velocity, duplicateSuspected);
+    }
+
+    /**
+     * Re-reads the rule file and swaps the compiled rules in one step.
+     *
+     * @return true if the new rules were installed, false if they were rejected
+     */
+    public boolean reload() {
+        if (rulesFile == null) {
+            return false;
+        }
+        try {
+            CompiledRules reloaded = compile(MAPPER.readValue(rulesFile.toFile(), RuleDefinitions.class));
+            rules = reloaded;
+            log.info("Reloaded fraud rules from {} ({})", rulesFile.toAbsolutePath(), reloaded.describe());
+            reloadListeners.forEach(Runnable::run);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.error("Rejected fraud rule file {} — keeping previous rules: {}",
+                    rulesFile.toAbsolutePath(), e.getMessage());
+            return false;
+        }
+    }
+
+    /** Registers a callback run after every successful reload, on the reloading thread. */
+    public void addReloadListener(Runnable listener) {
+        reloadListeners.add(listener);
+    }
+
+    /**
+     * Starts a daemon thread that reloads the rules whenever the rule file is modified
+     * or replaced. Has no effect for classpath rules.
+     */
+    public synchronized void watch() throws IOException {
+        if (rulesFile == null || watcher != null) {
+            return;
+        }
+
+        Path file = rulesFile.toAbsolutePath();
+        Path directory = file.getParent();
+        Path fileName = file.getFileName();
+
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+
+        watcher = new Thread(() -> watchLoop(fileName), "fraud-rules-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+
+        log.info("Watching {} for fraud rule changes", file);
+    }
+
+    private void watchLoop(Path fileName) {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            boolean changed = containsFile(key, fileName);
+            if (!key.reset()) {
+                log.warn("Rule directory is no longer accessible — hot reload disabled");
+                return;
+            }
+
+            if (changed) {
+                // Editors and deploy tools write in several steps; wait for the burst of
+                // events to settle so a half-written file is not parsed
+                try {
+                    Thread.sleep(RELOAD_SETTLE_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                WatchKey pending;
+                while ((pending = watchService.poll()) != null) {
+                    pending.pollEvents();
+                    pending.reset();
+                }
+                reload();
+            }
+        }
+    }
+
+    private static boolean containsFile(WatchKey key, Path fileName) {
+        boolean found = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (fileName.equals(event.context())) {
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (watcher != null) {
+            watchService.close();
+            watcher.interrupt();
+            watcher = null;
+        }
+    }
+
+    static CompiledRules compile(RuleDefinitions definitions) {
+        if (definitions.ruleSets() == null
+                || !definitions.ruleSets().containsKey(RuleDefinitions.DEFAULT_RULE_SET)) {
+            throw new IllegalArgumentException(
+                    "Rule file must define a '" + RuleDefinitions.DEFAULT_RULE_SET + "' rule set");
+        }
+
+        Map<String, DecisionTable> byClaimType = new HashMap<>();
+        for (Map.Entry<String, List<RuleDefinitions.Rule>> ruleSet : definitions.ruleSets().entrySet()) {
+            byClaimType.put(ruleSet.getKey(), DecisionTable.compile(ruleSet.getKey(), ruleSet.getValue()));
+        }
+
+        DecisionTable defaults = byClaimType.remove(RuleDefinitions.DEFAULT_RULE_SET);
+        return new CompiledRules(Map.copyOf(byClaimType), defaults);
+    }
+
+    record CompiledRules(Map<String, DecisionTable> byClaimType, DecisionTable defaults) {
+
+        String describe() {
+            return "default=" + defaults.size() + " rules, claim types=" + byClaimType.keySet();
+        }
+    }
+}
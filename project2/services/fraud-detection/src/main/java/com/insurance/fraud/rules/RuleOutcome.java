@@ -0,0 +1,68 @@
+package com.insurance.fraud.rules;
+
+import com.insurance.fraud.proto.RiskLevel;
+
+/**
+ * Result of a matched rule. Instances are created once when a rule set is compiled
+ * and shared by every assessment that hits the rule.
+ */
+public final class RuleOutcome {
+
+    private final String ruleName;
+    private final RiskLevel riskLevel;
+    private final double riskScore;
+    private final String assessmentReason;
+    private final boolean requiresInvestigation;
+    private final String duplicateAssessmentReason;
+
+    RuleOutcome(String ruleName,
+                RiskLevel riskLevel,
+                double riskScore,
+                String assessmentReason,
+                boolean requiresInvestigation,
+                boolean duplicateRule) {
+        this.ruleName = ruleName;
+        this.riskLevel = riskLevel;
+        this.riskScore = riskScore;
+        this.assessmentReason = assessmentReason;
+        this.requiresInvestigation = requiresInvestigation;
+        // A duplicate rule's own reason already says so; others get the hint appended
+        this.duplicateAssessmentReason = duplicateRule
+                ? assessmentReason
+                : assessmentReason + " (possible duplicate submission)";
+    }
+
+    public String getRuleName() {
+        return ruleName;
+    }
+
+    public RiskLevel getRiskLevel() {
+        return riskLevel;
+    }
+
+    public double getRiskScore() {
+        return riskScore;
+    }
+
+    public String getAssessmentReason() {
+        return assessmentReason;
+    }
+
+    /** Reason to report when the claim was also flagged as a possible duplicate. */
+    public String getAssessmentReason(boolean duplicateSuspected) {
+        return duplicateSuspected ? duplicateAssessmentReason : assessmentReason;
+    }
+
+    public boolean isRequiresInvestigation() {
+        return requiresInvestigation;
+    }
+
+    @Override
+    public String toString() {
+        return "RuleOutcome{" +
+               "ruleName='" + ruleName + '\'' +
+               ", riskLevel=" + riskLevel +
+               ", riskScore=" + riskScore +
+               '}';
+    }
+}
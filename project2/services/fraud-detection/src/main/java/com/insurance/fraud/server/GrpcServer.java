@@ -1,34 +1,184 @@
 package com.insurance.fraud.server;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.insurance.fraud.config.FraudDetectionConfig;
+import com.insurance.fraud.features.DuplicateClaimIndex;
+import com.insurance.fraud.features.VelocityStore;
+import com.insurance.fraud.limits.AimdLimit;
+import com.insurance.fraud.limits.ConcurrencyLimitInterceptor;
+import com.insurance.fraud.metrics.MetricsHttpServer;
+import com.insurance.fraud.metrics.MetricsInterceptor;
+import com.insurance.fraud.metrics.PrometheusText;
+import com.insurance.fraud.rules.RuleEngine;
+import com.insurance.fraud.service.AssessmentCache;
 import com.insurance.fraud.service.FraudDetectionServiceImpl;
+import com.insurance.fraud.service.FraudScorer;
 import io.grpc.Server;
-import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.ServerChannel;
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollServerSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.grpc.netty.shaded.io.netty.util.concurrent.DefaultThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class GrpcServer {
 
     private static final Logger log = LoggerFactory.getLogger(GrpcServer.class);
 
-    private static final int PORT = 9090;
-    private static final long SHUTDOWN_GRACE_PERIOD_SECONDS = 30L;
+    private final FraudDetectionConfig config;
 
     private Server server;
+    private RuleEngine ruleEngine;
+    private VelocityStore velocityStore;
+    private DuplicateClaimIndex duplicateIndex;
+    private AssessmentCache resultCache;
+    private MetricsHttpServer managementServer;
+    private ScheduledExecutorService scheduler;
+    private ScheduledExecutorService velocitySweeper;
+    private ExecutorService callExecutor;
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup workerGroup;
+
+    public GrpcServer(FraudDetectionConfig config) {
+        this.config = config;
+    }
 
     public void start() throws IOException {
-        server = ServerBuilder
-                .forPort(PORT)
-                .addService(new FraudDetectionServiceImpl())
-                .build()
-                .start();
+        ruleEngine = config.rulesPath()
+                .map(RuleEngine::fromFile)
+                .orElseGet(RuleEngine::fromClasspath);
+        if (config.watchRules()) {
+            ruleEngine.watch();
+        }
+
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(
+                config.streamSchedulerThreads(), daemonThreadFactory("risk-updates"));
+        // Drop timers of cancelled streams right away instead of keeping them queued until they expire
+        timer.setRemoveOnCancelPolicy(true);
+        scheduler = timer;
+
+        velocityStore = new VelocityStore(config.velocityMaxPolicies(), config.velocityLockStripes());
+        // A sweep walks every tracked policy; on its own thread it cannot hold up stream stages
+        velocitySweeper = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("velocity-sweep"));
+        velocityStore.scheduleIdleEviction(velocitySweeper, config.velocitySweepIntervalSeconds());
+        duplicateIndex = new DuplicateClaimIndex(
+                config.duplicatesMaxEntries(),
+                config.duplicatesAmountTolerance(),
+                config.duplicatesBloomFilter());
+        resultCache = AssessmentCache.create(
+                config.cacheMaxEntries(), Duration.ofSeconds(config.cacheTtlSeconds()));
+
+        boolean epoll = useEpoll(config.transportType());
+        Class<? extends ServerChannel> channelType;
+        if (epoll) {
+            bossGroup = new EpollEventLoopGroup(config.bossThreads(), new DefaultThreadFactory("grpc-boss", true));
+            workerGroup = new EpollEventLoopGroup(config.workerThreads(), new DefaultThreadFactory("grpc-worker", true));
+            channelType = EpollServerSocketChannel.class;
+        } else {
+            bossGroup = new NioEventLoopGroup(config.bossThreads(), new DefaultThreadFactory("grpc-boss", true));
+            workerGroup = new NioEventLoopGroup(config.workerThreads(), new DefaultThreadFactory("grpc-worker", true));
+            channelType = NioServerSocketChannel.class;
+        }
+
+        NettyServerBuilder builder = NettyServerBuilder
+                .forPort(config.port())
+                .channelType(channelType)
+                .bossEventLoopGroup(bossGroup)
+                .workerEventLoopGroup(workerGroup)
+                .maxConcurrentCallsPerConnection(config.maxConcurrentCallsPerConnection())
+                .maxInboundMessageSize(config.maxInboundMessageSize())
+                .maxInboundMetadataSize(config.maxInboundMetadataSize())
+                .keepAliveTime(config.keepAliveTimeSeconds(), TimeUnit.SECONDS)
+                .keepAliveTimeout(config.keepAliveTimeoutSeconds(), TimeUnit.SECONDS)
+                .permitKeepAliveTime(config.permitKeepAliveTimeSeconds(), TimeUnit.SECONDS)
+                .permitKeepAliveWithoutCalls(config.permitKeepAliveWithoutCalls());
+
+        FraudDetectionServiceImpl service = new FraudDetectionServiceImpl(
+                new FraudScorer(ruleEngine, velocityStore, duplicateIndex, resultCache), scheduler);
+        // ServerInterceptors runs the last interceptor first: metrics see every call,
+        // including the ones the limiter rejects
+        List<ServerInterceptor> interceptors = new ArrayList<>();
+        List<Consumer<PrometheusText>> metricSources = new ArrayList<>();
+        if (config.limitsEnabled()) {
+            ConcurrencyLimitInterceptor limiter = new ConcurrencyLimitInterceptor(
+                    concurrencyLimit("unary"), concurrencyLimit("streaming"));
+            interceptors.add(limiter);
+            metricSources.add(limiter::writeTo);
+        }
+        if (config.managementEnabled()) {
+            MetricsInterceptor metrics = new MetricsInterceptor();
+            metrics.scheduleWindowRotation(scheduler, config.managementLatencyWindowSeconds());
+            interceptors.add(metrics);
+            metricSources.add(0, metrics::writeTo);
+            metricSources.add(this::writeServiceMetrics);
+        }
+        builder.addService(ServerInterceptors.intercept(service, interceptors));
+
+        if (config.flowControlAutoTune()) {
+            builder.initialFlowControlWindow(config.flowControlWindow());
+        } else {
+            builder.flowControlWindow(config.flowControlWindow());
+        }
+
+        if (config.maxConnectionIdleSeconds() > 0) {
+            builder.maxConnectionIdle(config.maxConnectionIdleSeconds(), TimeUnit.SECONDS);
+        }
+
+        switch (config.executorType()) {
+            case VIRTUAL -> {
+                callExecutor = Executors.newVirtualThreadPerTaskExecutor();
+                builder.executor(callExecutor);
+            }
+            case FIXED -> {
+                callExecutor = Executors.newFixedThreadPool(
+                        config.executorThreads(), daemonThreadFactory("grpc-call"));
+                builder.executor(callExecutor);
+            }
+            case DIRECT -> builder.directExecutor();
+            case DEFAULT -> {
+                // grpc-java's shared cached thread pool
+            }
+        }
 
-        log.info("gRPC server is listening on port {}", PORT);
+        server = builder.build().start();
+
+        log.info("gRPC server is listening on port {} (transport={}, executor={}, "
+                        + "maxConcurrentCallsPerConnection={})",
+                server.getPort(),
+                epoll ? "epoll" : "nio",
+                config.executorType(),
+                config.maxConcurrentCallsPerConnection());
         log.info("Available service: FraudDetectionService");
-        log.info("  - AssessFraudRisk  (unary RPC)");
-        log.info("  - StreamRiskUpdates (server-streaming RPC)");
+        log.info("  - AssessFraudRisk      (unary RPC)");
+        log.info("  - StreamRiskUpdates    (server-streaming RPC)");
+        log.info("  - AssessFraudRiskBatch (bidirectional-streaming RPC)");
+
+        if (config.managementEnabled()) {
+            Server grpcServer = server;
+            managementServer = new MetricsHttpServer(
+                    config.managementPort(), () -> !grpcServer.isShutdown(), metricSources);
+            managementServer.start();
+        }
 
         // Graceful shutdown on SIGTERM / SIGINT
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
@@ -48,19 +198,65 @@ public class GrpcServer {
             return;
         }
 
-        log.info("Shutting down gRPC server (grace period: {}s) ...",
-                SHUTDOWN_GRACE_PERIOD_SECONDS);
+        long gracePeriodSeconds = config.shutdownGracePeriodSeconds();
+        log.info("Shutting down gRPC server (grace period: {}s) ...", gracePeriodSeconds);
 
         server.shutdown();
 
-        boolean terminated = server.awaitTermination(
-                SHUTDOWN_GRACE_PERIOD_SECONDS, TimeUnit.SECONDS);
+        boolean terminated = server.awaitTermination(gracePeriodSeconds, TimeUnit.SECONDS);
 
         if (!terminated) {
             log.warn("Grace period elapsed — forcing immediate shutdown.");
             server.shutdownNow();
             server.awaitTermination(5, TimeUnit.SECONDS);
         }
+
+        if (resultCache.isEnabled()) {
+            log.info("Assessment cache at shutdown: {} entries, {}", resultCache.size(), resultCache.stats());
+        }
+        if (managementServer != null) {
+            managementServer.stop();
+        }
+
+        scheduler.shutdownNow();
+        velocitySweeper.shutdownNow();
+        try {
+            ruleEngine.close();
+        } catch (IOException e) {
+            log.warn("Failed to stop fraud rule watcher: {}", e.getMessage());
+        }
+        if (callExecutor != null) {
+            callExecutor.shutdownNow();
+        }
+        // The server does not own event loop groups it was handed, so release them here
+        bossGroup.shutdownGracefully(0, 5, TimeUnit.SECONDS);
+        workerGroup.shutdownGracefully(0, 5, TimeUnit.SECONDS);
+    }
+
+    private AimdLimit concurrencyLimit(String callClass) {
+        return new AimdLimit(
+                config.limitsInitial(callClass),
+                config.limitsMin(callClass),
+                config.limitsMax(callClass),
+                config.limitsBackoffRatio(),
+                TimeUnit.MILLISECONDS.toNanos(config.limitsLatencyTargetMillis(callClass)));
+    }
+
+    private void writeServiceMetrics(PrometheusText out) {
+        out.gauge("fraud_velocity_policies", "Policies tracked by the velocity store.", velocityStore.size());
+        out.counter("fraud_velocity_evictions_total", "Policies evicted from the velocity store.",
+                velocityStore.evictions());
+        out.counter("fraud_duplicate_hits_total", "Claims flagged as possible duplicates.",
+                duplicateIndex.duplicateHits());
+
+        CacheStats cacheStats = resultCache.stats();
+        out.gauge("fraud_cache_entries", "Assessments held by the result cache.", resultCache.size());
+        out.counter("fraud_cache_hits_total", "Resent requests answered from the result cache.",
+                cacheStats.hitCount());
+        out.counter("fraud_cache_misses_total", "Requests scored because they were not cached.",
+                cacheStats.missCount());
+        out.counter("fraud_cache_evictions_total", "Result cache entries evicted by size or expiry.",
+                cacheStats.evictionCount());
     }
 
     public void blockUntilShutdown() throws InterruptedException {
@@ -68,4 +264,28 @@ public class GrpcServer {
             server.awaitTermination();
         }
     }
+
+    private static boolean useEpoll(FraudDetectionConfig.TransportType transport) {
+        return switch (transport) {
+            case NIO -> false;
+            case AUTO -> Epoll.isAvailable();
+            case EPOLL -> {
+                if (!Epoll.isAvailable()) {
+                    throw new IllegalStateException(
+                            "grpc.netty.transport=epoll but the native epoll transport is unavailable",
+                            Epoll.unavailabilityCause());
+                }
+                yield true;
+            }
+        };
+    }
+
+    private static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
 }
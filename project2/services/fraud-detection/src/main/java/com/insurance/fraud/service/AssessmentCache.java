@@ -0,0 +1,81 @@
+package com.insurance.fraud.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.insurance.fraud.proto.FraudAssessmentRequest;
+import com.insurance.fraud.proto.FraudAssessmentResponse;
+
+import java.time.Duration;
+
+/**
+ * Responses of recent assessments, keyed by the complete request message.
+ *
+ * Workflow retries and reconciliation jobs resend byte-identical requests; protobuf
+ * messages implement value equality over every field and memoize their hash code, so
+ * the request itself is the key and only an exact resend hits. Responses are immutable
+ * and also memoize their serialized size, so a hit is returned as is: no rescoring, no
+ * rebuilding, and the velocity store and duplicate index are not fed a second time.
+ *
+ * Entries expire a fixed time after they were written, and the cache is bounded by
+ * entry count (W-TinyLFU eviction). Every entry is dropped when the fraud rules are
+ * reloaded, so a hit never reflects rules that are no longer active.
+ */
+public class AssessmentCache {
+
+    private final Cache<FraudAssessmentRequest, FraudAssessmentResponse> cache;
+
+    private AssessmentCache(Cache<FraudAssessmentRequest, FraudAssessmentResponse> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * @param maxEntries maximum number of cached responses; 0 disables caching
+     * @param ttl        time after which an entry expires
+     */
+    public static AssessmentCache create(long maxEntries, Duration ttl) {
+        if (maxEntries <= 0) {
+            return disabled();
+        }
+        return new AssessmentCache(Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+    }
+
+    /** A cache that never holds anything. */
+    public static AssessmentCache disabled() {
+        return new AssessmentCache(null);
+    }
+
+    /** Returns the cached response for an identical request, or null. */
+    public FraudAssessmentResponse get(FraudAssessmentRequest request) {
+        return cache != null ? cache.getIfPresent(request) : null;
+    }
+
+    public void put(FraudAssessmentRequest request, FraudAssessmentResponse response) {
+        if (cache != null) {
+            cache.put(request, response);
+        }
+    }
+
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /** Hit, miss and eviction counts since start-up. */
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : CacheStats.empty();
+    }
+
+    public long size() {
+        return cache != null ? cache.estimatedSize() : 0L;
+    }
+}
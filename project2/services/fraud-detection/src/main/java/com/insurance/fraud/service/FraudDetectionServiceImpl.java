@@ -1,25 +1,42 @@
 package com.insurance.fraud.service;
 
+import com.insurance.fraud.features.ClaimVelocity;
 import com.insurance.fraud.proto.FraudAssessmentRequest;
 import com.insurance.fraud.proto.FraudAssessmentResponse;
 import com.insurance.fraud.proto.FraudDetectionServiceGrpc;
-import com.insurance.fraud.proto.RiskLevel;
 import com.insurance.fraud.proto.RiskUpdate;
+import com.insurance.fraud.rules.RuleEngine;
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
 /**
  * gRPC service implementation for fraud detection.
  *
- * AssessFraudRisk  — unary RPC, evaluates a single claim
- * StreamRiskUpdates — server-streaming RPC, sends 3 progressive analysis stages
+ * AssessFraudRisk      — unary RPC, evaluates a single claim
+ * StreamRiskUpdates    — server-streaming RPC, sends 3 progressive analysis stages
+ *                        paced by a shared scheduler (no thread is held between stages)
+ * AssessFraudRiskBatch — bidirectional-streaming RPC, evaluates a stream of claims
+ *                        with inbound demand driven by outbound readiness
  *
- * Risk scoring rules (AssessFraudRisk):
+ * Risk scoring rules are external (fraud-rules.json, one rule set per claim type) and
+ * evaluated by the {@link RuleEngine} through the {@link FraudScorer}. The bundled
+ * defaults are:
  *   amount > 100 000  -> CRITICAL (0.95), investigation required
+ *   possible duplicate -> HIGH (0.90), investigation required; a duplicate is another
+ *                         claim id on the same policy, incident date and claim type
+ *                         with an amount within the configured tolerance
  *   amount > 50 000   -> HIGH (0.80), investigation required
- *   previousClaims > 3 -> MEDIUM (0.60)
+ *   claims on the policy in the last 24h > 2 -> HIGH (0.75), investigation required
+ *   previousClaims > 3 -> MEDIUM (0.60), where previousClaims is the larger of the
+ *                         reported count and the claims seen over the last 30 days
  *   amount > 10 000   -> MEDIUM (0.40)
  *   default           -> LOW (0.10)
  */
@@ -28,6 +45,21 @@ public class FraudDetectionServiceImpl
 
     private static final Logger log = LoggerFactory.getLogger(FraudDetectionServiceImpl.class);
 
+    private static final long STAGE_INTERVAL_MILLIS = 500L;
+
+    private final FraudScorer scorer;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param scorer    scores claims and feeds the cross-request features
+     * @param scheduler shared timer used to pace StreamRiskUpdates stages; owned by
+     *                  the caller, which is responsible for shutting it down
+     */
+    public FraudDetectionServiceImpl(FraudScorer scorer, ScheduledExecutorService scheduler) {
+        this.scorer = scorer;
+        this.scheduler = scheduler;
+    }
+
     @Override
     public void assessFraudRisk(
             FraudAssessmentRequest request,
@@ -47,8 +79,7 @@ public class FraudDetectionServiceImpl
                 previousClaimsCount);
 
         try {
-            FraudAssessmentResponse response = buildAssessment(
-                    claimId, estimatedAmount, previousClaimsCount);
+            FraudAssessmentResponse response = scorer.assess(request);
 
             log.info("[AssessFraudRisk] claimId={} -> riskLevel={} score={} investigation={}",
                     claimId,
@@ -74,142 +105,282 @@ public class FraudDetectionServiceImpl
             FraudAssessmentRequest request,
             StreamObserver<RiskUpdate> responseObserver) {
 
-        String claimId = request.getClaimId();
-        double estimatedAmount = request.getEstimatedAmount();
+        ServerCallStreamObserver<RiskUpdate> serverObserver =
+                (ServerCallStreamObserver<RiskUpdate>) responseObserver;
 
-        log.info("[StreamRiskUpdates] Starting streaming analysis for claimId={}", claimId);
+        log.info("[StreamRiskUpdates] Starting streaming analysis for claimId={}", request.getClaimId());
 
-        try {
-            // Stage 1: data validation
-            RiskUpdate stage1 = RiskUpdate.newBuilder()
-                    .setMessage(String.format(
-                            "[Stage 1/3] Claim %s received. Validating data integrity and "
-                                    + "cross-referencing policy records ...",
-                            claimId))
-                    .setCurrentScore(0.10)
-                    .build();
-
-            log.debug("[StreamRiskUpdates] Sending stage 1 update for claimId={}", claimId);
-            responseObserver.onNext(stage1);
-            Thread.sleep(500);
-
-            // Stage 2: behavioural pattern analysis
-            double intermediateScore = computeIntermediateScore(
-                    estimatedAmount, request.getPreviousClaimsCount());
-
-            RiskUpdate stage2 = RiskUpdate.newBuilder()
-                    .setMessage(String.format(
-                            "[Stage 2/3] Claim %s — analysing historical patterns. "
-                                    + "Amount: %.2f | Previous claims: %d | Intermediate score: %.2f",
-                            claimId,
-                            estimatedAmount,
-                            request.getPreviousClaimsCount(),
-                            intermediateScore))
-                    .setCurrentScore(intermediateScore)
-                    .build();
-
-            log.debug("[StreamRiskUpdates] Sending stage 2 update for claimId={}, score={}",
-                    claimId, intermediateScore);
-            responseObserver.onNext(stage2);
-            Thread.sleep(500);
-
-            // Stage 3: final score
-            FraudAssessmentResponse finalAssessment = buildAssessment(
-                    claimId, estimatedAmount, request.getPreviousClaimsCount());
-
-            RiskUpdate stage3 = RiskUpdate.newBuilder()
-                    .setMessage(String.format(
-                            "[Stage 3/3] Claim %s — analysis complete. "
-                                    + "Final risk level: %s | Score: %.2f | Requires investigation: %b",
-                            claimId,
-                            finalAssessment.getRiskLevel().name(),
-                            finalAssessment.getRiskScore(),
-                            finalAssessment.getRequiresInvestigation()))
-                    .setCurrentScore(finalAssessment.getRiskScore())
-                    .build();
-
-            log.debug("[StreamRiskUpdates] Sending stage 3 (final) update for claimId={}", claimId);
-            responseObserver.onNext(stage3);
-            Thread.sleep(500);
-
-            log.info("[StreamRiskUpdates] Stream completed for claimId={}", claimId);
-            responseObserver.onCompleted();
+        // Stage 1 is sent from the calling thread; later stages are paced by the shared
+        // scheduler rather than by sleeping, so the gRPC thread is released immediately
+        // and an open stream costs nothing but a pending timer between stages.
+        RiskUpdateStream stream = new RiskUpdateStream(request, serverObserver);
+        serverObserver.setOnCancelHandler(stream::cancel);
+        stream.run();
+    }
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.warn("[StreamRiskUpdates] Stream interrupted for claimId={}", claimId);
-            responseObserver.onError(
-                    Status.CANCELLED
-                            .withDescription("Risk update stream was interrupted for claim: " + claimId)
-                            .withCause(e)
-                            .asRuntimeException());
-        } catch (Exception e) {
-            log.error("[StreamRiskUpdates] Unexpected error for claimId={}", claimId, e);
-            responseObserver.onError(
-                    Status.INTERNAL
-                            .withDescription("Internal error during risk streaming: " + e.getMessage())
-                            .withCause(e)
-                            .asRuntimeException());
+    /**
+     * One StreamRiskUpdates call. Each stage runs as a separate scheduler task and
+     * schedules the next one, so at most one task per stream is ever pending and
+     * the response observer is never touched by two threads at once.
+     */
+    private final class RiskUpdateStream implements Runnable {
+
+        private final FraudAssessmentRequest request;
+        private final ServerCallStreamObserver<RiskUpdate> responseObserver;
+
+        private int stage;
+        private volatile boolean cancelled;
+        private volatile ScheduledFuture<?> pending;
+
+        RiskUpdateStream(FraudAssessmentRequest request,
+                         ServerCallStreamObserver<RiskUpdate> responseObserver) {
+            this.request = request;
+            this.responseObserver = responseObserver;
         }
-    }
 
-    private FraudAssessmentResponse buildAssessment(
-            String claimId,
-            double estimatedAmount,
-            int previousClaimsCount) {
-
-        RiskLevel riskLevel;
-        double riskScore;
-        String assessmentReason;
-        boolean requiresInvestigation;
-
-        if (estimatedAmount > 100_000) {
-            riskLevel = RiskLevel.CRITICAL;
-            riskScore = 0.95;
-            assessmentReason = "Extremely high claim amount";
-            requiresInvestigation = true;
-
-        } else if (estimatedAmount > 50_000) {
-            riskLevel = RiskLevel.HIGH;
-            riskScore = 0.80;
-            assessmentReason = "High claim amount";
-            requiresInvestigation = true;
-
-        } else if (previousClaimsCount > 3) {
-            riskLevel = RiskLevel.MEDIUM;
-            riskScore = 0.60;
-            assessmentReason = "Multiple previous claims";
-            requiresInvestigation = false;
-
-        } else if (estimatedAmount > 10_000) {
-            riskLevel = RiskLevel.MEDIUM;
-            riskScore = 0.40;
-            assessmentReason = "Moderate claim amount";
-            requiresInvestigation = false;
-
-        } else {
-            riskLevel = RiskLevel.LOW;
-            riskScore = 0.10;
-            assessmentReason = "Standard claim";
-            requiresInvestigation = false;
+        void schedule(long delayMillis) {
+            try {
+                pending = scheduler.schedule(this, delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                log.warn("[StreamRiskUpdates] Scheduler unavailable for claimId={}", request.getClaimId());
+                responseObserver.onError(
+                        Status.UNAVAILABLE
+                                .withDescription("Server is shutting down")
+                                .withCause(e)
+                                .asRuntimeException());
+                return;
+            }
+            // cancel() may have run between the check in run() and the assignment above
+            if (cancelled) {
+                pending.cancel(false);
+            }
         }
 
-        return FraudAssessmentResponse.newBuilder()
-                .setClaimId(claimId)
-                .setRiskLevel(riskLevel)
-                .setRiskScore(riskScore)
-                .setAssessmentReason(assessmentReason)
-                .setRequiresInvestigation(requiresInvestigation)
+        void cancel() {
+            cancelled = true;
+            ScheduledFuture<?> task = pending;
+            if (task != null) {
+                task.cancel(false);
+            }
+            log.warn("[StreamRiskUpdates] Stream cancelled by client for claimId={}", request.getClaimId());
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+
+            String claimId = request.getClaimId();
+
+            try {
+                stage++;
+                switch (stage) {
+                    case 1 -> {
+                        log.debug("[StreamRiskUpdates] Sending stage 1 update for claimId={}", claimId);
+                        responseObserver.onNext(buildStage1(request));
+                        schedule(STAGE_INTERVAL_MILLIS);
+                    }
+                    case 2 -> {
+                        RiskUpdate stage2 = buildStage2(request);
+                        log.debug("[StreamRiskUpdates] Sending stage 2 update for claimId={}, score={}",
+                                claimId, stage2.getCurrentScore());
+                        responseObserver.onNext(stage2);
+                        schedule(STAGE_INTERVAL_MILLIS);
+                    }
+                    case 3 -> {
+                        log.debug("[StreamRiskUpdates] Sending stage 3 (final) update for claimId={}", claimId);
+                        responseObserver.onNext(buildStage3(request));
+                        schedule(STAGE_INTERVAL_MILLIS);
+                    }
+                    default -> {
+                        log.info("[StreamRiskUpdates] Stream completed for claimId={}", claimId);
+                        responseObserver.onCompleted();
+                    }
+                }
+            } catch (Exception e) {
+                log.error("[StreamRiskUpdates] Unexpected error for claimId={}", claimId, e);
+                responseObserver.onError(
+                        Status.INTERNAL
+                                .withDescription("Internal error during risk streaming: " + e.getMessage())
+                                .withCause(e)
+                                .asRuntimeException());
+            }
+        }
+    }
+
+    // Stage 1: data validation
+    private RiskUpdate buildStage1(FraudAssessmentRequest request) {
+        return RiskUpdate.newBuilder()
+                .setMessage(String.format(
+                        "[Stage 1/3] Claim %s received. Validating data integrity and "
+                                + "cross-referencing policy records ...",
+                        request.getClaimId()))
+                .setCurrentScore(0.10)
                 .build();
     }
 
-    private double computeIntermediateScore(double estimatedAmount, int previousClaimsCount) {
-        // Amount signal: map to [0, 0.7] capped at 100 000
-        double amountSignal = Math.min(estimatedAmount / 100_000.0, 1.0) * 0.70;
+    // Stage 2: behavioural pattern analysis
+    private RiskUpdate buildStage2(FraudAssessmentRequest request) {
+        int previousClaims = scorer.previousClaims(request);
+        double intermediateScore = FraudScorer.computeIntermediateScore(request.getEstimatedAmount(), previousClaims);
+
+        return RiskUpdate.newBuilder()
+                .setMessage(String.format(
+                        "[Stage 2/3] Claim %s — analysing historical patterns. "
+                                + "Amount: %.2f | Previous claims: %d | Intermediate score: %.2f",
+                        request.getClaimId(),
+                        request.getEstimatedAmount(),
+                        previousClaims,
+                        intermediateScore))
+                .setCurrentScore(intermediateScore)
+                .build();
+    }
 
-        // Frequency signal: each claim above baseline adds 0.06, capped at 0.30
-        double frequencySignal = Math.min(Math.max(previousClaimsCount - 1, 0) * 0.06, 0.30);
+    // Stage 3: final score
+    private RiskUpdate buildStage3(FraudAssessmentRequest request) {
+        FraudAssessmentResponse finalAssessment = scorer.preview(request);
+
+        return RiskUpdate.newBuilder()
+                .setMessage(String.format(
+                        "[Stage 3/3] Claim %s — analysis complete. "
+                                + "Final risk level: %s | Score: %.2f | Requires investigation: %b",
+                        request.getClaimId(),
+                        finalAssessment.getRiskLevel().name(),
+                        finalAssessment.getRiskScore(),
+                        finalAssessment.getRequiresInvestigation()))
+                .setCurrentScore(finalAssessment.getRiskScore())
+                .build();
+    }
+
+    @Override
+    public StreamObserver<FraudAssessmentRequest> assessFraudRiskBatch(
+            StreamObserver<FraudAssessmentResponse> responseObserver) {
+
+        ServerCallStreamObserver<FraudAssessmentResponse> serverObserver =
+                (ServerCallStreamObserver<FraudAssessmentResponse>) responseObserver;
+
+        // Manual flow control: a request is only pulled from the transport once the
+        // previous response has been handed to a ready outbound stream, so a slow
+        // client applies back-pressure all the way to the sender instead of letting
+        // responses pile up in server memory.
+        serverObserver.disableAutoRequest();
+        BatchFlowControl flowControl = new BatchFlowControl(serverObserver);
+        serverObserver.setOnReadyHandler(flowControl);
+
+        log.info("[AssessFraudRiskBatch] Batch stream opened");
+
+        AssessmentBatch batch = new AssessmentBatch(serverObserver, flowControl);
+        serverObserver.setOnCancelHandler(batch::cancel);
+        return batch;
+    }
+
+    /**
+     * Inbound side of one AssessFraudRiskBatch call. Once the call has ended, because
+     * a claim failed, the client aborted or the call was cancelled, later inbound
+     * events are ignored, so the response observer is never completed twice. gRPC
+     * delivers these callbacks and the cancel handler serially.
+     */
+    private final class AssessmentBatch implements StreamObserver<FraudAssessmentRequest> {
+
+        private final ServerCallStreamObserver<FraudAssessmentResponse> serverObserver;
+        private final BatchFlowControl flowControl;
+
+        // Refilled for every claim; onNext calls never overlap
+        private final ClaimVelocity velocity = new ClaimVelocity();
+        private long processed;
+        private boolean closed;
+
+        AssessmentBatch(ServerCallStreamObserver<FraudAssessmentResponse> serverObserver,
+                        BatchFlowControl flowControl) {
+            this.serverObserver = serverObserver;
+            this.flowControl = flowControl;
+        }
+
+        @Override
+        public void onNext(FraudAssessmentRequest request) {
+            if (closed) {
+                return;
+            }
+            try {
+                FraudAssessmentResponse response = scorer.assess(request, velocity);
+
+                log.debug("[AssessFraudRiskBatch] claimId={} -> riskLevel={} score={}",
+                        response.getClaimId(),
+                        response.getRiskLevel(),
+                        response.getRiskScore());
+
+                serverObserver.onNext(response);
+                processed++;
+                flowControl.requestNextIfReady();
+
+            } catch (Exception e) {
+                log.error("[AssessFraudRiskBatch] Unexpected error for claimId={}",
+                        request.getClaimId(), e);
+                closed = true;
+                serverObserver.onError(
+                        Status.INTERNAL
+                                .withDescription("Internal error during batch fraud assessment of claim "
+                                        + request.getClaimId() + ": " + e.getMessage())
+                                .withCause(e)
+                                .asRuntimeException());
+            }
+        }
 
-        return Math.round((amountSignal + frequencySignal) * 100.0) / 100.0;
+        @Override
+        public void onError(Throwable t) {
+            closed = true;
+            log.warn("[AssessFraudRiskBatch] Client aborted batch stream after {} claims: {}",
+                    processed, Status.fromThrowable(t));
+        }
+
+        @Override
+        public void onCompleted() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            log.info("[AssessFraudRiskBatch] Batch stream completed, {} claims assessed", processed);
+            serverObserver.onCompleted();
+        }
+
+        void cancel() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            log.warn("[AssessFraudRiskBatch] Batch stream cancelled by client after {} claims", processed);
+        }
+    }
+
+    /**
+     * Requests one inbound message at a time, and only while the outbound side is
+     * ready. gRPC invokes the on-ready handler and the inbound observer serially,
+     * so the plain field is safe.
+     */
+    private static final class BatchFlowControl implements Runnable {
+
+        private final ServerCallStreamObserver<FraudAssessmentResponse> serverObserver;
+        private boolean awaitingReady = true;
+
+        BatchFlowControl(ServerCallStreamObserver<FraudAssessmentResponse> serverObserver) {
+            this.serverObserver = serverObserver;
+        }
+
+        @Override
+        public void run() {
+            if (awaitingReady && serverObserver.isReady()) {
+                awaitingReady = false;
+                serverObserver.request(1);
+            }
+        }
+
+        void requestNextIfReady() {
+            if (serverObserver.isReady()) {
+                serverObserver.request(1);
+            } else {
+                awaitingReady = true;
+            }
+        }
     }
 }
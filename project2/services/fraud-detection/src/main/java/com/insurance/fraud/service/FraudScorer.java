@@ -0,0 +1,130 @@
+package com.insurance.fraud.service;
+
+import com.insurance.fraud.features.ClaimVelocity;
+import com.insurance.fraud.features.DuplicateClaimIndex;
+import com.insurance.fraud.features.VelocityStore;
+import com.insurance.fraud.proto.FraudAssessmentRequest;
+import com.insurance.fraud.proto.FraudAssessmentResponse;
+import com.insurance.fraud.rules.RuleEngine;
+import com.insurance.fraud.rules.RuleOutcome;
+
+/**
+ * Scores claims against the current rules and the features observed across requests.
+ * Transport-agnostic, so the gRPC service and the benchmarks share the exact same path.
+ * Exact resends of a request are answered from the {@link AssessmentCache}.
+ */
+public class FraudScorer {
+
+    private final RuleEngine ruleEngine;
+    private final VelocityStore velocityStore;
+    private final DuplicateClaimIndex duplicateIndex;
+    private final AssessmentCache resultCache;
+
+    /**
+     * @param ruleEngine     current fraud rules
+     * @param velocityStore  per-policy claim velocity, fed by every assessment
+     * @param duplicateIndex recently assessed claims, fed by every assessment
+     * @param resultCache    responses of recent assessments; emptied on every rule reload
+     */
+    public FraudScorer(RuleEngine ruleEngine,
+                       VelocityStore velocityStore,
+                       DuplicateClaimIndex duplicateIndex,
+                       AssessmentCache resultCache) {
+        this.ruleEngine = ruleEngine;
+        this.velocityStore = velocityStore;
+        this.duplicateIndex = duplicateIndex;
+        this.resultCache = resultCache;
+        ruleEngine.addReloadListener(resultCache::invalidateAll);
+    }
+
+    /**
+     * Records the claim in the velocity store and the duplicate index, then scores it
+     * against what was known before it arrived. A resend of an identical request gets
+     * the cached response and is not recorded again.
+     */
+    public FraudAssessmentResponse assess(FraudAssessmentRequest request) {
+        return assess(request, new ClaimVelocity());
+    }
+
+    /**
+     * Same as {@link #assess(FraudAssessmentRequest)}, using {@code velocity} as scratch
+     * space for the policy's velocity, so a stream of claims can reuse one instance.
+     */
+    public FraudAssessmentResponse assess(FraudAssessmentRequest request, ClaimVelocity velocity) {
+        FraudAssessmentResponse cached = resultCache.get(request);
+        if (cached != null) {
+            return cached;
+        }
+
+        velocityStore.record(
+                request.getPolicyNumber(),
+                request.getClaimId(),
+                request.getEstimatedAmount(),
+                System.currentTimeMillis(),
+                velocity);
+        boolean duplicateSuspected = duplicateIndex.checkAndRecord(
+                request.getPolicyNumber(),
+                request.getIncidentDate(),
+                request.getClaimType(),
+                request.getClaimId(),
+                request.getEstimatedAmount());
+        FraudAssessmentResponse response = buildAssessment(request, velocity, duplicateSuspected);
+        resultCache.put(request, response);
+        return response;
+    }
+
+    /** Scores the claim against the current features without recording it. */
+    public FraudAssessmentResponse preview(FraudAssessmentRequest request) {
+        return buildAssessment(
+                request,
+                velocityStore.peek(request.getPolicyNumber(), System.currentTimeMillis()),
+                duplicateIndex.isDuplicate(
+                        request.getPolicyNumber(),
+                        request.getIncidentDate(),
+                        request.getClaimType(),
+                        request.getClaimId(),
+                        request.getEstimatedAmount()));
+    }
+
+    /** Previous claims used for scoring, without recording the claim. */
+    public int previousClaims(FraudAssessmentRequest request) {
+        return effectivePreviousClaims(
+                request, velocityStore.peek(request.getPolicyNumber(), System.currentTimeMillis()));
+    }
+
+    /** Scores the claim against the given features; the stores are not touched. */
+    public FraudAssessmentResponse buildAssessment(FraudAssessmentRequest request,
+                                                   ClaimVelocity velocity,
+                                                   boolean duplicateSuspected) {
+        RuleOutcome outcome = ruleEngine.evaluate(
+                request.getClaimType(),
+                request.getEstimatedAmount(),
+                effectivePreviousClaims(request, velocity),
+                velocity,
+                duplicateSuspected);
+
+        return FraudAssessmentResponse.newBuilder()
+                .setClaimId(request.getClaimId())
+                .setRiskLevel(outcome.getRiskLevel())
+                .setRiskScore(outcome.getRiskScore())
+                .setAssessmentReason(outcome.getAssessmentReason(duplicateSuspected))
+                .setRequiresInvestigation(outcome.isRequiresInvestigation())
+                .build();
+    }
+
+    /** Heuristic score reported by the second StreamRiskUpdates stage. */
+    public static double computeIntermediateScore(double estimatedAmount, int previousClaimsCount) {
+        // Amount signal: map to [0, 0.7] capped at 100 000
+        double amountSignal = Math.min(estimatedAmount / 100_000.0, 1.0) * 0.70;
+
+        // Frequency signal: each claim above baseline adds 0.06, capped at 0.30
+        double frequencySignal = Math.min(Math.max(previousClaimsCount - 1, 0) * 0.06, 0.30);
+
+        return Math.round((amountSignal + frequencySignal) * 100.0) / 100.0;
+    }
+
+    // The caller-reported count is only a floor: claims seen by this service count too
+    private static int effectivePreviousClaims(FraudAssessmentRequest request, ClaimVelocity velocity) {
+        return Math.max(request.getPreviousClaimsCount(), velocity.claimsLast30Days());
+    }
+}
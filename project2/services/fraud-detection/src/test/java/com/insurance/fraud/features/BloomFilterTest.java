@@ -0,0 +1,60 @@
+package com.insurance.fraud.features;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("BloomFilter unit tests")
+class BloomFilterTest {
+
+    private static final int KEYS = 10_000;
+
+    @Test
+    @DisplayName("Every added key is reported as possibly present")
+    void mightContain_addedKeys_noFalseNegatives() {
+        BloomFilter filter = new BloomFilter(KEYS);
+        SplittableRandom random = new SplittableRandom(7);
+        long[] keys = new long[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = random.nextLong();
+            filter.put(keys[i]);
+        }
+
+        for (long key : keys) {
+            assertThat(filter.mightContain(key)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Keys never added are rejected at about the target false-positive rate")
+    void mightContain_unseenKeys_lowFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(KEYS);
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < KEYS; i++) {
+            filter.put(random.nextLong());
+        }
+
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(random.nextLong())) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+    }
+
+    @Test
+    @DisplayName("An empty filter contains nothing")
+    void mightContain_emptyFilter_isFalse() {
+        BloomFilter filter = new BloomFilter(KEYS);
+
+        assertThat(filter.mightContain(0L)).isFalse();
+        assertThat(filter.mightContain(-1L)).isFalse();
+        assertThat(filter.mightContain(123_456_789L)).isFalse();
+    }
+}
@@ -0,0 +1,189 @@
+package com.insurance.fraud.features;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("DuplicateClaimIndex unit tests")
+class DuplicateClaimIndexTest {
+
+    private static final double TOLERANCE = 0.05;
+    private static final String POLICY = "POL-1";
+    private static final String DATE = "2026-03-01";
+    private static final String TYPE = "AUTO";
+
+    // Matching
+
+    @ParameterizedTest(name = "bloom front: {0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Another claim id with the same policy, date, type and amount is a duplicate")
+    void checkAndRecord_sameClaimOtherId_isDuplicate(boolean bloomFront) {
+        DuplicateClaimIndex index = new DuplicateClaimIndex(1_000, TOLERANCE, bloomFront);
+
+        assertThat(index.checkAndRecord(POLICY, DATE, TYPE, "CLM-1", 1_000.0)).isFalse();
+        assertThat(index.checkAndRecord(POLICY, DATE, TYPE, "CLM-2", 1_000.0)).isTrue();
+        assertThat(index.duplicateHits()).isEqualTo(1);
+    }
+
+    @ParameterizedTest(name = "bloom front: {0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("A resend of the same claim id is not a duplicate of itself")
+    void checkAndRecord_sameClaimId_isNotDuplicate(boolean bloomFront) {
+        DuplicateClaimIndex index = new DuplicateClaimIndex(1_000, TOLERANCE, bloomFront);
+
+        index.checkAndRecord(POLICY, DATE, TYPE, "CLM-1", 1_000.0);
+
+        assertThat(index.checkAndRecord(POLICY, DATE, TYPE, "CLM-1", 1_000.0)).isFalse();
+        assertThat(index.checkAndRecord(POLICY, DATE, TYPE, "CLM-1", 1_010.0)).isFalse();
+        assertThat(index.duplicateHits()).isZero();
+    }
+
+    @ParameterizedTest(name = "bloom front: {0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("A different policy, incident date or claim type is not a duplicate")
+    void checkAndRecord_otherKey_isNotDuplicate(boolean bloomFront) {
+        DuplicateClaimIndex index = new DuplicateClaimIndex(1_000, TOLERANCE, bloomFront);
+        index.checkAndRecord(POLICY, DATE, TYPE, "CLM-1", 1_000.0);
+
+        assertThat(index.checkAndRecord("POL-2", DATE, TYPE, "CLM-2", 1_000.0)).isFalse();
+        assertThat(index.checkAndRecord(POLICY, "2026-03-02", TYPE, "CLM-3", 1_000.0)).isFalse();
+        assertThat(index.checkAndRecord(POLICY, DATE, "HOME", "CLM-4", 1_000.0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Claims without a policy number are never duplicates")
+    void checkAndRecord_emptyPolicy_isNeverDuplicate() {
+        DuplicateClaimIndex index = new DuplicateClaimIndex(1_000, TOLERANCE, true);
+
+        assertThat(index.checkAndRecord("", DATE, TYPE, "CLM-1", 1_000.0)).isFalse();
+        assertThat(index.checkAndRecord("", DATE, TYPE, "CLM-2", 1_000.0)).isFalse();
+        assertThat(index.isDuplicate("", DATE, TYPE, "CLM-3", 1_000.0)).isFalse();
+    }
+
+    // Amount buckets
+
+    @ParameterizedTest(name = "bloom front: {0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Amounts in neighbouring buckets match across the bucket boundary")
+    void checkAndRecord_neighbouringBucket_isDuplicate(boolean bloomFront) {
+        DuplicateClaimIndex index = new DuplicateClaimIndex(1_000, TOLERANCE, bloomFront);
+        double boundary = bucketBoundary(150);
+
+        index.checkAndRecord(POLICY, DATE, TYPE, "CLM-1", boundary - 0.01);
+
+        assertThat(index.isDuplicate(POLICY, DATE, TYPE, "CLM-2", boundary + 0.01)).isTrue();
+        assertThat(index.isDuplicate(POLICY, DATE, TYPE, "CLM-2", bucketBoundary(149) - 0.01)).isTrue();
+    }
+
+    @ParameterizedTest(name = "bloom front: {0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Amounts two buckets apart do not match")
+    void checkAndRecord_twoBucketsApart_isNotDuplicate(boolean bloomFront) {
+        DuplicateClaimIndex index = new DuplicateClaimIndex(1_000, TOLERANCE, bloomFront);
+
+        index.checkAndRecord(POLICY, DATE, TYPE, "CLM-1", bucketBoundary(150) - 0.01);
+
+        assertThat(index.isDuplicate(POLICY, DATE, TYPE, "CLM-2", bucketBoundary(151) + 0.01)).isFalse();
+        assertThat(index.isDuplicate(POLICY, DATE, TYPE, "CLM-2", bucketBoundary(148) - 0.01)).isFalse();
+        assertThat(index.isDuplicate(POLICY, DATE, TYPE, "CLM-2", 2_000.0)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Zero and negative amounts share the lowest bucket")
+    void checkAndRecord_nonPositiveAmounts_shareBucket() {
+        DuplicateClaimIndex index = new DuplicateClaimIndex(1_000, TOLERANCE, true);
+
+        index.checkAndRecord(POLICY, DATE, TYPE, "CLM-1", 0.0);
+
+        assertThat(index.isDuplicate(POLICY, DATE, TYPE, "CLM-2", -10.0)).isTrue();
+    }
+
+    // Lookups
+
+    @ParameterizedTest(name = "bloom front: {0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("isDuplicate does not record the claim")
+    void isDuplicate_doesNotRecord(boolean bloomFront) {
+        DuplicateClaimIndex index = new DuplicateClaimIndex(1_000, TOLERANCE, bloomFront);
+
+        assertThat(index.isDuplicate(POLICY, DATE, TYPE, "CLM-1", 1_000.0)).isFalse();
+
+        assertThat(index.checkAndRecord(POLICY, DATE, TYPE, "CLM-2", 1_000.0)).isFalse();
+        assertThat(index.duplicateHits()).isZero();
+    }
+
+    // Generations
+
+    @ParameterizedTest(name = "bloom front: {0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("A claim stays searchable for one generation after rotation, then is forgotten")
+    void rotation_keepsPreviousGenerationSearchable(boolean bloomFront) {
+        int maxEntries = 1_000;
+        DuplicateClaimIndex index = new DuplicateClaimIndex(maxEntries, TOLERANCE, bloomFront);
+        index.checkAndRecord(POLICY, DATE, TYPE, "CLM-1", 1_000.0);
+
+        // Enough claims to fill the current generation once, not twice
+        recordOthers(index, 0, maxEntries + maxEntries / 2);
+
+        assertThat(index.isDuplicate(POLICY, DATE, TYPE, "CLM-2", 1_000.0)).isTrue();
+
+        recordOthers(index, maxEntries + maxEntries / 2, 4 * maxEntries);
+
+        assertThat(index.isDuplicate(POLICY, DATE, TYPE, "CLM-2", 1_000.0)).isFalse();
+    }
+
+    // Bloom front
+
+    @Test
+    @DisplayName("The Bloom front gives the same answers as the table alone")
+    void bloomFront_matchesPlainIndex() {
+        DuplicateClaimIndex plain = new DuplicateClaimIndex(5_000, TOLERANCE, false);
+        DuplicateClaimIndex bloom = new DuplicateClaimIndex(5_000, TOLERANCE, true);
+        SplittableRandom random = new SplittableRandom(42);
+
+        int duplicates = 0;
+        for (int i = 0; i < 4_000; i++) {
+            String policy = "POL-" + random.nextInt(500);
+            String date = "2026-03-" + (10 + random.nextInt(5));
+            double amount = 100.0 * (1 + random.nextInt(20));
+            String claimId = "CLM-" + i;
+
+            boolean expected = plain.checkAndRecord(policy, date, TYPE, claimId, amount);
+            assertThat(bloom.checkAndRecord(policy, date, TYPE, claimId, amount)).as(claimId).isEqualTo(expected);
+            if (expected) {
+                duplicates++;
+            }
+        }
+
+        assertThat(duplicates).isPositive();
+        assertThat(bloom.duplicateHits()).isEqualTo(plain.duplicateHits());
+    }
+
+    // Configuration
+
+    @Test
+    @DisplayName("Non-positive capacity or tolerance is rejected")
+    void constructor_rejectsInvalidSettings() {
+        assertThatThrownBy(() -> new DuplicateClaimIndex(0, TOLERANCE, true))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new DuplicateClaimIndex(1_000, 0.0, true))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Smallest amount of the given bucket: bucket n holds log1p(amount) / log1p(tolerance) in [n - 1, n)
+    private static double bucketBoundary(int bucket) {
+        return Math.expm1((bucket - 1) * Math.log1p(TOLERANCE));
+    }
+
+    private static void recordOthers(DuplicateClaimIndex index, int from, int to) {
+        for (int i = from; i < to; i++) {
+            index.checkAndRecord("POL-FILL-" + i, DATE, TYPE, "CLM-FILL-" + i, 1_000.0);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.insurance.fraud.features;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("PolicyWindows unit tests")
+class PolicyWindowsTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    // Aligned to a day, so it starts a bucket of every ring
+    private static final long T0 = 19_675L * DAY;
+
+    private final PolicyWindows windows = new PolicyWindows();
+    private final ClaimVelocity velocity = new ClaimVelocity();
+
+    // Recording
+
+    @Test
+    @DisplayName("The first claim of a policy sees no earlier claims")
+    void record_firstClaim_seesNothing() {
+        windows.record("CLM-1", 500.0, T0, velocity);
+
+        assertVelocity(0, 0, 0);
+        assertThat(velocity.amountLast30Days()).isZero();
+        assertThat(windows.lastSeenMillis()).isEqualTo(T0);
+    }
+
+    @Test
+    @DisplayName("A claim sees the earlier claims in every window, but not itself")
+    void record_seesEarlierClaimsOnly() {
+        windows.record("CLM-1", 500.0, T0, velocity);
+        windows.record("CLM-2", 250.0, T0 + MINUTE, velocity);
+
+        assertVelocity(1, 1, 1);
+        assertThat(velocity.amountLastHour()).isEqualTo(500.0);
+        assertThat(velocity.amountLastDay()).isEqualTo(500.0);
+        assertThat(velocity.amountLast30Days()).isEqualTo(500.0);
+
+        windows.snapshot(T0 + MINUTE, velocity);
+
+        assertVelocity(2, 2, 2);
+        assertThat(velocity.amountLastDay()).isEqualTo(750.0);
+    }
+
+    @Test
+    @DisplayName("Amounts are kept in whole units, negative amounts count as zero and totals saturate")
+    void record_amountUnits() {
+        windows.record("CLM-1", 99.6, T0, velocity);
+        windows.record("CLM-2", -50.0, T0, velocity);
+        windows.snapshot(T0, velocity);
+
+        assertThat(velocity.claimsLastHour()).isEqualTo(2);
+        assertThat(velocity.amountLastHour()).isEqualTo(100.0);
+
+        windows.record("CLM-3", 1e12, T0, velocity);
+        windows.record("CLM-4", 1e12, T0, velocity);
+        windows.snapshot(T0, velocity);
+
+        assertThat(velocity.amountLastHour()).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    // Rollover
+
+    @Test
+    @DisplayName("The hour window holds twelve 5-minute buckets")
+    void snapshot_hourWindow_rollsOverAfterTwelveBuckets() {
+        windows.record("CLM-1", 100.0, T0, velocity);
+
+        windows.snapshot(T0 + 59 * MINUTE, velocity);
+        assertVelocity(1, 1, 1);
+
+        windows.snapshot(T0 + HOUR, velocity);
+        assertVelocity(0, 1, 1);
+        assertThat(velocity.amountLastHour()).isZero();
+        assertThat(velocity.amountLastDay()).isEqualTo(100.0);
+    }
+
+    @Test
+    @DisplayName("The day window holds twenty-four 1-hour buckets")
+    void snapshot_dayWindow_rollsOverAfterTwentyFourBuckets() {
+        windows.record("CLM-1", 100.0, T0, velocity);
+
+        windows.snapshot(T0 + DAY - MINUTE, velocity);
+        assertVelocity(0, 1, 1);
+
+        windows.snapshot(T0 + DAY, velocity);
+        assertVelocity(0, 0, 1);
+        assertThat(velocity.amountLastDay()).isZero();
+        assertThat(velocity.amountLast30Days()).isEqualTo(100.0);
+    }
+
+    @Test
+    @DisplayName("The 30-day window holds thirty 1-day buckets")
+    void snapshot_monthWindow_rollsOverAfterThirtyBuckets() {
+        windows.record("CLM-1", 100.0, T0, velocity);
+
+        windows.snapshot(T0 + 30 * DAY - MINUTE, velocity);
+        assertVelocity(0, 0, 1);
+
+        windows.snapshot(T0 + 30 * DAY, velocity);
+        assertVelocity(0, 0, 0);
+        assertThat(velocity.amountLast30Days()).isZero();
+    }
+
+    @Test
+    @DisplayName("A slot reused by a later bucket drops the stale count before adding to it")
+    void record_reusedSlot_resetsStaleBucket() {
+        windows.record("CLM-1", 100.0, T0, velocity);
+        // Same hour-ring slot, one full ring later
+        windows.record("CLM-2", 200.0, T0 + HOUR, velocity);
+        windows.snapshot(T0 + HOUR, velocity);
+
+        assertVelocity(1, 2, 2);
+        assertThat(velocity.amountLastHour()).isEqualTo(200.0);
+        assertThat(velocity.amountLastDay()).isEqualTo(300.0);
+    }
+
+    // Retries
+
+    @Test
+    @DisplayName("A retry of the most recent claim id is not counted again, but refreshes the last-seen time")
+    void record_retriedClaimId_countedOnce() {
+        windows.record("CLM-1", 100.0, T0, velocity);
+        windows.record("CLM-1", 100.0, T0 + MINUTE, velocity);
+
+        assertVelocity(1, 1, 1);
+        assertThat(windows.lastSeenMillis()).isEqualTo(T0 + MINUTE);
+
+        windows.snapshot(T0 + MINUTE, velocity);
+        assertVelocity(1, 1, 1);
+    }
+
+    @Test
+    @DisplayName("Only the most recent claim id is deduplicated")
+    void record_olderClaimIdAgain_isCounted() {
+        windows.record("CLM-1", 100.0, T0, velocity);
+        windows.record("CLM-2", 100.0, T0, velocity);
+        windows.record("CLM-1", 100.0, T0, velocity);
+        windows.snapshot(T0, velocity);
+
+        assertVelocity(3, 3, 3);
+    }
+
+    @Test
+    @DisplayName("Different claim ids with the same hash code are both counted")
+    void record_collidingClaimIds_bothCounted() {
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+
+        windows.record("Aa", 100.0, T0, velocity);
+        windows.record("BB", 100.0, T0, velocity);
+        windows.snapshot(T0, velocity);
+
+        assertVelocity(2, 2, 2);
+    }
+
+    private void assertVelocity(int lastHour, int lastDay, int last30Days) {
+        assertThat(velocity.claimsLastHour()).as("claims last hour").isEqualTo(lastHour);
+        assertThat(velocity.claimsLastDay()).as("claims last day").isEqualTo(lastDay);
+        assertThat(velocity.claimsLast30Days()).as("claims last 30 days").isEqualTo(last30Days);
+    }
+}
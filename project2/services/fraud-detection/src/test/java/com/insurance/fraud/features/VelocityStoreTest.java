@@ -0,0 +1,182 @@
+package com.insurance.fraud.features;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("VelocityStore unit tests")
+class VelocityStoreTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    // Recording
+
+    @Test
+    @DisplayName("Record fills the given holder with the velocity before the claim")
+    void record_fillsHolder() {
+        VelocityStore store = new VelocityStore(100, 4);
+        ClaimVelocity velocity = new ClaimVelocity();
+
+        store.record("POL-1", "CLM-1", 1_000.0, NOW, velocity);
+        ClaimVelocity returned = store.record("POL-1", "CLM-2", 500.0, NOW + 1, velocity);
+
+        assertThat(returned).isSameAs(velocity);
+        assertThat(velocity.claimsLastHour()).isEqualTo(1);
+        assertThat(velocity.amountLastHour()).isEqualTo(1_000.0);
+    }
+
+    @Test
+    @DisplayName("A reused holder is cleared for a policy seen for the first time")
+    void record_newPolicy_clearsReusedHolder() {
+        VelocityStore store = new VelocityStore(100, 4);
+        ClaimVelocity velocity = new ClaimVelocity();
+        store.record("POL-1", "CLM-1", 1_000.0, NOW, velocity);
+        store.record("POL-1", "CLM-2", 1_000.0, NOW, velocity);
+
+        store.record("POL-2", "CLM-3", 1_000.0, NOW, velocity);
+
+        assertThat(velocity.claimsLast30Days()).isZero();
+        assertThat(velocity.amountLast30Days()).isZero();
+    }
+
+    @Test
+    @DisplayName("Claims without a policy number are not tracked")
+    void record_emptyPolicyNumber_isNotTracked() {
+        VelocityStore store = new VelocityStore(100, 4);
+        ClaimVelocity velocity = new ClaimVelocity(1, 1, 1, 1.0, 1.0, 1.0);
+
+        store.record("", "CLM-1", 1_000.0, NOW, velocity);
+        store.record("", "CLM-2", 1_000.0, NOW, velocity);
+
+        assertThat(store.size()).isZero();
+        assertThat(velocity.claimsLast30Days()).isZero();
+        assertThat(store.peek("", NOW).claimsLast30Days()).isZero();
+    }
+
+    @Test
+    @DisplayName("Peek reads the current velocity without recording")
+    void peek_doesNotRecord() {
+        VelocityStore store = new VelocityStore(100, 4);
+        store.record("POL-1", "CLM-1", 1_000.0, NOW, new ClaimVelocity());
+
+        assertThat(store.peek("POL-1", NOW).claimsLastHour()).isEqualTo(1);
+        assertThat(store.peek("POL-1", NOW).claimsLastHour()).isEqualTo(1);
+        assertThat(store.peek("POL-2", NOW).claimsLastHour()).isZero();
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    // Eviction
+
+    @Test
+    @DisplayName("The idle sweep drops only policies with no claim inside the 30-day window")
+    void evictIdle_dropsOnlyIdlePolicies() {
+        VelocityStore store = new VelocityStore(100, 4);
+        store.record("POL-OLD", "CLM-1", 100.0, NOW - 30 * DAY - 1, new ClaimVelocity());
+        store.record("POL-RECENT", "CLM-2", 100.0, NOW - 30 * DAY + 1, new ClaimVelocity());
+
+        assertThat(store.evictIdle(NOW)).isEqualTo(1);
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.evictions()).isEqualTo(1);
+        assertThat(store.evictIdle(NOW)).isZero();
+    }
+
+    @Test
+    @DisplayName("A scheduled sweep removes idle policies")
+    void scheduleIdleEviction_sweepsPeriodically() throws InterruptedException {
+        VelocityStore store = new VelocityStore(100, 4);
+        store.record("POL-OLD", "CLM-1", 100.0, System.currentTimeMillis() - 31 * DAY, new ClaimVelocity());
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            store.scheduleIdleEviction(scheduler, 1);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (store.size() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+        } finally {
+            scheduler.shutdownNow();
+        }
+
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("A full store evicts the least recently seen policy to make room")
+    void record_fullStore_evictsLeastRecentlySeen() {
+        VelocityStore store = new VelocityStore(3, 4);
+        store.record("POL-B", "CLM-1", 100.0, NOW + 2, new ClaimVelocity());
+        store.record("POL-A", "CLM-2", 100.0, NOW + 1, new ClaimVelocity());
+        store.record("POL-C", "CLM-3", 100.0, NOW + 3, new ClaimVelocity());
+
+        store.record("POL-D", "CLM-4", 100.0, NOW + 4, new ClaimVelocity());
+
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(store.evictions()).isEqualTo(1);
+        assertThat(store.peek("POL-A", NOW + 4).claimsLast30Days()).isZero();
+        assertThat(store.peek("POL-B", NOW + 4).claimsLast30Days()).isEqualTo(1);
+        assertThat(store.peek("POL-D", NOW + 4).claimsLast30Days()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A known policy is recorded without evicting anything from a full store")
+    void record_knownPolicy_doesNotEvict() {
+        VelocityStore store = new VelocityStore(2, 4);
+        store.record("POL-A", "CLM-1", 100.0, NOW, new ClaimVelocity());
+        store.record("POL-B", "CLM-2", 100.0, NOW, new ClaimVelocity());
+
+        store.record("POL-A", "CLM-3", 100.0, NOW + 1, new ClaimVelocity());
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.evictions()).isZero();
+    }
+
+    @Test
+    @DisplayName("Concurrent writers of new policies never push the store past its bound")
+    void record_concurrentNewPolicies_stayWithinBound() throws Exception {
+        int maxPolicies = 64;
+        int threads = 8;
+        int policiesPerThread = 5_000;
+        VelocityStore store = new VelocityStore(maxPolicies, 4);
+        AtomicInteger maxSeen = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                writers.add(pool.submit(() -> {
+                    start.await();
+                    ClaimVelocity velocity = new ClaimVelocity();
+                    for (int i = 0; i < policiesPerThread; i++) {
+                        store.record("POL-" + thread + "-" + i, "CLM-" + i, 100.0, NOW + i, velocity);
+                        maxSeen.accumulateAndGet(store.size(), Math::max);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(maxSeen.get()).isLessThanOrEqualTo(maxPolicies);
+        assertThat(store.size()).isEqualTo(maxPolicies);
+        assertThat(store.evictions()).isEqualTo((long) threads * policiesPerThread - maxPolicies);
+    }
+}
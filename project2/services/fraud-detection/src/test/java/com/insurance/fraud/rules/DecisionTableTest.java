@@ -0,0 +1,182 @@
+package com.insurance.fraud.rules;
+
+import com.insurance.fraud.features.ClaimVelocity;
+import com.insurance.fraud.proto.RiskLevel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("DecisionTable unit tests")
+class DecisionTableTest {
+
+    private static final ClaimVelocity NO_VELOCITY = new ClaimVelocity();
+
+    private static final RuleDefinitions.Condition ALWAYS = RuleDefinitions.Condition.ALWAYS;
+
+    // Thresholds
+
+    @Test
+    @DisplayName("Thresholds must be exceeded strictly")
+    void evaluate_thresholdIsExclusive() {
+        DecisionTable table = DecisionTable.compile("DEFAULT", List.of(
+                rule("high-amount", new RuleDefinitions.Condition(50_000.0, null, null, null, null, null),
+                        RiskLevel.HIGH, 0.8),
+                rule("standard", ALWAYS, RiskLevel.LOW, 0.1)));
+
+        assertThat(table.evaluate(50_000.0, 0, NO_VELOCITY, false).getRuleName()).isEqualTo("standard");
+        assertThat(table.evaluate(50_000.01, 0, NO_VELOCITY, false).getRuleName()).isEqualTo("high-amount");
+    }
+
+    @Test
+    @DisplayName("Each velocity column is compared with its own window")
+    void evaluate_velocityColumns() {
+        DecisionTable table = DecisionTable.compile("DEFAULT", List.of(
+                rule("hour", new RuleDefinitions.Condition(null, null, 1, null, null, null), RiskLevel.CRITICAL, 0.9),
+                rule("day", new RuleDefinitions.Condition(null, null, null, 2, null, null), RiskLevel.HIGH, 0.7),
+                rule("day-amount", new RuleDefinitions.Condition(null, null, null, null, 5_000.0, null),
+                        RiskLevel.MEDIUM, 0.5),
+                rule("standard", ALWAYS, RiskLevel.LOW, 0.1)));
+
+        assertThat(table.evaluate(0.0, 0, new ClaimVelocity(2, 2, 2, 0.0, 0.0, 0.0), false).getRuleName())
+                .isEqualTo("hour");
+        assertThat(table.evaluate(0.0, 0, new ClaimVelocity(1, 3, 3, 0.0, 0.0, 0.0), false).getRuleName())
+                .isEqualTo("day");
+        assertThat(table.evaluate(0.0, 0, new ClaimVelocity(1, 2, 2, 0.0, 5_000.5, 5_000.5), false).getRuleName())
+                .isEqualTo("day-amount");
+        assertThat(table.evaluate(0.0, 0, new ClaimVelocity(1, 2, 2, 0.0, 5_000.0, 5_000.0), false).getRuleName())
+                .isEqualTo("standard");
+    }
+
+    @Test
+    @DisplayName("A rule matches only when every one of its thresholds is exceeded")
+    void evaluate_allConditionsOfARuleMustHold() {
+        DecisionTable table = DecisionTable.compile("DEFAULT", List.of(
+                rule("big-and-frequent", new RuleDefinitions.Condition(10_000.0, 3, null, null, null, null),
+                        RiskLevel.HIGH, 0.8),
+                rule("standard", ALWAYS, RiskLevel.LOW, 0.1)));
+
+        assertThat(table.evaluate(20_000.0, 3, NO_VELOCITY, false).getRuleName()).isEqualTo("standard");
+        assertThat(table.evaluate(10_000.0, 4, NO_VELOCITY, false).getRuleName()).isEqualTo("standard");
+        assertThat(table.evaluate(20_000.0, 4, NO_VELOCITY, false).getRuleName()).isEqualTo("big-and-frequent");
+    }
+
+    @Test
+    @DisplayName("Absent thresholds match any input, including zero and negative values")
+    void evaluate_absentThresholds_matchEverything() {
+        DecisionTable table = DecisionTable.compile("DEFAULT", List.of(
+                rule("frequent", new RuleDefinitions.Condition(null, 0, null, null, null, null), RiskLevel.MEDIUM, 0.6),
+                rule("standard", ALWAYS, RiskLevel.LOW, 0.1)));
+
+        assertThat(table.evaluate(-1.0, 1, NO_VELOCITY, false).getRuleName()).isEqualTo("frequent");
+        assertThat(table.evaluate(0.0, 1, NO_VELOCITY, false).getRuleName()).isEqualTo("frequent");
+    }
+
+    // Duplicates
+
+    @Test
+    @DisplayName("A duplicate rule matches only flagged claims; other rules ignore the flag")
+    void evaluate_duplicateRule() {
+        DecisionTable table = DecisionTable.compile("DEFAULT", List.of(
+                rule("duplicate", new RuleDefinitions.Condition(null, null, null, null, null, true),
+                        RiskLevel.HIGH, 0.9),
+                rule("not-a-filter", new RuleDefinitions.Condition(1_000.0, null, null, null, null, false),
+                        RiskLevel.MEDIUM, 0.4),
+                rule("standard", ALWAYS, RiskLevel.LOW, 0.1)));
+
+        assertThat(table.evaluate(0.0, 0, NO_VELOCITY, true).getRuleName()).isEqualTo("duplicate");
+        assertThat(table.evaluate(0.0, 0, NO_VELOCITY, false).getRuleName()).isEqualTo("standard");
+        assertThat(table.evaluate(2_000.0, 0, NO_VELOCITY, false).getRuleName()).isEqualTo("not-a-filter");
+    }
+
+    @Test
+    @DisplayName("Non-duplicate rules append a duplicate hint to their reason; duplicate rules keep theirs")
+    void outcome_duplicateReason() {
+        DecisionTable table = DecisionTable.compile("DEFAULT", List.of(
+                rule("duplicate", new RuleDefinitions.Condition(10_000.0, null, null, null, null, true),
+                        RiskLevel.HIGH, 0.9),
+                rule("standard", ALWAYS, RiskLevel.LOW, 0.1)));
+
+        RuleOutcome duplicate = table.evaluate(20_000.0, 0, NO_VELOCITY, true);
+        RuleOutcome standard = table.evaluate(0.0, 0, NO_VELOCITY, true);
+
+        assertThat(duplicate.getAssessmentReason(true)).isEqualTo("duplicate reason");
+        assertThat(standard.getAssessmentReason(true)).isEqualTo("standard reason (possible duplicate submission)");
+        assertThat(standard.getAssessmentReason(false)).isEqualTo("standard reason");
+    }
+
+    // Order
+
+    @Test
+    @DisplayName("The first matching rule wins and its shared outcome is returned")
+    void evaluate_firstMatchWins() {
+        DecisionTable table = DecisionTable.compile("DEFAULT", List.of(
+                rule("extreme", new RuleDefinitions.Condition(100_000.0, null, null, null, null, null),
+                        RiskLevel.CRITICAL, 0.95),
+                rule("high", new RuleDefinitions.Condition(50_000.0, null, null, null, null, null),
+                        RiskLevel.HIGH, 0.8),
+                rule("standard", ALWAYS, RiskLevel.LOW, 0.1)));
+
+        RuleOutcome outcome = table.evaluate(150_000.0, 0, NO_VELOCITY, false);
+
+        assertThat(outcome.getRuleName()).isEqualTo("extreme");
+        assertThat(outcome.getRiskLevel()).isEqualTo(RiskLevel.CRITICAL);
+        assertThat(outcome.getRiskScore()).isEqualTo(0.95);
+        assertThat(outcome.isRequiresInvestigation()).isTrue();
+        assertThat(table.evaluate(150_000.0, 0, NO_VELOCITY, false)).isSameAs(outcome);
+    }
+
+    @Test
+    @DisplayName("Unnamed rules are named after their set and position, and their reason defaults to the name")
+    void compile_unnamedRule_getsPositionalName() {
+        DecisionTable table = DecisionTable.compile("AUTO", List.of(
+                new RuleDefinitions.Rule(null, null, new RuleDefinitions.Outcome(RiskLevel.LOW, 0.1, null, false))));
+
+        RuleOutcome outcome = table.evaluate(0.0, 0, NO_VELOCITY, false);
+
+        assertThat(outcome.getRuleName()).isEqualTo("AUTO#0");
+        assertThat(outcome.getAssessmentReason()).isEqualTo("AUTO#0");
+    }
+
+    // Invalid rule sets
+
+    @Test
+    @DisplayName("An empty rule set is rejected")
+    void compile_emptySet_isRejected() {
+        assertThatThrownBy(() -> DecisionTable.compile("AUTO", List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'AUTO' is empty");
+    }
+
+    @Test
+    @DisplayName("A rule set whose last rule has conditions is rejected")
+    void compile_conditionalLastRule_isRejected() {
+        assertThatThrownBy(() -> DecisionTable.compile("DEFAULT", List.of(
+                rule("high", new RuleDefinitions.Condition(50_000.0, null, null, null, null, null),
+                        RiskLevel.HIGH, 0.8))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("must end with a rule without conditions");
+    }
+
+    @Test
+    @DisplayName("A rule without a risk level or with a score outside [0, 1] is rejected")
+    void compile_invalidOutcome_isRejected() {
+        assertThatThrownBy(() -> DecisionTable.compile("DEFAULT", List.of(
+                new RuleDefinitions.Rule("no-level", null, new RuleDefinitions.Outcome(null, 0.1, "r", false)))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("no valid riskLevel");
+        assertThatThrownBy(() -> DecisionTable.compile("DEFAULT", List.of(
+                rule("too-high", ALWAYS, RiskLevel.HIGH, 1.5))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("score outside [0, 1]");
+    }
+
+    private static RuleDefinitions.Rule rule(String name, RuleDefinitions.Condition when,
+                                             RiskLevel riskLevel, double score) {
+        return new RuleDefinitions.Rule(name, when,
+                new RuleDefinitions.Outcome(riskLevel, score, name + " reason", riskLevel != RiskLevel.LOW));
+    }
+}
@@ -0,0 +1,196 @@
+package com.insurance.fraud.rules;
+
+import com.insurance.fraud.features.ClaimVelocity;
+import com.insurance.fraud.proto.RiskLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RuleEngine unit tests")
+class RuleEngineTest {
+
+    private static final ClaimVelocity NO_VELOCITY = new ClaimVelocity();
+
+    private static final String AUTO_AND_DEFAULT = """
+            { "ruleSets": {
+                "DEFAULT": [
+                  { "name": "default-high", "when": { "amountAbove": 50000 },
+                    "then": { "riskLevel": "HIGH", "score": 0.8, "reason": "High", "investigate": true } },
+                  { "name": "default-standard",
+                    "then": { "riskLevel": "LOW", "score": 0.1, "reason": "Standard", "investigate": false } } ],
+                "AUTO": [
+                  { "name": "auto-high", "when": { "amountAbove": 5000 },
+                    "then": { "riskLevel": "HIGH", "score": 0.7, "reason": "High for auto", "investigate": true } },
+                  { "name": "auto-standard",
+                    "then": { "riskLevel": "LOW", "score": 0.1, "reason": "Standard", "investigate": false } } ] } }
+            """;
+
+    private static final String DEFAULT_ONLY_STRICT = """
+            { "ruleSets": {
+                "DEFAULT": [
+                  { "name": "strict-medium", "when": { "amountAbove": 1000 },
+                    "then": { "riskLevel": "MEDIUM", "score": 0.5, "reason": "Strict", "investigate": false } },
+                  { "name": "strict-standard",
+                    "then": { "riskLevel": "LOW", "score": 0.1, "reason": "Standard", "investigate": false } } ] } }
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private RuleEngine engine;
+
+    @AfterEach
+    void closeEngine() throws IOException {
+        if (engine != null) {
+            engine.close();
+        }
+    }
+
+    // Bundled rules
+
+    @Test
+    @DisplayName("The bundled rules score claims as documented")
+    void fromClasspath_bundledRules() {
+        engine = RuleEngine.fromClasspath();
+
+        assertThat(evaluate("AUTO", 150_000.0, 0, NO_VELOCITY, false).getRiskLevel()).isEqualTo(RiskLevel.CRITICAL);
+        assertThat(evaluate("AUTO", 100_000.0, 0, NO_VELOCITY, false).getRiskLevel()).isEqualTo(RiskLevel.HIGH);
+        assertThat(evaluate("AUTO", 1_000.0, 0, NO_VELOCITY, true).getRuleName()).isEqualTo("possible-duplicate");
+        assertThat(evaluate("AUTO", 1_000.0, 0, new ClaimVelocity(0, 3, 3, 0.0, 3_000.0, 3_000.0), false)
+                .getRuleName()).isEqualTo("claim-burst");
+        assertThat(evaluate("AUTO", 1_000.0, 4, NO_VELOCITY, false).getRiskLevel()).isEqualTo(RiskLevel.MEDIUM);
+        assertThat(evaluate("AUTO", 10_000.0, 3, NO_VELOCITY, false).getRiskLevel()).isEqualTo(RiskLevel.LOW);
+        assertThat(evaluate("AUTO", 10_000.01, 3, NO_VELOCITY, false).getRiskLevel()).isEqualTo(RiskLevel.MEDIUM);
+    }
+
+    @Test
+    @DisplayName("Classpath rules cannot be reloaded")
+    void fromClasspath_reload_returnsFalse() {
+        engine = RuleEngine.fromClasspath();
+
+        assertThat(engine.reload()).isFalse();
+    }
+
+    // Rule set selection
+
+    @Test
+    @DisplayName("A claim type with its own rule set is scored by it")
+    void evaluate_claimTypeWithOwnSet_usesIt() throws IOException {
+        engine = RuleEngine.fromFile(writeRules(AUTO_AND_DEFAULT));
+
+        assertThat(evaluate("AUTO", 6_000.0, 0, NO_VELOCITY, false).getRuleName()).isEqualTo("auto-high");
+        assertThat(evaluate("AUTO", 5_000.0, 0, NO_VELOCITY, false).getRuleName()).isEqualTo("auto-standard");
+    }
+
+    @Test
+    @DisplayName("Claim types without their own rule set fall back to DEFAULT, matched case-sensitively")
+    void evaluate_otherClaimTypes_useDefault() throws IOException {
+        engine = RuleEngine.fromFile(writeRules(AUTO_AND_DEFAULT));
+
+        assertThat(evaluate("HOME", 6_000.0, 0, NO_VELOCITY, false).getRuleName()).isEqualTo("default-standard");
+        assertThat(evaluate("HOME", 60_000.0, 0, NO_VELOCITY, false).getRuleName()).isEqualTo("default-high");
+        assertThat(evaluate("auto", 6_000.0, 0, NO_VELOCITY, false).getRuleName()).isEqualTo("default-standard");
+        assertThat(evaluate("", 6_000.0, 0, NO_VELOCITY, false).getRuleName()).isEqualTo("default-standard");
+    }
+
+    // Loading
+
+    @Test
+    @DisplayName("A malformed rule file cannot be loaded")
+    void fromFile_malformedJson_throws() throws IOException {
+        Path file = writeRules("{ \"ruleSets\": { \"DEFAULT\": [ ");
+
+        assertThatThrownBy(() -> RuleEngine.fromFile(file)).isInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    @DisplayName("A rule file without a DEFAULT set is rejected")
+    void fromFile_missingDefault_throws() throws IOException {
+        Path file = writeRules("""
+                { "ruleSets": { "AUTO": [ { "then": { "riskLevel": "LOW", "score": 0.1 } } ] } }
+                """);
+
+        assertThatThrownBy(() -> RuleEngine.fromFile(file))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'DEFAULT'");
+    }
+
+    // Reload
+
+    @Test
+    @DisplayName("Reload swaps in the new rules and notifies listeners")
+    void reload_swapsCompiledRules() throws IOException {
+        Path file = writeRules(AUTO_AND_DEFAULT);
+        engine = RuleEngine.fromFile(file);
+        AtomicInteger reloads = new AtomicInteger();
+        engine.addReloadListener(reloads::incrementAndGet);
+
+        Files.writeString(file, DEFAULT_ONLY_STRICT);
+
+        assertThat(engine.reload()).isTrue();
+        assertThat(reloads).hasValue(1);
+        assertThat(evaluate("AUTO", 6_000.0, 0, NO_VELOCITY, false).getRuleName()).isEqualTo("strict-medium");
+        assertThat(evaluate("HOME", 500.0, 0, NO_VELOCITY, false).getRuleName()).isEqualTo("strict-standard");
+    }
+
+    @Test
+    @DisplayName("A malformed file is rejected on reload and the previous rules stay active")
+    void reload_malformedJson_keepsPreviousRules() throws IOException {
+        Path file = writeRules(AUTO_AND_DEFAULT);
+        engine = RuleEngine.fromFile(file);
+        AtomicInteger reloads = new AtomicInteger();
+        engine.addReloadListener(reloads::incrementAndGet);
+
+        Files.writeString(file, "{ \"ruleSets\": ");
+
+        assertThat(engine.reload()).isFalse();
+        assertThat(reloads).hasValue(0);
+        assertThat(evaluate("AUTO", 6_000.0, 0, NO_VELOCITY, false).getRuleName()).isEqualTo("auto-high");
+    }
+
+    @Test
+    @DisplayName("A file that parses but does not compile is rejected on reload")
+    void reload_invalidRules_keepsPreviousRules() throws IOException {
+        Path file = writeRules(AUTO_AND_DEFAULT);
+        engine = RuleEngine.fromFile(file);
+
+        Files.writeString(file, """
+                { "ruleSets": { "DEFAULT": [
+                    { "name": "out-of-range", "then": { "riskLevel": "HIGH", "score": 2.0 } } ] } }
+                """);
+
+        assertThat(engine.reload()).isFalse();
+        assertThat(evaluate("HOME", 60_000.0, 0, NO_VELOCITY, false).getRuleName()).isEqualTo("default-high");
+    }
+
+    @Test
+    @DisplayName("Rules deleted from disk keep the previous rules active")
+    void reload_missingFile_keepsPreviousRules() throws IOException {
+        Path file = writeRules(AUTO_AND_DEFAULT);
+        engine = RuleEngine.fromFile(file);
+
+        Files.delete(file);
+
+        assertThat(engine.reload()).isFalse();
+        assertThat(evaluate("AUTO", 6_000.0, 0, NO_VELOCITY, false).getRuleName()).isEqualTo("auto-high");
+    }
+
+    private RuleOutcome evaluate(String claimType, double amount, int previousClaims,
+                                 ClaimVelocity velocity, boolean duplicate) {
+        return engine.evaluate(claimType, amount, previousClaims, velocity, duplicate);
+    }
+
+    private Path writeRules(String json) throws IOException {
+        return Files.writeString(tempDir.resolve("fraud-rules.json"), json);
+    }
+}